@@ -0,0 +1,112 @@
+package org.example.largescale;
+
+import ch.qos.logback.classic.Level;
+
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.core.CloudSimEntity;
+import org.lgdcloudsim.core.Simulation;
+import org.lgdcloudsim.core.events.CloudSimEventPool;
+import org.lgdcloudsim.core.events.SimEvent;
+import org.lgdcloudsim.datacenter.CollaborationManagerSimple;
+import org.lgdcloudsim.util.Log;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * A benchmark to compare the allocation and the garbage collection of the simulation
+ * with and without the {@link CloudSimEventPool}.
+ * Some entities keep sending events to themselves through the whole simulation loop,
+ * like the heartbeats and the scheduling events of the datacenters,
+ * until the given number of events has been processed.
+ * The allocated bytes of the simulation thread and the collections of all the garbage collectors are reported.
+ * <p>
+ * The number of events can be given as the argument, the default is 10M.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class EventPoolBenchmark {
+    private static final int ENTITY_NUM = 100;
+    private static final int PENDING_EVENT_NUM_PER_ENTITY = 100;
+
+    public static void main(String[] args) {
+        long eventNum = args.length == 0 ? 10_000_000 : Long.parseLong(args[0]);
+        Log.setLevel(Level.OFF);
+        System.out.printf("%-10s %15s %15s %15s %10s %10s%n", "pool", "events", "events/s", "bytes/event", "GC count", "GC ms");
+        // The first runs warm up the JIT.
+        run(false, eventNum / 10, false);
+        run(true, eventNum / 10, false);
+        run(false, eventNum, true);
+        run(true, eventNum, true);
+    }
+
+    private static void run(boolean isPoolEnabled, long eventNum, boolean isPrint) {
+        CloudSim simulation = new CloudSim();
+        simulation.setIsSqlRecord(false);
+        simulation.getEventPool().setEnabled(isPoolEnabled);
+        new CollaborationManagerSimple(simulation);
+        long eventNumPerEntity = eventNum / ENTITY_NUM;
+        for (int i = 0; i < ENTITY_NUM; i++) {
+            new PingEntity(simulation, eventNumPerEntity, i);
+        }
+        System.gc();
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long startBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+        long startGcCount = getGcCount();
+        long startGcTime = getGcTime();
+        long start = System.nanoTime();
+        simulation.start();
+        long end = System.nanoTime();
+
+        if (isPrint) {
+            long processedNum = eventNumPerEntity * ENTITY_NUM;
+            System.out.printf("%-10s %15d %15.0f %15.1f %10d %10d%n", isPoolEnabled ? "enabled" : "disabled", processedNum,
+                    processedNum / ((end - start) / 1e9), (threadMXBean.getCurrentThreadAllocatedBytes() - startBytes) / (double) processedNum,
+                    getGcCount() - startGcCount, getGcTime() - startGcTime);
+        }
+    }
+
+    private static long getGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long getGcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    /**
+     * An entity which keeps a fixed number of events pending until it has processed the given number of events.
+     */
+    private static class PingEntity extends CloudSimEntity {
+        private final Random random;
+        private long remainingEventNum;
+
+        PingEntity(Simulation simulation, long eventNum, long seed) {
+            super(simulation);
+            this.remainingEventNum = eventNum;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        protected void startInternal() {
+            for (int i = 0; i < PENDING_EVENT_NUM_PER_ENTITY; i++) {
+                sendNext();
+            }
+        }
+
+        @Override
+        public void processEvent(SimEvent evt) {
+            if (--remainingEventNum >= PENDING_EVENT_NUM_PER_ENTITY) {
+                sendNext();
+            }
+        }
+
+        private void sendNext() {
+            schedule(this, random.nextInt(100) / 10.0, CloudActionTags.END_INSTANCE_RUN);
+        }
+    }
+}
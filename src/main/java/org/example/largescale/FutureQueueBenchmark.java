@@ -0,0 +1,93 @@
+package org.example.largescale;
+
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.core.CloudSimEntity;
+import org.lgdcloudsim.core.Simulation;
+import org.lgdcloudsim.core.events.CalendarFutureQueue;
+import org.lgdcloudsim.core.events.CloudSimEvent;
+import org.lgdcloudsim.core.events.FutureQueue;
+import org.lgdcloudsim.core.events.SimEvent;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A benchmark to compare the {@link FutureQueue} based on a TreeSet with the {@link CalendarFutureQueue}.
+ * It uses the classic hold model: the queue is filled with a given number of pending events,
+ * and then the first event is removed and a new event is added after it repeatedly,
+ * so the number of pending events stays the same.
+ * Like in the simulation, most of the new events are scheduled after a short delay
+ * (such as the heartbeats and the scheduling events),
+ * and the others after a long delay (such as {@link CloudActionTags#END_INSTANCE_RUN}).
+ * <p>
+ * The numbers of pending events can be given as arguments, the default is 1M, 10M and 50M.
+ * Note that 50M pending events need a heap of about 8GB, e.g. run it with -Xmx12g.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class FutureQueueBenchmark {
+    private static final int HOLD_OPERATION_NUM = 5_000_000;
+    private static final CloudActionTags[] TAGS = {CloudActionTags.END_INSTANCE_RUN, CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC,
+            CloudActionTags.INTRA_SCHEDULE_BEGIN, CloudActionTags.INTRA_SCHEDULE_END, CloudActionTags.PRE_ALLOCATE_RESOURCE};
+
+    private final Simulation simulation = new CloudSim();
+    private final CloudSimEntity entity = new BenchmarkEntity(simulation);
+
+    public static void main(String[] args) {
+        long[] pendingEventNums = args.length == 0 ? new long[]{1_000_000, 10_000_000, 50_000_000}
+                : java.util.Arrays.stream(args).mapToLong(Long::parseLong).toArray();
+        FutureQueueBenchmark benchmark = new FutureQueueBenchmark();
+        System.out.printf("%-20s %15s %15s %15s%n", "queue", "pending events", "fill events/s", "hold events/s");
+        for (long pendingEventNum : pendingEventNums) {
+            benchmark.run("TreeSet", FutureQueue::new, (int) pendingEventNum);
+            benchmark.run("Calendar", CalendarFutureQueue::new, (int) pendingEventNum);
+        }
+    }
+
+    private void run(String name, Supplier<FutureQueue> queueSupplier, int pendingEventNum) {
+        FutureQueue queue = queueSupplier.get();
+        Random random = new Random(0);
+        System.gc();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < pendingEventNum; i++) {
+            queue.addEvent(createEvent(0, random));
+        }
+        long endFill = System.nanoTime();
+
+        for (int i = 0; i < HOLD_OPERATION_NUM; i++) {
+            SimEvent first = queue.first();
+            queue.remove(first);
+            queue.addEvent(createEvent(first.getTime(), random));
+        }
+        long endHold = System.nanoTime();
+
+        System.out.printf("%-20s %15d %15.0f %15.0f%n", name, pendingEventNum,
+                pendingEventNum / ((endFill - start) / 1e9), HOLD_OPERATION_NUM / ((endHold - endFill) / 1e9));
+    }
+
+    /**
+     * Creates an event after the given time.
+     * The clock of the simulation stays at 0, so the delay is the time of the event.
+     */
+    private SimEvent createEvent(double time, Random random) {
+        double delay = random.nextInt(10) < 8 ? random.nextInt(100) / 10.0 : random.nextInt(100_000);
+        return new CloudSimEvent(time + delay, entity, entity, TAGS[random.nextInt(TAGS.length)], null);
+    }
+
+    private static class BenchmarkEntity extends CloudSimEntity {
+        BenchmarkEntity(Simulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        protected void startInternal() {
+        }
+
+        @Override
+        public void processEvent(SimEvent evt) {
+        }
+    }
+}
@@ -176,6 +176,21 @@ public enum CloudActionTags implements CloudSimTags {
      */
     public static final Set<CloudActionTags> LOOP_TAG = Set.of(SYN_STATE_BETWEEN_DC, SYN_STATE_BETWEEN_CENTER_AND_INTRA_SCHEDULER_IN_DC, CHANGE_COLLABORATION_SYN);
 
+    /**
+     * Tags whose events only access the state of the destination entity and only send events to it,
+     * so the events of different entities at the same time can be processed in parallel.
+     * See {@link Simulation#setParallelism(int)}.
+     */
+    public static final Set<CloudActionTags> PARALLEL_TAG = Set.of(INTRA_SCHEDULE_BEGIN);
+
+    /**
+     * Tags whose events carry a list and can be merged.
+     * The lists of the future events with the same destination, time and tag are merged into the first event,
+     * so the destination handles all the items at once instead of one event for each list.
+     * See {@link org.lgdcloudsim.core.events.FutureQueue}.
+     */
+    public static final Set<CloudActionTags> COALESCE_TAG = Set.of(END_INSTANCE_RUN);
+
     /**
      * Convert the tag to a string.
      *
@@ -8,6 +8,7 @@ import org.lgdcloudsim.network.NetworkTopology;
 import org.lgdcloudsim.datacenter.CollaborationManager;
 import org.lgdcloudsim.datacenter.Datacenter;
 import org.lgdcloudsim.datacenter.DatacenterPowerOnRecord;
+import org.lgdcloudsim.record.EventProfiler;
 import org.lgdcloudsim.record.MemoryRecord;
 import org.lgdcloudsim.record.SqlRecord;
 import org.lgdcloudsim.record.SqlRecordNull;
@@ -16,8 +17,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -48,6 +54,8 @@ public class CloudSim implements Simulation {
 
     /**
      * The simulation time in string format.
+     * It is formatted only when it is needed after the clock changes,
+     * because the clock is set for every processed event.
      */
     String clockStr;
     /**
@@ -60,13 +68,24 @@ public class CloudSim implements Simulation {
      */
     private final FutureQueue future;
     /**
-     * The deferred event queue.
+     * The deferred event queue, which keeps the events of each entity in its own mailbox.
      */
-    private final DeferredQueue deferred;
+    private final EntityDeferredQueue deferred;
     /**
      * The list of entities in the simulation.
      */
     private final List<CloudSimEntity> entityList;
+    /**
+     * The indexes of the entities in the {@link #entityList}.
+     * The entities are indexed by reference because the ids of the entities are not unique,
+     * see {@link EntityDeferredQueue}.
+     */
+    private final Map<SimEntity, Integer> entityIndexes;
+    /**
+     * The indexes of the entities in the {@link #entityList} that have events in the deferred queue.
+     * Only these entities are executed, so the idle entities cost nothing.
+     */
+    private final BitSet readyEntities;
     /**
      * The Cloud Information Service (CIS) that provides information about the simulation entities.
      * It also acts as a cloud administrator.
@@ -116,15 +135,49 @@ public class CloudSim implements Simulation {
     @Getter
     @Setter
     private String dbName;
+    /**
+     * The pool to process the events with a tag in {@link CloudActionTags#PARALLEL_TAG} of different entities in parallel.
+     * It is null if the entities are executed sequentially.
+     */
+    private ForkJoinPool parallelPool;
+    /**
+     * The buffer of the events sent by the entity whose events are processed on the current thread,
+     * when the entities are executed in parallel.
+     * The buffers are added to the future queue in the order of the entities after all the events are processed.
+     */
+    private final ThreadLocal<List<SimEvent>> sentEventsBuffer = new ThreadLocal<>();
+    /**
+     * The pool to recycle the events after they are processed.
+     */
+    @Getter
+    private final CloudSimEventPool eventPool = new CloudSimEventPool();
+    /**
+     * The profiler of the events processed by the entities.
+     */
+    @Getter
+    private final EventProfiler eventProfiler = new EventProfiler();
 
     /**
      * Creates a new CloudSim instance.
      */
     public CloudSim() {
+        this(new FutureQueue());
+    }
+
+    /**
+     * Creates a new CloudSim instance with the given future event queue,
+     * such as a {@link CalendarFutureQueue} for simulations with a large number of pending events.
+     *
+     * @param future the empty queue to store the future events
+     */
+    public CloudSim(@NonNull final FutureQueue future) {
         setClock(0);
         this.entityList = new ArrayList<>();
-        this.future = new FutureQueue();
-        this.deferred = new DeferredQueue();
+        this.entityIndexes = new IdentityHashMap<>();
+        this.readyEntities = new BitSet();
+        this.future = future;
+        this.future.setEventPool(eventPool);
+        this.deferred = new EntityDeferredQueue();
         this.cis = new CloudInformationService(this);
         this.simulationAccuracy = 3;
         this.isSqlRecord = true;
@@ -137,13 +190,18 @@ public class CloudSim implements Simulation {
 
     @Override
     public String clockStr() {
+        if (clockStr == null) {
+            clockStr = "%.2f ms".formatted(clock);
+        }
         return clockStr;
     }
 
     @Override
     public Simulation setClock(double time) {
-        this.clock = time;
-        this.clockStr = "%.2f ms".formatted(clock);
+        if (time != clock) {
+            this.clock = time;
+            this.clockStr = null;
+        }
         return this;
     }
 
@@ -151,32 +209,35 @@ public class CloudSim implements Simulation {
     public void addEntity(@NonNull final CloudSimEntity entity) {
         if (running) {
             final var evt = new CloudSimEvent(0, entity, SimEntity.NULL, CloudActionTags.NONE, entity);
-            future.addEvent(evt);
+            send(evt);
         }
 
         if (entity.getId() == -1) { // Only add once!
             entity.setId(entityList.size());
+            entityIndexes.put(entity, entityList.size());
             entityList.add(entity);
         }
     }
 
     @Override
     public SimEvent select(final SimEntity dest, final Predicate<SimEvent> predicate) {
-        final SimEvent evt = findFirstDeferred(dest, predicate);
-        if (evt != SimEvent.NULL) {
-            deferred.remove(evt);
-        }
-
-        return evt;
+        return deferred.poll(dest, predicate);
     }
 
     @Override
     public SimEvent findFirstDeferred(final SimEntity dest, final Predicate<SimEvent> predicate) {
-        return filterEventsToDestinationEntity(deferred, predicate, dest).findFirst().orElse(SimEvent.NULL);
+        return deferred.findFirst(dest, predicate);
     }
 
     @Override
     public void send(@NonNull final SimEvent evt) {
+        if (parallelPool != null) {
+            final List<SimEvent> sentEvents = sentEventsBuffer.get();
+            if (sentEvents != null) {
+                sentEvents.add(evt);
+                return;
+            }
+        }
         future.addEvent(evt);
     }
 
@@ -190,30 +251,6 @@ public class CloudSim implements Simulation {
         return true;
     }
 
-    /**
-     * Gets a stream of events inside a specific queue that match a given predicate
-     * and are targeted to an specific entity.
-     *
-     * @param queue     the queue to get the events from
-     * @param predicate the event selection predicate
-     * @param dest      id of entity that the event has to be sent to
-     * @return a Stream of events from the queue
-     */
-    private Stream<SimEvent> filterEventsToDestinationEntity(final EventQueue queue, final Predicate<SimEvent> predicate, final SimEntity dest) {
-        return filterEvents(queue, predicate.and(evt -> evt.getDestination() == dest));
-    }
-
-    /**
-     * Gets a stream of events inside a specific queue that match a given predicate.
-     *
-     * @param queue the queue to get the events from
-     * @param predicate the event selection predicate
-     * @return a Stream of events from the queue
-     */
-    private Stream<SimEvent> filterEvents(final EventQueue queue, final Predicate<SimEvent> predicate) {
-        return queue.stream().filter(predicate);
-    }
-
     @Override
     public double start() {
         if(this.sqlRecord==null) {
@@ -250,7 +287,10 @@ public class CloudSim implements Simulation {
         if (!runClockTickAndProcessFutureEvents(until)) {
             return false;
         }
-        LOGGER.debug(this.deferred.toString());
+        if (eventProfiler.isEnabled()) {
+            eventProfiler.recordQueueSizes(clock, future.size(), deferred.size());
+        }
+        LOGGER.debug("{}", this.deferred);
         /* If it's time to terminate the simulation, sets a new termination time
          * so that events to finish Cloudlets with a negative length are received.
          * Cloudlets with a negative length must keep running
@@ -292,6 +332,10 @@ public class CloudSim implements Simulation {
             sqlRecord.recordDatacentersInfo(datacenter);
         }
         sqlRecord.recordDcNetworkInfo(networkTopology);
+        if (eventProfiler.isEnabled()) {
+            LOGGER.info("{}{}", System.lineSeparator(), eventProfiler.getSummary());
+            sqlRecord.recordEventProfile(eventProfiler);
+        }
 
         System.out.printf("All TCO = %f\n", allCost);
         System.out.printf("Database to save simulation results: %s\n", getSqlRecord().getDbPath());
@@ -312,6 +356,32 @@ public class CloudSim implements Simulation {
         this.isSqlRecord = isSqlRecord;
     }
 
+    @Override
+    public int getParallelism() {
+        return parallelPool == null ? 1 : parallelPool.getParallelism();
+    }
+
+    @Override
+    public void setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive.");
+        }
+        if (parallelPool != null) {
+            parallelPool.shutdown();
+        }
+        parallelPool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public boolean isEventCoalescingEnabled() {
+        return future.isCoalescingEnabled();
+    }
+
+    @Override
+    public void setEventCoalescingEnabled(final boolean eventCoalescingEnabled) {
+        future.setCoalescingEnabled(eventCoalescingEnabled);
+    }
+
     /**
      * Run one tick of the simulation, processing and removing the
      * events in the {@link #future future event queue} that happen
@@ -336,34 +406,215 @@ public class CloudSim implements Simulation {
 
     /**
      * Get whether there are only continuous looping events.
+     * The future queue keeps a live count of the events, so it is O(1).
      * @return true if there are only continuous looping events, false otherwise
      */
     private boolean isOnlySyn() {
-        //TODO We can consider making a judgment in advance here.
-//        if (!cis.getDatacenterList().isEmpty() && future.size() > cis.getDatacenterList().size() + 1) {
-//            return false;
-//        }
-        for (SimEvent simEvent : future.stream().toList()) {
-            if (!CloudActionTags.LOOP_TAG.contains(simEvent.getTag())) {
-                return false;
-            }
-        }
-        return true;
+        return future.isOnlyLoopEvents();
+    }
+
+    /**
+     * Gets the number of events with a given tag inside the future event queue,
+     * which can be used to monitor the simulation.
+     * @param tag the tag of the events
+     * @return the number of future events with the tag
+     */
+    public long getFutureEventNum(final CloudActionTags tag) {
+        return future.getEventNum(tag);
+    }
+
+    /**
+     * Gets the number of events inside the future event queue whose tag is in {@link CloudActionTags#LOOP_TAG}.
+     * @return the number of future loop events
+     */
+    public long getFutureLoopEventNum() {
+        return future.getLoopEventNum();
+    }
+
+    /**
+     * Gets the number of events inside the future event queue whose tag is not in {@link CloudActionTags#LOOP_TAG}.
+     * When it is 0, the simulation can be ended.
+     * @return the number of future non-loop events
+     */
+    public long getFutureNonLoopEventNum() {
+        return future.getNonLoopEventNum();
     }
 
     /**
      * Gets the list of entities that are in {@link SimEntity.State#RUNNABLE}
-     * and execute them.
+     * and have events in the deferred queue, and execute them in the order of the entities.
      */
-    @SuppressWarnings("ForLoopReplaceableByForEach")
     private void executeRunnableEntities(final double until) {
-        /* Uses an indexed loop instead of anything else to avoid
+        if (parallelPool != null) {
+            executeRunnableEntitiesInParallel(until);
+            return;
+        }
+
+        /* Uses indexes instead of anything else to avoid
         ConcurrencyModificationException when a HostFaultInjection is created inside a DC. */
-        for (int i = 0; i < entityList.size(); i++) {
+        for (int i = readyEntities.nextSetBit(0); i >= 0; i = readyEntities.nextSetBit(i + 1)) {
             final CloudSimEntity ent = entityList.get(i);
             if (ent.getState() == SimEntity.State.RUNNABLE) {
                 ent.run(until);
             }
+            updateReadyEntity(i);
+        }
+    }
+
+    /**
+     * Removes an entity from the {@link #readyEntities} if it has no event in the deferred queue.
+     * @param index the index of the entity in the {@link #entityList}
+     */
+    private void updateReadyEntity(final int index) {
+        if (deferred.isEmpty(entityList.get(index))) {
+            readyEntities.clear(index);
+        }
+    }
+
+    /**
+     * Whether the entity is in the {@link #readyEntities}, just for test purpose.
+     * @param entity the entity
+     * @return true if the entity will be executed at the next clock tick, false otherwise
+     */
+    boolean isReadyEntity(final SimEntity entity) {
+        final Integer index = entityIndexes.get(entity);
+        return index != null && readyEntities.get(index);
+    }
+
+    /**
+     * Adds an event to the deferred queue and adds its destination to the {@link #readyEntities}.
+     * @param evt the event to be added
+     */
+    private void addDeferredEvent(final SimEvent evt) {
+        deferred.addEvent(evt);
+        final Integer index = entityIndexes.get(evt.getDestination());
+        if (index != null) {
+            readyEntities.set(index);
+        }
+    }
+
+    /**
+     * Executes the entities that are in {@link SimEntity.State#RUNNABLE},
+     * processing the events with a tag in {@link CloudActionTags#PARALLEL_TAG} of different entities in parallel.
+     * <p>
+     * Firstly, each entity processes its events in the order of the entities until its first parallel event.
+     * Then the leading parallel events of all the entities are processed in the {@link #parallelPool},
+     * one task per entity, which may process its events concurrently, see {@link CloudSimEntity#processParallelEvents(List, long[])}.
+     * It is repeated until no entity has parallel events.
+     * <p>
+     * The events sent by each entity are kept in a buffer of the entity,
+     * and the buffers are added to the future queue in the order of the entities after all the events are processed.
+     * So the events of each entity are processed in order and the sent events get the same serial numbers
+     * as the sequential execution, where each entity processes all its events before the next entity.
+     * The result is the same as the sequential execution as long as the events of different entities at the same time
+     * don't depend on the state changed by each other, which is the case of the parallel events.
+     * All these events happen at the same time and the sent events are only processed in the next tick,
+     * so there is no need for a lookahead.
+     */
+    private void executeRunnableEntitiesInParallel(final double until) {
+        final Predicate<SimEvent> isSequentialEvent = evt -> evt.getTime() <= until && !CloudActionTags.PARALLEL_TAG.contains(evt.getTag());
+        final Predicate<SimEvent> isParallelEvent = evt -> evt.getTime() <= until && CloudActionTags.PARALLEL_TAG.contains(evt.getTag());
+        final TreeMap<Integer, List<SimEvent>> sentEventsOfEntities = new TreeMap<>();
+        List<ParallelEntityTask> tasks;
+        try {
+            do {
+                for (int i = readyEntities.nextSetBit(0); i >= 0; i = readyEntities.nextSetBit(i + 1)) {
+                    final CloudSimEntity ent = entityList.get(i);
+                    sentEventsBuffer.set(sentEventsOfEntities.computeIfAbsent(i, index -> new ArrayList<>()));
+                    SimEvent evt;
+                    while (ent.getState() == SimEntity.State.RUNNABLE && (evt = deferred.pollFirst(ent, isSequentialEvent)) != SimEvent.NULL) {
+                        final long startNanos = eventProfiler.isEnabled() ? System.nanoTime() : 0;
+                        ent.processEvent(evt);
+                        if (eventProfiler.isEnabled()) {
+                            eventProfiler.recordEvent(ent, evt.getTag(), System.nanoTime() - startNanos);
+                        }
+                        eventPool.release(evt);
+                    }
+                }
+                sentEventsBuffer.remove();
+
+                tasks = new ArrayList<>();
+                for (int i = readyEntities.nextSetBit(0); i >= 0; i = readyEntities.nextSetBit(i + 1)) {
+                    final CloudSimEntity ent = entityList.get(i);
+                    final List<SimEvent> events = new ArrayList<>();
+                    SimEvent evt;
+                    while (ent.getState() == SimEntity.State.RUNNABLE && (evt = deferred.pollFirst(ent, isParallelEvent)) != SimEvent.NULL) {
+                        events.add(evt);
+                    }
+                    if (!events.isEmpty()) {
+                        tasks.add(new ParallelEntityTask(ent, events, sentEventsOfEntities.computeIfAbsent(i, index -> new ArrayList<>())));
+                    }
+                }
+
+                if (!tasks.isEmpty()) {
+                    final List<ForkJoinTask<?>> forkJoinTasks = tasks.stream().<ForkJoinTask<?>>map(ForkJoinTask::adapt).toList();
+                    parallelPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(forkJoinTasks)));
+                }
+
+                for (final ParallelEntityTask task : tasks) {
+                    if (eventProfiler.isEnabled() && task.handlerNanos != null) {
+                        for (int i = 0; i < task.processedNum; i++) {
+                            eventProfiler.recordEvent(task.entity, task.events.get(i).getTag(), task.handlerNanos[i]);
+                        }
+                    }
+                    task.events.subList(0, task.processedNum).forEach(eventPool::release);
+                    task.events.subList(task.processedNum, task.events.size()).forEach(this::addDeferredEvent);
+                }
+            } while (!tasks.isEmpty());
+        } finally {
+            sentEventsBuffer.remove();
+            sentEventsOfEntities.values().forEach(sentEvents -> sentEvents.forEach(future::addEvent));
+        }
+
+        for (int i = readyEntities.nextSetBit(0); i >= 0; i = readyEntities.nextSetBit(i + 1)) {
+            updateReadyEntity(i);
+        }
+    }
+
+    /**
+     * A task to process the leading parallel events of an entity,
+     * keeping the events sent by the entity in the buffer of the entity.
+     */
+    private final class ParallelEntityTask implements Runnable {
+        private final CloudSimEntity entity;
+        private final List<SimEvent> events;
+        private final List<SimEvent> sentEvents;
+        /**
+         * The number of processed events.
+         * The remaining events are put back into the deferred queue if the entity stops running.
+         */
+        private int processedNum;
+        /**
+         * The wall time spent to process each event, which is recorded by the {@link #eventProfiler}
+         * in the main thread after all the tasks finish, null if the profiler is disabled so that the events are not timed.
+         */
+        private final long[] handlerNanos;
+
+        ParallelEntityTask(final CloudSimEntity entity, final List<SimEvent> events, final List<SimEvent> sentEvents) {
+            this.entity = entity;
+            this.events = events;
+            this.sentEvents = sentEvents;
+            this.handlerNanos = eventProfiler.isEnabled() ? new long[events.size()] : null;
+        }
+
+        /**
+         * Process the events by {@link CloudSimEntity#processParallelEvents(List, long[])}.
+         * The buffer of the thread is restored afterwards, since the thread may run this task
+         * while it waits for the subtasks of another entity.
+         */
+        @Override
+        public void run() {
+            final List<SimEvent> outerSentEvents = sentEventsBuffer.get();
+            sentEventsBuffer.set(sentEvents);
+            try {
+                processedNum = entity.processParallelEvents(events, handlerNanos);
+            } finally {
+                if (outerSentEvents == null) {
+                    sentEventsBuffer.remove();
+                } else {
+                    sentEventsBuffer.set(outerSentEvents);
+                }
+            }
         }
     }
 
@@ -372,15 +623,16 @@ public class CloudSim implements Simulation {
      * @param firstEvent the first event to process
      */
     private void processFutureEventsHappeningAtSameTimeOfTheFirstOne(final SimEvent firstEvent) {
-        processEvent(firstEvent);
+        final double time = firstEvent.getTime();
         future.remove(firstEvent);
+        processEvent(firstEvent);
 
         while (!future.isEmpty()) {
             final SimEvent evt = future.first();
-            if (evt.getTime() != firstEvent.getTime())
+            if (evt.getTime() != time)
                 break;
-            processEvent(evt);
             future.remove(evt);
+            processEvent(evt);
         }
     }
 
@@ -398,10 +650,11 @@ public class CloudSim implements Simulation {
         setClock(evt.getTime());
         if (CloudActionTags.UNIQUE_TAG.contains(evt.getTag())) {
             if (deferred.isExistSameEvent(evt.getDestination(), evt.getTag(), evt.getData())) {
+                eventPool.release(evt);
                 return;
             }
         }
-        deferred.addEvent(evt);
+        addDeferredEvent(evt);
     }
 
 
@@ -11,12 +11,13 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
-import org.lgdcloudsim.core.events.CloudSimEvent;
 import org.lgdcloudsim.core.events.SimEvent;
+import org.lgdcloudsim.record.EventProfiler;
 import org.lgdcloudsim.user.UserSimple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.function.Predicate;
 
 import static java.util.Objects.requireNonNull;
@@ -95,9 +96,17 @@ public abstract class CloudSimEntity implements SimEntity {
 
     public void run(final double until) {
         var evt = requireNonNullElse(buffer, getNextEvent(e -> e.getTime() <= until));
+        final EventProfiler eventProfiler = simulation.getEventProfiler();
 
         while (evt != SimEvent.NULL) {
-            processEvent(evt);
+            if (eventProfiler.isEnabled()) {
+                final long startNanos = System.nanoTime();
+                processEvent(evt);
+                eventProfiler.recordEvent(this, evt.getTag(), System.nanoTime() - startNanos);
+            } else {
+                processEvent(evt);
+            }
+            simulation.getEventPool().release(evt);
             if (state != State.RUNNABLE) {
                 break;
             }
@@ -108,6 +117,32 @@ public abstract class CloudSimEntity implements SimEntity {
         buffer = null;
     }
 
+    /**
+     * Process the leading events with a tag in {@link CloudActionTags#PARALLEL_TAG} that the entity received at the same time,
+     * when the events of different entities are processed in parallel, see {@link Simulation#setParallelism(int)}.
+     * It runs in the pool of the simulation, and the events are processed one by one in order until the entity stops running.
+     * An entity can override it to process the events concurrently in the same pool,
+     * as long as the result is the same as processing them in order.
+     *
+     * @param events       the events to be processed
+     * @param handlerNanos the array to put the wall time spent to process each event in,
+     *                     null if the {@link Simulation#getEventProfiler() event profiler} is disabled and the events are not timed
+     * @return the number of the processed events, the remaining ones are put back into the deferred queue
+     */
+    protected int processParallelEvents(final List<SimEvent> events, final long[] handlerNanos) {
+        int processedNum = 0;
+        while (processedNum < events.size() && state == State.RUNNABLE) {
+            if (handlerNanos == null) {
+                processEvent(events.get(processedNum++));
+            } else {
+                final long startNanos = System.nanoTime();
+                processEvent(events.get(processedNum));
+                handlerNanos[processedNum++] = System.nanoTime() - startNanos;
+            }
+        }
+        return processedNum;
+    }
+
     /**
      * Gets the first event matching a predicate from the deferred queue, or if
      * none match, wait for a matching event to arrive.
@@ -175,7 +210,7 @@ public abstract class CloudSimEntity implements SimEntity {
     }
     @Override
     public boolean schedule(final SimEntity dest, final double delay, final CloudActionTags tag, final Object data) {
-        return schedule(new CloudSimEvent(delay, this, dest, tag, data));
+        return schedule(simulation.getEventPool().acquire(delay, this, dest, tag, data));
     }
 
     /**
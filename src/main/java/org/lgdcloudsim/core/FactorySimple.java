@@ -36,6 +36,9 @@ public class FactorySimple implements Factory {
     public PredictionManager getPredictionManager(String type) {
         return switch (type) {
             case "simple", "Simple" -> new PredictionManagerSimple();
+            case "mean" -> new PredictionManagerMean();
+            case "ewma" -> new PredictionManagerEwma();
+            case "linearTrend" -> new PredictionManagerLinearTrend();
             default -> null;
         };
     }
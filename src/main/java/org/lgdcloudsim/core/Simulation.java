@@ -1,8 +1,10 @@
 package org.lgdcloudsim.core;
 
+import org.lgdcloudsim.core.events.CloudSimEventPool;
 import org.lgdcloudsim.core.events.SimEvent;
 import org.lgdcloudsim.network.NetworkTopology;
 import org.lgdcloudsim.datacenter.CollaborationManager;
+import org.lgdcloudsim.record.EventProfiler;
 import org.lgdcloudsim.record.SqlRecord;
 
 import java.util.function.Predicate;
@@ -215,6 +217,49 @@ public interface Simulation {
      */
     void setIsSqlRecord(boolean isSqlRecord);
 
+    /**
+     * Get the number of threads used to process the events of different entities at the same time.
+     * @return the number of threads, 1 if the entities are executed sequentially
+     */
+    int getParallelism();
+
+    /**
+     * Set the number of threads used to process the events of different entities at the same time.
+     * Only the events with a tag in {@link CloudActionTags#PARALLEL_TAG} are processed in parallel,
+     * the other events are still processed sequentially in the order of the entities.
+     * It is disabled by default.
+     * @param parallelism the number of threads, 1 to execute the entities sequentially
+     */
+    void setParallelism(int parallelism);
+
+    /**
+     * Get whether the future events with a tag in {@link CloudActionTags#COALESCE_TAG} are coalesced.
+     * @return true if the events are coalesced, false otherwise
+     */
+    boolean isEventCoalescingEnabled();
+
+    /**
+     * Set whether the future events with a tag in {@link CloudActionTags#COALESCE_TAG} and the same destination and time
+     * are merged into one event, see {@link org.lgdcloudsim.core.events.FutureQueue}.
+     * It is disabled by default.
+     * @param eventCoalescingEnabled true to coalesce the events, false otherwise
+     */
+    void setEventCoalescingEnabled(boolean eventCoalescingEnabled);
+
+    /**
+     * Get the pool to recycle the events sent by the entities.
+     * It is disabled by default.
+     * @return the pool of the events
+     */
+    CloudSimEventPool getEventPool();
+
+    /**
+     * Get the profiler of the events processed by the entities.
+     * It is disabled by default.
+     * @return the event profiler
+     */
+    EventProfiler getEventProfiler();
+
     /**
      * Get whether the simulation is simulating a single datacenter scenario.
      * @return true if the simulation is simulating a single datacenter scenario, false otherwise
@@ -1,8 +1,10 @@
 package org.lgdcloudsim.core;
 
+import org.lgdcloudsim.core.events.CloudSimEventPool;
 import org.lgdcloudsim.core.events.SimEvent;
 import org.lgdcloudsim.network.NetworkTopology;
 import org.lgdcloudsim.datacenter.CollaborationManager;
+import org.lgdcloudsim.record.EventProfiler;
 import org.lgdcloudsim.record.SqlRecord;
 
 import java.util.function.Predicate;
@@ -15,6 +17,9 @@ import java.util.function.Predicate;
  * @see Simulation#NULL
  */
 public class SimulationNull implements Simulation {
+    private final CloudSimEventPool eventPool = new CloudSimEventPool();
+    private final EventProfiler eventProfiler = new EventProfiler();
+
     @Override public double clock() { return 0.0; }
 
     @Override
@@ -132,6 +137,36 @@ public class SimulationNull implements Simulation {
 
     }
 
+    @Override
+    public int getParallelism() {
+        return 1;
+    }
+
+    @Override
+    public void setParallelism(int parallelism) {
+
+    }
+
+    @Override
+    public boolean isEventCoalescingEnabled() {
+        return false;
+    }
+
+    @Override
+    public void setEventCoalescingEnabled(boolean eventCoalescingEnabled) {
+
+    }
+
+    @Override
+    public CloudSimEventPool getEventPool() {
+        return eventPool;
+    }
+
+    @Override
+    public EventProfiler getEventProfiler() {
+        return eventProfiler;
+    }
+
     @Override
     public boolean isSingleDatacenterFlag() {
         return false;
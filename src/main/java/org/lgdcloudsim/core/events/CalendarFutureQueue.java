@@ -0,0 +1,328 @@
+package org.lgdcloudsim.core.events;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link FutureQueue} implemented as a calendar queue.
+ * The {@link FutureQueue} uses a {@link TreeSet}, so every new event costs O(log n)
+ * plus the allocation of a tree node.
+ * This queue divides the time into buckets of the same width,
+ * and the buckets are used cyclically like the days of a calendar year.
+ * An event is put into the bucket of its time, and the first event is found by
+ * scanning the buckets from the bucket of the last first event.
+ * When the width of the buckets is close to the separation of the event times,
+ * adding an event and getting the first event are O(1) amortized.
+ * <p>
+ * Each bucket is a {@link PriorityQueue} ordered by {@link SimEvent#compareTo(SimEvent)},
+ * so the order of the events is exactly the same as the {@link FutureQueue}: time, tag and serial.
+ * The number of buckets is doubled or halved when the number of events changes,
+ * and the width of the buckets is re-estimated from the separation of the earliest distinct event times.
+ * <p>
+ * It can be selected with {@link org.lgdcloudsim.core.CloudSim#CloudSim(FutureQueue)}.
+ *
+ * @author Anonymous
+ * @see <a href="https://doi.org/10.1145/63039.63045">Calendar queues: a fast O(1) priority queue implementation for the simulation event set problem</a>
+ * @since LGDCloudSim 1.0
+ */
+public class CalendarFutureQueue extends FutureQueue {
+    /**
+     * The minimum number of buckets.
+     */
+    private static final int MIN_BUCKET_NUM = 16;
+
+    /**
+     * The number of the earliest distinct event times used to estimate the width of the buckets.
+     */
+    private static final int WIDTH_SAMPLE_NUM = 25;
+
+    /**
+     * The buckets of the calendar. A bucket is created when the first event is put into it.
+     */
+    private PriorityQueue<SimEvent>[] buckets;
+
+    /**
+     * The mask to get the index of the bucket from the virtual bucket number.
+     * The number of buckets is always a power of 2.
+     */
+    private int mask;
+
+    /**
+     * The time width of each bucket.
+     */
+    private double bucketWidth;
+
+    /**
+     * The virtual bucket number of the bucket where the first event is.
+     * It is the time of the event divided by {@link #bucketWidth}, without being wrapped by the number of buckets.
+     * There is no event with a lower virtual bucket number in the queue.
+     */
+    private long currentBucket;
+
+    /**
+     * The number of events in the queue.
+     */
+    private int size;
+
+    /**
+     * Creates a calendar queue with the default bucket width of 1 ms.
+     */
+    public CalendarFutureQueue() {
+        this(1.0);
+    }
+
+    /**
+     * Creates a calendar queue.
+     * The width is adjusted automatically when the queue grows or shrinks.
+     *
+     * @param bucketWidth the initial time width of each bucket
+     */
+    public CalendarFutureQueue(final double bucketWidth) {
+        if (bucketWidth <= 0) {
+            throw new IllegalArgumentException("The bucket width must be positive.");
+        }
+        this.bucketWidth = bucketWidth;
+        initBuckets(MIN_BUCKET_NUM);
+    }
+
+    @Override
+    protected boolean add(final SimEvent event) {
+        final long virtualBucket = getVirtualBucket(event);
+        getOrCreateBucket(virtualBucket).add(event);
+        if (size == 0 || virtualBucket < currentBucket) {
+            currentBucket = virtualBucket;
+        }
+        size++;
+        if (size > 2 * buckets.length) {
+            resize(2 * buckets.length);
+        }
+        return true;
+    }
+
+    @Override
+    public SimEvent first() throws NoSuchElementException {
+        if (size == 0) {
+            throw new NoSuchElementException("The Future Queue is empty.");
+        }
+
+        for (int i = 0; i < buckets.length; i++) {
+            final long virtualBucket = currentBucket + i;
+            final PriorityQueue<SimEvent> bucket = buckets[(int) (virtualBucket & mask)];
+            if (bucket != null && !bucket.isEmpty() && getVirtualBucket(bucket.peek()) == virtualBucket) {
+                currentBucket = virtualBucket;
+                return bucket.peek();
+            }
+        }
+
+        // The events are sparse compared to the width of the buckets, search the first event directly.
+        final SimEvent first = directSearch();
+        currentBucket = getVirtualBucket(first);
+        return first;
+    }
+
+    @Override
+    protected boolean delete(final SimEvent event) {
+        final PriorityQueue<SimEvent> bucket = buckets[(int) (getVirtualBucket(event) & mask)];
+        if (bucket == null) {
+            return false;
+        }
+
+        if (bucket.peek() == event) {
+            bucket.poll();
+        } else if (!bucket.remove(event)) {
+            return false;
+        }
+        size--;
+        shrinkIfNeeded();
+        return true;
+    }
+
+    @Override
+    protected boolean deleteIf(final Predicate<SimEvent> predicate) {
+        boolean removed = false;
+        for (final PriorityQueue<SimEvent> bucket : buckets) {
+            if (bucket != null) {
+                final int oldSize = bucket.size();
+                removed |= bucket.removeIf(predicate);
+                size -= oldSize - bucket.size();
+            }
+        }
+        shrinkIfNeeded();
+        return removed;
+    }
+
+    /**
+     * Returns an iterator to the events in the queue.
+     * The events are ordered as defined by {@link SimEvent#compareTo(SimEvent)}.
+     * Note that it needs to sort all the events.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<SimEvent> iterator() {
+        return stream().iterator();
+    }
+
+    /**
+     * Returns a stream to the elements into the queue.
+     * The events are ordered as defined by {@link SimEvent#compareTo(SimEvent)}.
+     * Note that it needs to sort all the events.
+     *
+     * @return the stream
+     */
+    @Override
+    public Stream<SimEvent> stream() {
+        return Arrays.stream(buckets).filter(Objects::nonNull).flatMap(Collection::stream).sorted();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    protected void deleteAll() {
+        size = 0;
+        currentBucket = 0;
+        initBuckets(MIN_BUCKET_NUM);
+    }
+
+    /**
+     * Gets the number of buckets, just for debug purpose.
+     *
+     * @return the number of buckets
+     */
+    public int getBucketNum() {
+        return buckets.length;
+    }
+
+    /**
+     * Gets the time width of each bucket, just for debug purpose.
+     *
+     * @return the time width of each bucket
+     */
+    public double getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * Gets the virtual bucket number of an event.
+     *
+     * @param event the event
+     * @return the virtual bucket number of the event
+     */
+    private long getVirtualBucket(final SimEvent event) {
+        return (long) (event.getTime() / bucketWidth);
+    }
+
+    /**
+     * Gets the bucket of a virtual bucket number, creating it if it doesn't exist yet.
+     *
+     * @param virtualBucket the virtual bucket number
+     * @return the bucket
+     */
+    private PriorityQueue<SimEvent> getOrCreateBucket(final long virtualBucket) {
+        final int index = (int) (virtualBucket & mask);
+        if (buckets[index] == null) {
+            buckets[index] = new PriorityQueue<>();
+        }
+        return buckets[index];
+    }
+
+    /**
+     * Finds the first event by comparing the first event of every bucket.
+     *
+     * @return the first event
+     */
+    private SimEvent directSearch() {
+        SimEvent first = null;
+        for (final PriorityQueue<SimEvent> bucket : buckets) {
+            if (bucket != null && !bucket.isEmpty() && (first == null || bucket.peek().compareTo(first) < 0)) {
+                first = bucket.peek();
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Halves the number of buckets if there are too few events in the queue.
+     */
+    private void shrinkIfNeeded() {
+        if (buckets.length > MIN_BUCKET_NUM && size < buckets.length / 2) {
+            resize(buckets.length / 2);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initBuckets(final int bucketNum) {
+        buckets = new PriorityQueue[bucketNum];
+        mask = bucketNum - 1;
+    }
+
+    /**
+     * Changes the number of buckets, re-estimates the width of the buckets and
+     * puts all the events into the new buckets.
+     *
+     * @param bucketNum the new number of buckets, which must be a power of 2
+     */
+    private void resize(final int bucketNum) {
+        final List<SimEvent> events = new ArrayList<>(size);
+        for (final PriorityQueue<SimEvent> bucket : buckets) {
+            if (bucket != null) {
+                events.addAll(bucket);
+            }
+        }
+
+        bucketWidth = estimateBucketWidth(events);
+        initBuckets(bucketNum);
+        currentBucket = Long.MAX_VALUE;
+        for (final SimEvent event : events) {
+            final long virtualBucket = getVirtualBucket(event);
+            getOrCreateBucket(virtualBucket).add(event);
+            currentBucket = Math.min(currentBucket, virtualBucket);
+        }
+    }
+
+    /**
+     * Estimates the width of the buckets as three times the average separation
+     * of the earliest distinct event times, ignoring the separations larger than twice the average.
+     * Only distinct times are considered because many events are usually scheduled at the same time.
+     * If there are not enough distinct times, the current width is kept.
+     *
+     * @param events all the events in the queue
+     * @return the new width of the buckets
+     */
+    private double estimateBucketWidth(final List<SimEvent> events) {
+        final TreeSet<Double> earliestTimes = new TreeSet<>();
+        for (final SimEvent event : events) {
+            final double time = event.getTime();
+            if (earliestTimes.size() < WIDTH_SAMPLE_NUM) {
+                earliestTimes.add(time);
+            } else if (time < earliestTimes.last() && earliestTimes.add(time)) {
+                earliestTimes.pollLast();
+            }
+        }
+        if (earliestTimes.size() < 2) {
+            return bucketWidth;
+        }
+
+        final double averageSeparation = (earliestTimes.last() - earliestTimes.first()) / (earliestTimes.size() - 1);
+        double separationSum = 0;
+        int separationNum = 0;
+        Double lastTime = null;
+        for (final double time : earliestTimes) {
+            if (lastTime != null && time - lastTime <= 2 * averageSeparation) {
+                separationSum += time - lastTime;
+                separationNum++;
+            }
+            lastTime = time;
+        }
+        return separationNum == 0 ? bucketWidth : 3 * separationSum / separationNum;
+    }
+}
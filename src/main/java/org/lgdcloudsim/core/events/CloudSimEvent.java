@@ -16,16 +16,30 @@ import java.math.BigDecimal;
 
 /**
  * An event which is passed between the entities in the simulation.
+ * The events can be recycled by a {@link CloudSimEventPool},
+ * then the accessors of a released event throw an {@link IllegalStateException}.
  *
  * @author Costas Simatos
  * @see SimEntity
  */
 @Accessors @Getter @Setter
 public final class CloudSimEvent implements SimEvent {
+    /**
+     * The powers of ten used by {@link #roundTime(double, int)}, which are exact in double.
+     */
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9};
+
+    /**
+     * The maximum scaled time rounded without {@link BigDecimal},
+     * so that the error of the multiplication is far below the margin to a half.
+     */
+    private static final double MAX_FAST_ROUNDING_VALUE = 1e12;
+
     @NonNull
     private Simulation simulation;
 
-    private final double time;
+    @Setter(AccessLevel.NONE)
+    private double time;
 
     @Setter(AccessLevel.NONE)
     private double endWaitingTime;
@@ -36,12 +50,26 @@ public final class CloudSimEvent implements SimEvent {
     @NonNull
     private SimEntity destination;
 
-    private final CloudActionTags tag;
+    @Setter(AccessLevel.NONE)
+    private CloudActionTags tag;
 
-    private final Object data;
+    @Setter(AccessLevel.PACKAGE)
+    private Object data;
 
     private long serial = -1;
 
+    /**
+     * Whether the event was acquired from a {@link CloudSimEventPool}.
+     */
+    @Getter(AccessLevel.PACKAGE) @Setter(AccessLevel.PACKAGE)
+    private boolean pooled;
+
+    /**
+     * Whether the event has been released to a {@link CloudSimEventPool} and not acquired again.
+     */
+    @Getter(AccessLevel.PACKAGE) @Setter(AccessLevel.NONE)
+    private boolean released;
+
     public CloudSimEvent(final double delay, final SimEntity destination, final CloudActionTags tag, Object data) {
         this(delay, destination, destination, tag, data);
     }
@@ -108,6 +136,36 @@ public final class CloudSimEvent implements SimEvent {
             final SimEntity source, final SimEntity destination,
             final CloudActionTags tag, final Object data)
     {
+        init(delay, source, destination, tag, data);
+    }
+
+    /**
+     * Re-initializes a released event to be used as a new one, see {@link CloudSimEventPool}.
+     * The parameters are the same as {@link #CloudSimEvent(double, SimEntity, SimEntity, CloudActionTags, Object)}.
+     */
+    void reuse(final double delay, final SimEntity source, final SimEntity destination, final CloudActionTags tag, final Object data) {
+        init(delay, source, destination, tag, data);
+        this.endWaitingTime = 0;
+        this.serial = -1;
+        this.released = false;
+    }
+
+    /**
+     * Marks the event as released and clears the references to the entities and the data,
+     * so that the pool doesn't keep them alive.
+     * The time, tag and serial are kept because they may be still needed to remove the event from a queue.
+     *
+     * @throws IllegalStateException if the event has already been released
+     */
+    void release() {
+        checkNotReleased();
+        this.released = true;
+        this.source = null;
+        this.destination = null;
+        this.data = null;
+    }
+
+    private void init(final double delay, final SimEntity source, final SimEntity destination, final CloudActionTags tag, final Object data) {
         if (delay < 0) {
             throw new IllegalArgumentException("Delay can't be negative.");
         }
@@ -115,11 +173,62 @@ public final class CloudSimEvent implements SimEvent {
         this.setSource(source);
         this.setDestination(destination);
         this.setSimulation(source.getSimulation());
-        this.time = BigDecimal.valueOf(simulation.clock() + delay).setScale(getSimulation().getSimulationAccuracy(), RoundingMode.HALF_UP).doubleValue();
+        this.time = roundTime(simulation.clock() + delay, simulation.getSimulationAccuracy());
         this.tag = tag;
         this.data = data;
     }
 
+    /**
+     * Rounds a time to the given number of decimal places with {@link RoundingMode#HALF_UP},
+     * the same as {@link BigDecimal#setScale(int, RoundingMode)} of {@link BigDecimal#valueOf(double)}.
+     * Creating a {@link BigDecimal} for every event is expensive, so it is only used when the
+     * scaled time is close to a half, where the floating-point multiplication may round to the wrong side.
+     *
+     * @param time     the time to round
+     * @param accuracy the number of decimal places
+     * @return the rounded time
+     */
+    static double roundTime(final double time, final int accuracy) {
+        if (accuracy >= 0 && accuracy < POWERS_OF_TEN.length) {
+            final double scaled = time * POWERS_OF_TEN[accuracy];
+            final double rounded = Math.rint(scaled);
+            if (Math.abs(scaled) < MAX_FAST_ROUNDING_VALUE && Math.abs(scaled - rounded) < 0.4) {
+                return rounded / POWERS_OF_TEN[accuracy];
+            }
+        }
+        return BigDecimal.valueOf(time).setScale(accuracy, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    @Override
+    public SimEntity getSource() {
+        checkNotReleased();
+        return source;
+    }
+
+    @Override
+    public SimEntity getDestination() {
+        checkNotReleased();
+        return destination;
+    }
+
+    @Override
+    public Object getData() {
+        checkNotReleased();
+        return data;
+    }
+
+    /**
+     * Checks that the event has not been released, so it isn't used after being recycled.
+     *
+     * @throws IllegalStateException if the event has been released
+     */
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("The event (tag = %s, time = %s, serial = %d) is used after being released to the pool."
+                    .formatted(CloudActionTags.tagToString(tag), time, serial));
+        }
+    }
+
     @Override
     public int compareTo(final SimEvent that) {
         if (that == null || that == NULL) {
@@ -0,0 +1,118 @@
+package org.lgdcloudsim.core.events;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.SimEntity;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool to recycle the {@link CloudSimEvent}s.
+ * Every event sent by an entity is a new object, and the events only live until they are processed,
+ * so long simulations create a lot of young garbage.
+ * When the pool is enabled, the events are acquired from a free list and
+ * released back to it after being processed by their destination.
+ * It is disabled by default, and then the events are always created as new objects.
+ * <p>
+ * A released event must not be used anymore, otherwise it may be another event acquired later.
+ * The entities must not keep the event itself after processing it, only its data.
+ * In the debug mode the released events are never reused,
+ * so accessing the source, destination or data of an event after it was released
+ * throws an {@link IllegalStateException} instead of returning the data of another event.
+ * <p>
+ * The pool is confined to the thread that created it, which is the thread running the simulation.
+ * The events acquired by other threads, such as in the parallel execution of the entities,
+ * are created as new objects and are not released to the pool.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class CloudSimEventPool {
+    /**
+     * The released events that can be reused.
+     */
+    private final ArrayDeque<CloudSimEvent> freeEvents = new ArrayDeque<>();
+
+    /**
+     * The thread that can use the {@link #freeEvents}.
+     */
+    private final Thread ownerThread = Thread.currentThread();
+
+    /**
+     * Whether the events are recycled.
+     */
+    @Getter
+    @Setter
+    private boolean enabled;
+
+    /**
+     * Whether the released events are never reused so that the use of a released event can be detected.
+     */
+    @Getter
+    @Setter
+    private boolean debug;
+
+    /**
+     * The number of events created as new objects while the pool is enabled, just for debug purpose.
+     */
+    @Getter
+    private long createdNum;
+
+    /**
+     * The number of events reused from the free list, just for debug purpose.
+     */
+    @Getter
+    private long reusedNum;
+
+    /**
+     * Gets an event from the pool, or creates a new one if there is no free event.
+     * The parameters are the same as {@link CloudSimEvent#CloudSimEvent(double, SimEntity, SimEntity, CloudActionTags, Object)}.
+     *
+     * @return the event
+     */
+    public CloudSimEvent acquire(final double delay, final SimEntity source, final SimEntity destination, final CloudActionTags tag, final Object data) {
+        if (!enabled || Thread.currentThread() != ownerThread) {
+            return new CloudSimEvent(delay, source, destination, tag, data);
+        }
+
+        CloudSimEvent event = freeEvents.pollLast();
+        if (event == null) {
+            event = new CloudSimEvent(delay, source, destination, tag, data);
+            event.setPooled(true);
+            createdNum++;
+        } else {
+            event.reuse(delay, source, destination, tag, data);
+            reusedNum++;
+        }
+        return event;
+    }
+
+    /**
+     * Releases an event after it was processed or discarded.
+     * The events which were not acquired from this pool are ignored.
+     *
+     * @param event the event which isn't used anymore
+     * @throws IllegalStateException if the event has already been released
+     */
+    public void release(final SimEvent event) {
+        if (!(event instanceof CloudSimEvent cloudSimEvent) || !cloudSimEvent.isPooled() || Thread.currentThread() != ownerThread) {
+            return;
+        }
+
+        cloudSimEvent.release();
+        if (!debug) {
+            freeEvents.addLast(cloudSimEvent);
+        }
+    }
+
+    /**
+     * Gets the number of events that can be reused.
+     *
+     * @return the number of free events
+     */
+    public int getFreeNum() {
+        return freeEvents.size();
+    }
+}
@@ -0,0 +1,398 @@
+package org.lgdcloudsim.core.events;
+
+import lombok.Getter;
+
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.SimEntity;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A deferred {@link EventQueue} that keeps one FIFO mailbox per destination entity.
+ * Storing all deferred events in a single {@link LinkedList} would make every entity scan the whole list
+ * to find its own events and then remove them in O(n).
+ * This queue indexes the mailboxes by the destination entity,
+ * so that getting the next event of an entity is O(1) in the common case.
+ * <p>
+ * Inside each mailbox the events are ordered by time
+ * and events with the same time keep the order in which they were added.
+ * Note that the mailboxes are indexed by the entity reference instead of {@link SimEntity#getId()},
+ * because the id of a datacenter can be changed after it is registered in the simulation
+ * (see {@link org.lgdcloudsim.datacenter.DatacenterSimple}), so ids are not unique among entities.
+ * <p>
+ * The events with a tag in {@link CloudActionTags#UNIQUE_TAG} are also indexed by (destination, tag, data),
+ * so that {@link #isExistSameEvent(SimEntity, CloudActionTags, Object)} is O(1) for them.
+ * Therefore, the data of such events must not be modified while they are in the queue.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class EntityDeferredQueue implements EventQueue {
+    /**
+     * The mailboxes of the entities, indexed by the destination entity.
+     */
+    private final Map<SimEntity, ArrayDeque<SimEvent>> mailboxes = new IdentityHashMap<>();
+
+    /**
+     * The number of events with a tag in {@link CloudActionTags#UNIQUE_TAG} in the queue,
+     * indexed by their destination, tag and data.
+     */
+    private final Map<UniqueEventKey, Integer> uniqueEventNums = new HashMap<>();
+
+    /**
+     * The number of events in all mailboxes.
+     */
+    private int size;
+
+    /**
+     * Keeps track of the total number of events
+     * added to the tail of a mailbox,
+     * just for debug purpose.
+     */
+    @Getter
+    private int addedToTail;
+
+    /**
+     * Keeps track of the total number of events
+     * added to the middle of a mailbox,
+     * just for debug purpose.
+     */
+    @Getter
+    private int addedToMiddle;
+
+    /**
+     * Keeps track of the maximum number of events
+     * added to the queue, just for debug purpose.
+     */
+    @Getter
+    private int maxSize;
+
+    /**
+     * The time of the last added event.
+     */
+    private double eventTime;
+
+    /**
+     * Adds a new event to the mailbox of its destination, preserving the temporal order
+     * of the events in that mailbox.
+     *
+     * @param newEvent the event to be added to the queue.
+     */
+    @Override
+    public void addEvent(final SimEvent newEvent) {
+        eventTime = newEvent.getTime();
+        final ArrayDeque<SimEvent> mailbox = mailboxes.computeIfAbsent(newEvent.getDestination(), dest -> new ArrayDeque<>());
+        size++;
+        maxSize = Math.max(maxSize, size);
+        indexUniqueEvent(newEvent);
+        if (mailbox.isEmpty() || mailbox.peekLast().getTime() <= eventTime) {
+            mailbox.addLast(newEvent);
+            addedToTail++;
+            return;
+        }
+
+        /*
+         * The event has to be inserted as the last of all events with the same time.
+         * Events with a higher time are temporarily moved out from the tail of the mailbox.
+         * It starts from the tail because usually the time of the new event is close to the last events.
+         */
+        final Deque<SimEvent> laterEvents = new ArrayDeque<>();
+        while (!mailbox.isEmpty() && mailbox.peekLast().getTime() > eventTime) {
+            laterEvents.addFirst(mailbox.pollLast());
+        }
+        mailbox.addLast(newEvent);
+        mailbox.addAll(laterEvents);
+        addedToMiddle++;
+    }
+
+    /**
+     * Gets the first event in the mailbox of a given entity that matches a predicate.
+     *
+     * @param dest      the entity that the event has to be sent to
+     * @param predicate the event selection predicate
+     * @return the first matched event or {@link SimEvent#NULL} if not found
+     */
+    public SimEvent findFirst(final SimEntity dest, final Predicate<SimEvent> predicate) {
+        final ArrayDeque<SimEvent> mailbox = mailboxes.get(dest);
+        if (mailbox == null) {
+            return SimEvent.NULL;
+        }
+
+        for (final SimEvent event : mailbox) {
+            if (predicate.test(event)) {
+                return event;
+            }
+        }
+        return SimEvent.NULL;
+    }
+
+    /**
+     * Gets and removes the first event in the mailbox of a given entity that matches a predicate.
+     * If the first event of the mailbox matches, it is removed in O(1).
+     *
+     * @param dest      the entity that the event has to be sent to
+     * @param predicate the event selection predicate
+     * @return the removed event or {@link SimEvent#NULL} if not found
+     */
+    public SimEvent poll(final SimEntity dest, final Predicate<SimEvent> predicate) {
+        final ArrayDeque<SimEvent> mailbox = mailboxes.get(dest);
+        if (mailbox == null || mailbox.isEmpty()) {
+            return SimEvent.NULL;
+        }
+
+        final SimEvent head = mailbox.peekFirst();
+        if (predicate.test(head)) {
+            mailbox.pollFirst();
+            size--;
+            unindexUniqueEvent(head);
+            return head;
+        }
+
+        final Iterator<SimEvent> iterator = mailbox.iterator();
+        while (iterator.hasNext()) {
+            final SimEvent event = iterator.next();
+            if (predicate.test(event)) {
+                iterator.remove();
+                size--;
+                unindexUniqueEvent(event);
+                return event;
+            }
+        }
+        return SimEvent.NULL;
+    }
+
+    /**
+     * Gets and removes the first event in the mailbox of a given entity only if it matches a predicate.
+     * Unlike {@link #poll(SimEntity, Predicate)}, the later events of the mailbox are never selected,
+     * so the events of the entity are always got in order.
+     *
+     * @param dest      the entity that the event has to be sent to
+     * @param predicate the event selection predicate
+     * @return the removed event or {@link SimEvent#NULL} if the first event doesn't match
+     */
+    public SimEvent pollFirst(final SimEntity dest, final Predicate<SimEvent> predicate) {
+        final ArrayDeque<SimEvent> mailbox = mailboxes.get(dest);
+        if (mailbox == null || mailbox.isEmpty() || !predicate.test(mailbox.peekFirst())) {
+            return SimEvent.NULL;
+        }
+
+        final SimEvent head = mailbox.pollFirst();
+        size--;
+        unindexUniqueEvent(head);
+        return head;
+    }
+
+    /**
+     * Returns an iterator to the events in the queue.
+     * The events are ordered as defined by {@link SimEvent#compareTo(SimEvent)}.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<SimEvent> iterator() {
+        return stream().iterator();
+    }
+
+    /**
+     * Returns a stream to the elements into the queue.
+     * The events are ordered as defined by {@link SimEvent#compareTo(SimEvent)}.
+     *
+     * @return the stream
+     */
+    @Override
+    public Stream<SimEvent> stream() {
+        return mailboxes.values().stream().flatMap(Collection::stream).sorted();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if there is no event in the mailbox of a given entity.
+     *
+     * @param dest the entity that the events have to be sent to
+     * @return true if the entity has no event in the queue; false otherwise
+     */
+    public boolean isEmpty(final SimEntity dest) {
+        final ArrayDeque<SimEvent> mailbox = mailboxes.get(dest);
+        return mailbox == null || mailbox.isEmpty();
+    }
+
+    /**
+     * Removes the event from the queue.
+     *
+     * @param event the event
+     * @return true if successful; false otherwise
+     */
+    public boolean remove(final SimEvent event) {
+        final ArrayDeque<SimEvent> mailbox = mailboxes.get(event.getDestination());
+        if (mailbox != null && mailbox.remove(event)) {
+            size--;
+            unindexUniqueEvent(event);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all the events from the queue.
+     *
+     * @param events the events
+     * @return true if successful; false otherwise
+     */
+    public boolean removeAll(final Collection<SimEvent> events) {
+        boolean removed = false;
+        for (final SimEvent event : events) {
+            removed |= remove(event);
+        }
+        return removed;
+    }
+
+    public boolean removeIf(final Predicate<SimEvent> predicate) {
+        boolean removed = false;
+        for (final ArrayDeque<SimEvent> mailbox : mailboxes.values()) {
+            removed |= removeIf(mailbox, predicate);
+        }
+        return removed;
+    }
+
+    /**
+     * Clears the queue removing all elements.
+     */
+    public void clear() {
+        mailboxes.clear();
+        uniqueEventNums.clear();
+        size = 0;
+    }
+
+    @Override
+    public SimEvent first() throws NoSuchElementException {
+        if (isEmpty()) {
+            throw new NoSuchElementException("The Deferred Queue is empty.");
+        }
+
+        SimEvent first = null;
+        for (final ArrayDeque<SimEvent> mailbox : mailboxes.values()) {
+            if (!mailbox.isEmpty() && (first == null || mailbox.peekFirst().compareTo(first) < 0)) {
+                first = mailbox.peekFirst();
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Checks if there is an event with the same destination, tag and data in the queue.
+     * It is O(1) for the tags in {@link CloudActionTags#UNIQUE_TAG},
+     * and scans the mailbox of the destination for the other tags.
+     *
+     * @param dst  the entity that the event has to be sent to
+     * @param tag  the tag of the event
+     * @param data the data of the event, which may be null
+     * @return true if there is the same event in the queue; false otherwise
+     */
+    public boolean isExistSameEvent(SimEntity dst, CloudActionTags tag, Object data) {
+        if (CloudActionTags.UNIQUE_TAG.contains(tag)) {
+            return uniqueEventNums.containsKey(new UniqueEventKey(dst, tag, data));
+        }
+
+        final ArrayDeque<SimEvent> mailbox = mailboxes.get(dst);
+        if (mailbox == null) {
+            return false;
+        }
+
+        for (SimEvent event : mailbox) {
+            if (event.getTag() == tag && Objects.equals(event.getData(), data)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the events matching a predicate from a mailbox and updates the size of the queue.
+     *
+     * @param mailbox   the mailbox to remove the events from
+     * @param predicate the event selection predicate
+     * @return true if some event was removed; false otherwise
+     */
+    private boolean removeIf(final ArrayDeque<SimEvent> mailbox, final Predicate<SimEvent> predicate) {
+        final int oldSize = mailbox.size();
+        final boolean removed = mailbox.removeIf(event -> {
+            if (predicate.test(event)) {
+                unindexUniqueEvent(event);
+                return true;
+            }
+            return false;
+        });
+        size -= oldSize - mailbox.size();
+        return removed;
+    }
+
+    /**
+     * Adds an event to {@link #uniqueEventNums} if its tag is in {@link CloudActionTags#UNIQUE_TAG}.
+     *
+     * @param event the event added to the queue
+     */
+    private void indexUniqueEvent(final SimEvent event) {
+        if (CloudActionTags.UNIQUE_TAG.contains(event.getTag())) {
+            uniqueEventNums.merge(new UniqueEventKey(event.getDestination(), event.getTag(), event.getData()), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Removes an event from {@link #uniqueEventNums} if its tag is in {@link CloudActionTags#UNIQUE_TAG}.
+     *
+     * @param event the event removed from the queue
+     */
+    private void unindexUniqueEvent(final SimEvent event) {
+        if (CloudActionTags.UNIQUE_TAG.contains(event.getTag())) {
+            uniqueEventNums.computeIfPresent(new UniqueEventKey(event.getDestination(), event.getTag(), event.getData()),
+                    (key, num) -> num == 1 ? null : num - 1);
+        }
+    }
+
+    /**
+     * The key of {@link #uniqueEventNums}.
+     * The destination is compared by reference, the same as the mailboxes,
+     * and the data is compared by {@link Object#equals(Object)}, which may be null.
+     */
+    private static final class UniqueEventKey {
+        private final SimEntity destination;
+        private final CloudActionTags tag;
+        private final Object data;
+
+        UniqueEventKey(final SimEntity destination, final CloudActionTags tag, final Object data) {
+            this.destination = destination;
+            this.tag = tag;
+            this.data = data;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof UniqueEventKey that)) return false;
+            return destination == that.destination && tag == that.tag && Objects.equals(data, that.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(destination) * 31 + tag.hashCode()) * 31 + Objects.hashCode(data);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("deferred queue(" + eventTime + "ms):\n");
+        stream().forEach(event -> str.append(event).append("\n"));
+        return str.toString();
+    }
+}
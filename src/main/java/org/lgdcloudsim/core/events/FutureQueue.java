@@ -9,6 +9,9 @@
 package org.lgdcloudsim.core.events;
 
 import lombok.Getter;
+import lombok.Setter;
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.SimEntity;
 
 import java.util.*;
 import java.util.function.Predicate;
@@ -18,8 +21,21 @@ import java.util.stream.Stream;
  * An {@link EventQueue} that stores future simulation events.
  * It uses a {@link TreeSet} in order ensure the events
  * are stored ordered. Using a {@link java.util.LinkedList}
- * as defined by {@link DeferredQueue} to improve performance
- * doesn't work for this queue.
+ * to improve performance doesn't work for this queue.
+ * <p>
+ * The queue keeps a live count of the events of each {@link CloudActionTags},
+ * so that checking whether only the {@link CloudActionTags#LOOP_TAG} events are left is O(1).
+ * Subclasses that store the events in another structure only need to override the storage methods
+ * {@link #add(SimEvent)}, {@link #delete(SimEvent)}, {@link #deleteIf(Predicate)}, {@link #deleteAll()}
+ * and the query methods, the serial numbers and the counters are still managed here.
+ * <p>
+ * If {@link #coalescingEnabled} is set, the events with a tag in {@link CloudActionTags#COALESCE_TAG} and a {@link List} as data are coalesced:
+ * if there is already an event with the same destination, time and tag in the queue,
+ * the list of the new event is appended to the list of that event instead of adding the new event.
+ * They would be processed one after another by the same destination at the same time anyway,
+ * because the events with the same time are ordered by the tag.
+ * The original lists are not modified, the first coalescing replaces the data with a new list.
+ * The coalesced event is released to the {@link #eventPool}, if it is set.
  *
  * @author Marcos Dias de Assuncao
  * @author Manoel Campos da Silva Filho
@@ -46,11 +62,59 @@ public class FutureQueue implements EventQueue {
     @Getter
     private long maxEventsNumber;
 
+    /**
+     * The number of events of each tag inside the queue, indexed by {@link CloudActionTags#ordinal()}.
+     */
+    private final long[] tagEventNums = new long[CloudActionTags.values().length];
+
+    /**
+     * The number of events inside the queue whose tag is not in {@link CloudActionTags#LOOP_TAG}.
+     */
+    @Getter
+    private long nonLoopEventNum;
+
+    /**
+     * The events inside the queue that other events can be coalesced into,
+     * indexed by their destination, time and tag.
+     */
+    private final Map<CoalescingKey, SimEvent> coalescableEvents = new HashMap<>();
+
+    /**
+     * Whether the events with a tag in {@link CloudActionTags#COALESCE_TAG} are coalesced.
+     * It is disabled by default, see {@link org.lgdcloudsim.core.Simulation#setEventCoalescingEnabled(boolean)}.
+     */
+    @Getter
+    @Setter
+    private boolean coalescingEnabled;
+
+    /**
+     * The pool to release the events coalesced into other events to, null if the events are not pooled.
+     */
+    @Getter
+    @Setter
+    private CloudSimEventPool eventPool;
+
+    /**
+     * The number of events that were coalesced into other events instead of being added, just for debug purpose.
+     */
+    @Getter
+    private long coalescedEventNum;
+
     @Override
     public void addEvent(final SimEvent newEvent) {
+        final CoalescingKey key = getCoalescingKey(newEvent);
+        if (key != null && coalesce(key, newEvent)) {
+            return;
+        }
+
         newEvent.setSerial(serial++);
-        sortedSet.add(newEvent);
-        maxEventsNumber = Math.max(maxEventsNumber, sortedSet.size());
+        if (add(newEvent)) {
+            countEvent(newEvent, 1);
+            if (key != null) {
+                coalescableEvents.put(key, newEvent);
+            }
+        }
+        maxEventsNumber = Math.max(maxEventsNumber, size());
     }
 
     /**
@@ -60,7 +124,136 @@ public class FutureQueue implements EventQueue {
      */
     public void addEventFirst(final SimEvent newEvent) {
         newEvent.setSerial(--lowestSerial);
-        sortedSet.add(newEvent);
+        if (add(newEvent)) {
+            countEvent(newEvent, 1);
+        }
+        maxEventsNumber = Math.max(maxEventsNumber, size());
+    }
+
+    /**
+     * Stores an event whose serial has already been set.
+     *
+     * @param event the event to be stored
+     * @return true if the event was stored; false if the same event was already in the queue
+     */
+    protected boolean add(final SimEvent event) {
+        return sortedSet.add(event);
+    }
+
+    /**
+     * Deletes an event from the storage of the queue.
+     *
+     * @param event the event
+     * @return true if successful; false if not event was removed
+     */
+    protected boolean delete(final SimEvent event) {
+        return sortedSet.remove(event);
+    }
+
+    /**
+     * Deletes all the events matching a predicate from the storage of the queue.
+     * The predicate must be evaluated exactly once for each event.
+     *
+     * @param predicate the event selection predicate
+     * @return true if some event was removed; false otherwise
+     */
+    protected boolean deleteIf(final Predicate<SimEvent> predicate) {
+        return sortedSet.removeIf(predicate);
+    }
+
+    /**
+     * Deletes all the events from the storage of the queue.
+     */
+    protected void deleteAll() {
+        sortedSet.clear();
+    }
+
+    /**
+     * Gets the number of events with a given tag inside the queue.
+     *
+     * @param tag the tag of the events
+     * @return the number of events with the tag
+     */
+    public long getEventNum(final CloudActionTags tag) {
+        return tagEventNums[tag.ordinal()];
+    }
+
+    /**
+     * Gets the number of events inside the queue whose tag is in {@link CloudActionTags#LOOP_TAG}.
+     *
+     * @return the number of loop events
+     */
+    public long getLoopEventNum() {
+        return size() - nonLoopEventNum;
+    }
+
+    /**
+     * Checks if all the events inside the queue are in {@link CloudActionTags#LOOP_TAG}.
+     * If so, there are no new events that need to be executed, and the simulation can be ended.
+     *
+     * @return true if there are only loop events inside the queue, false otherwise
+     */
+    public boolean isOnlyLoopEvents() {
+        return nonLoopEventNum == 0;
+    }
+
+    /**
+     * Updates the counters of the events when an event is added to or removed from the queue.
+     *
+     * @param event the event
+     * @param delta 1 if the event is added, -1 if the event is removed
+     */
+    private void countEvent(final SimEvent event, final int delta) {
+        tagEventNums[event.getTag().ordinal()] += delta;
+        if (!CloudActionTags.LOOP_TAG.contains(event.getTag())) {
+            nonLoopEventNum += delta;
+        }
+        if (delta < 0 && CloudActionTags.COALESCE_TAG.contains(event.getTag())) {
+            coalescableEvents.remove(new CoalescingKey(event), event);
+        }
+    }
+
+    /**
+     * Gets the key to coalesce an event.
+     *
+     * @param event the event
+     * @return the key, or null if the event can't be coalesced
+     */
+    private CoalescingKey getCoalescingKey(final SimEvent event) {
+        if (coalescingEnabled && CloudActionTags.COALESCE_TAG.contains(event.getTag())
+                && event instanceof CloudSimEvent && event.getData() instanceof List<?>) {
+            return new CoalescingKey(event);
+        }
+        return null;
+    }
+
+    /**
+     * Appends the list of a new event to the list of the event with the same key in the queue, if there is one,
+     * and then the new event isn't used anymore.
+     *
+     * @param key      the key of the new event
+     * @param newEvent the new event
+     * @return true if the new event was coalesced and must not be added; false otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private boolean coalesce(final CoalescingKey key, final SimEvent newEvent) {
+        if (!(coalescableEvents.get(key) instanceof CloudSimEvent event) || !(event.getData() instanceof List<?> list)) {
+            return false;
+        }
+
+        final CoalescedList coalescedList;
+        if (list instanceof CoalescedList existingList) {
+            coalescedList = existingList;
+        } else {
+            coalescedList = new CoalescedList(list);
+            event.setData(coalescedList);
+        }
+        coalescedList.addAll((List<Object>) newEvent.getData());
+        coalescedEventNum++;
+        if (eventPool != null) {
+            eventPool.release(newEvent);
+        }
+        return true;
     }
 
     @Override
@@ -90,7 +283,11 @@ public class FutureQueue implements EventQueue {
      * @return true if successful; false if not event was removed
      */
     public boolean remove(final SimEvent event) {
-        return sortedSet.remove(event);
+        if (delete(event)) {
+            countEvent(event, -1);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -100,11 +297,21 @@ public class FutureQueue implements EventQueue {
      * @return true if successful; false if not event was removed
      */
     public boolean removeAll(final Collection<SimEvent> events) {
-        return sortedSet.removeAll(events);
+        boolean removed = false;
+        for (final SimEvent event : events) {
+            removed |= remove(event);
+        }
+        return removed;
     }
 
     public boolean removeIf(final Predicate<SimEvent> predicate){
-        return sortedSet.removeIf(predicate);
+        return deleteIf(event -> {
+            if (predicate.test(event)) {
+                countEvent(event, -1);
+                return true;
+            }
+            return false;
+        });
     }
 
     @Override
@@ -116,6 +323,47 @@ public class FutureQueue implements EventQueue {
      * Clears the queue.
      */
     public void clear() {
-        sortedSet.clear();
+        deleteAll();
+        Arrays.fill(tagEventNums, 0);
+        nonLoopEventNum = 0;
+        coalescableEvents.clear();
+    }
+
+    /**
+     * The list created by the queue to merge the lists of the coalesced events,
+     * which can be modified by the queue.
+     */
+    private static final class CoalescedList extends ArrayList<Object> {
+        CoalescedList(final Collection<?> items) {
+            super(items);
+        }
+    }
+
+    /**
+     * The key of {@link #coalescableEvents}.
+     * The destination is compared by reference, the same as the {@link EntityDeferredQueue}.
+     */
+    private static final class CoalescingKey {
+        private final SimEntity destination;
+        private final double time;
+        private final CloudActionTags tag;
+
+        CoalescingKey(final SimEvent event) {
+            this.destination = event.getDestination();
+            this.time = event.getTime();
+            this.tag = event.getTag();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof CoalescingKey that)) return false;
+            return destination == that.destination && Double.compare(time, that.time) == 0 && tag == that.tag;
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(destination) * 31 + Double.hashCode(time)) * 31 + tag.hashCode();
+        }
     }
 }
@@ -2,6 +2,7 @@ package org.lgdcloudsim.datacenter;
 
 import org.lgdcloudsim.conflicthandler.ConflictHandler;
 import org.lgdcloudsim.core.SimEntity;
+import org.lgdcloudsim.core.Simulation;
 import org.lgdcloudsim.intrascheduler.IntraScheduler;
 import org.lgdcloudsim.interscheduler.InterScheduler;
 import org.lgdcloudsim.loadbalancer.LoadBalancer;
@@ -90,6 +91,20 @@ public interface Datacenter extends SimEntity, DatacenterPrice {
      **/
     boolean isCentralizedInterSchedule();
 
+    /**
+     * Set whether the intra-schedulers starting at the same time schedule concurrently.
+     * It only takes effect when the events of the simulation are processed in parallel, see {@link Simulation#setParallelism(int)}.
+     *
+     * @param parallelIntraScheduling whether the intra-schedulers schedule concurrently.
+     * @return the datacenter.
+     */
+    Datacenter setParallelIntraScheduling(boolean parallelIntraScheduling);
+
+    /**
+     * Get whether the intra-schedulers starting at the same time schedule concurrently.
+     **/
+    boolean isParallelIntraScheduling();
+
     /**
      * Get the estimated TCO of the instance group.
      * @param instanceGroup the instance group.
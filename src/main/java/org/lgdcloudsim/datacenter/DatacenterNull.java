@@ -124,6 +124,16 @@ public class DatacenterNull implements Datacenter {
         return false;
     }
 
+    @Override
+    public Datacenter setParallelIntraScheduling(boolean parallelIntraScheduling) {
+        return null;
+    }
+
+    @Override
+    public boolean isParallelIntraScheduling() {
+        return false;
+    }
+
     @Override
     public double getEstimatedTCO(InstanceGroup instanceGroup) {
         return 0;
@@ -2,9 +2,10 @@ package org.lgdcloudsim.datacenter;
 
 import lombok.Getter;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.logging.Logger;
 
 /**
  * A class to record the power on hosts information of the datacenter.
@@ -12,21 +13,32 @@ import java.util.logging.Logger;
  * the start time of the host powered on, the maximum number of hosts powered on during the simulation,
  * the number of hosts powered on now, and the total power on time of the all hosts.
  * It can be used to analyze the rental cost of the datacenter.
+ * <p>
+ * It is updated on every allocation and release, so the records are kept in primitive arrays indexed by the host id,
+ * which grow up to the largest host id that has been powered on.
+ * The powered on hosts are also kept in a bitset, so they can be found by {@link #nextPowerOnHost(int)}
+ * without visiting the powered off hosts one by one.
  *
  * @author Anonymous
  * @since LGDCloudSim 1.0
  */
 public class DatacenterPowerOnRecord {
     /**
-     * Record the number of instances running on each powered on host
+     * Record the number of instances running on each host, 0 if the host is powered off.
+     * The host id is the index of the array.
      **/
-    @Getter
-    private Map<Integer, Integer> powerOnHostInstanceNum = new HashMap<>();
+    private int[] hostInstanceNums = new int[0];
 
     /**
      * The start time of the host powered on.
+     * The host id is the index of the array.
+     **/
+    private double[] hostStartTimes = new double[0];
+
+    /**
+     * The hosts powered on now.
      **/
-    private Map<Integer, Double> powerOnHostStartTime = new HashMap<>();
+    private final BitSet powerOnHosts = new BitSet();
 
     /**
      * The maximum number of hosts powered on.
@@ -51,31 +63,78 @@ public class DatacenterPowerOnRecord {
      * this function is called to record the relevant information
      */
     public void hostAllocateInstance(int hostId, double clock) {
-        if (!powerOnHostInstanceNum.containsKey(hostId)) {
-            powerOnHostInstanceNum.put(hostId, 1);
-            powerOnHostStartTime.put(hostId, clock);
+        if (hostId >= hostInstanceNums.length) {
+            int length = Math.max(hostId + 1, hostInstanceNums.length * 2);
+            hostInstanceNums = Arrays.copyOf(hostInstanceNums, length);
+            hostStartTimes = Arrays.copyOf(hostStartTimes, length);
+        }
+        if (hostInstanceNums[hostId]++ == 0) {
+            hostStartTimes[hostId] = clock;
+            powerOnHosts.set(hostId);
             nowPowerOnHostNum += 1;
             if (nowPowerOnHostNum > maxHostNum) {
                 maxHostNum = nowPowerOnHostNum;
             }
-        } else {
-            powerOnHostInstanceNum.put(hostId, powerOnHostInstanceNum.get(hostId) + 1);
         }
     }
 
     /**
      * When an instance is released from this host,
      * this function is called to record the relevant information
-     * TODO: Sometimes it happens that powerOnHostInstanceNum does not contain the host ID to be released and needs to be checked.
      */
     public void hostReleaseInstance(int hostId, double clock) {
-        if (powerOnHostInstanceNum.get(hostId) == 1) {
-            powerOnHostInstanceNum.remove(hostId);
-            allPowerOnTime += clock - powerOnHostStartTime.get(hostId);
-            powerOnHostStartTime.remove(hostId);
+        if (!isPowerOn(hostId)) {
+            throw new IllegalStateException("Host " + hostId + " is powered off and has no instance to release");
+        }
+        if (--hostInstanceNums[hostId] == 0) {
+            allPowerOnTime += clock - hostStartTimes[hostId];
+            powerOnHosts.clear(hostId);
             nowPowerOnHostNum -= 1;
-        } else {
-            powerOnHostInstanceNum.put(hostId, powerOnHostInstanceNum.get(hostId) - 1);
         }
     }
+
+    /**
+     * Whether the host is powered on, that is, there are instances running on it.
+     *
+     * @param hostId the id of the host
+     * @return true if the host is powered on
+     */
+    public boolean isPowerOn(int hostId) {
+        return powerOnHosts.get(hostId);
+    }
+
+    /**
+     * Get the number of instances running on the host.
+     *
+     * @param hostId the id of the host
+     * @return the number of instances, 0 if the host is powered off
+     */
+    public int getHostInstanceNum(int hostId) {
+        return hostId < hostInstanceNums.length ? hostInstanceNums[hostId] : 0;
+    }
+
+    /**
+     * Find the first powered on host whose id is not less than the given id.
+     * It can be used to pack the instances onto the powered on hosts.
+     *
+     * @param fromHostId the id of the host to start from
+     * @return the id of the powered on host, -1 if there is no such host
+     */
+    public int nextPowerOnHost(int fromHostId) {
+        return powerOnHosts.nextSetBit(fromHostId);
+    }
+
+    /**
+     * Get the number of instances running on each powered on host.
+     * It is a snapshot built from the records, so it should not be used on the allocation path.
+     *
+     * @return a map from the id of each powered on host to its number of instances
+     */
+    public Map<Integer, Integer> getPowerOnHostInstanceNum() {
+        Map<Integer, Integer> powerOnHostInstanceNum = new HashMap<>();
+        for (int hostId = powerOnHosts.nextSetBit(0); hostId >= 0; hostId = powerOnHosts.nextSetBit(hostId + 1)) {
+            powerOnHostInstanceNum.put(hostId, hostInstanceNums[hostId]);
+        }
+        return powerOnHostInstanceNum;
+    }
 }
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import java.awt.geom.Point2D;
 import java.util.*;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * An interface to be implemented by each class that represents a datacenter.
@@ -259,6 +260,17 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
     @Setter
     private boolean centralizedInterScheduleFlag;
 
+    /**
+     * Whether the intra-schedulers starting at the same time schedule concurrently,
+     * see {@link #processParallelEvents(List, long[])}.
+     * The placements are the same as scheduling one by one,
+     * but the schedule cost time of {@link org.lgdcloudsim.intrascheduler.IntraSchedulerSimple} is the wall time measured under contention,
+     * so the simulated time of the scheduling ends changes.
+     **/
+    @Getter
+    @Setter
+    private boolean parallelIntraScheduling;
+
     /**
      * The IntraScheduleResult List.
      **/
@@ -429,13 +441,17 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
         }
     }
 
+    /**
+     * Synchronize the states of the hosts in the slot of the heartbeat timer wheel to the center state manager.
+     *
+     * @param evt the data of the event is the slot, see {@link StatesManager#addHeartbeatHost(int, double)}.
+     * @throws IllegalArgumentException if the data of the event is not an Integer.
+     */
     private void processSynStateByHeartbeatInDc(SimEvent evt) {
-        //TODO 真的需要List吗
-        if (evt.getData() instanceof List<?> updatedHostIds) {
-            if (!updatedHostIds.isEmpty() && updatedHostIds.get(0) instanceof Integer) {
-                statesManager.synByHeartbeat((List<Integer>) updatedHostIds);
-//                LOGGER.info("{}: {} syn state by heartbeat, updated hosts are {}", getSimulation().clockStr(), getName(), updatedHostIds);
-            }
+        if (evt.getData() instanceof Integer heartbeatSlot) {
+            statesManager.synByHeartbeat(heartbeatSlot);
+        } else {
+            throw new IllegalArgumentException("The data of the heartbeat event should be the Integer slot of the timer wheel, but it is " + evt.getData());
         }
     }
 
@@ -469,10 +485,6 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
                     finishInstance(instance);
                 }
                 getSimulation().getSqlRecord().recordInstancesFinishInfo((List<Instance>) list);
-
-                if (statesManager.isNeedHeartbeat()) {
-                    sendHeartbeat((List<Instance>) list);
-                }
             }
         }
     }
@@ -498,32 +510,15 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
         instance.setFinishTime(getSimulation().clock());
         statesManager.release(hostId, instance);
 
-        if (statesManager.isNeedHeartbeat()) {
-            sendWithoutNetwork(this, statesManager.getNextHeartbeatDelay(hostId, getSimulation().clock()), CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, List.of(hostId));
+        int heartbeatSlot = statesManager.addHeartbeatHost(hostId, getSimulation().clock());
+        if (heartbeatSlot != -1) {
+            sendWithoutNetwork(this, statesManager.getNextHeartbeatDelay(hostId, getSimulation().clock()), CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, heartbeatSlot);
         }
 
         calculateCost(instance);
         updateGroupAndUserRequestState(instance);
     }
 
-    /**
-     * Send the heartbeat to update the state of the host in center state manager
-     *
-     * @param instances the finished instances
-     */
-    private void sendHeartbeat(List<Instance> instances) {
-        Map<Double, Set<Integer>> instanceHeartbeatdelayMap = new HashMap<>();
-        for (Instance instance : instances) {
-            double delay = statesManager.getNextHeartbeatDelay(instance.getHost(), getSimulation().clock());
-            instanceHeartbeatdelayMap.putIfAbsent(delay, new HashSet<>());
-            instanceHeartbeatdelayMap.get(delay).add(instance.getHost());
-        }
-
-        for (Map.Entry<Double, Set<Integer>> entry : instanceHeartbeatdelayMap.entrySet()) {
-            sendWithoutNetwork(this, entry.getKey(), CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, new ArrayList<Integer>(entry.getValue()));
-        }
-    }
-
     /**
      * Calculate the cost of the instance.
      *
@@ -778,14 +773,74 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
      */
     private void processIntraScheduleBegin(SimEvent evt) {
         if (evt.getData() instanceof IntraScheduler intraScheduler) {
-            IntraSchedulerResult innerScheduleResult = intraScheduler.schedule();
+            sendIntraScheduleEnd(intraScheduler, intraScheduler.schedule());
+        }
+    }
+
+    /**
+     * Send {@link CloudActionTags#INTRA_SCHEDULE_END} to itself after the scheduling cost time of the {@link IntraScheduler}.
+     *
+     * @param intraScheduler      the intra-scheduler
+     * @param innerScheduleResult the result of the scheduling
+     */
+    private void sendIntraScheduleEnd(IntraScheduler intraScheduler, IntraSchedulerResult innerScheduleResult) {
+        double costTime = intraScheduler.getScheduleCostTime();
+
+        LOGGER.info("{}: {}'s {} starts scheduling {} instances,cost {} ms", getSimulation().clockStr(), this.getName(), intraScheduler.getName(), innerScheduleResult.getInstanceNum(), costTime);
 
-            double costTime = intraScheduler.getScheduleCostTime();
+        send(this, costTime, CloudActionTags.INTRA_SCHEDULE_END, innerScheduleResult);
+    }
 
-            LOGGER.info("{}: {}'s {} starts scheduling {} instances,cost {} ms", getSimulation().clockStr(), this.getName(), intraScheduler.getName(), innerScheduleResult.getInstanceNum(), costTime);
+    /**
+     * Process the {@link CloudActionTags#INTRA_SCHEDULE_BEGIN} events received at the same time.
+     * If {@link #parallelIntraScheduling} is set and the events belong to different {@link IntraScheduler}s,
+     * the intra-schedulers schedule concurrently in the pool of the simulation,
+     * because each of them only reads the states shared by them and writes its own self host states,
+     * see {@link StatesManager#prepareConcurrentIntraScheduling(List)}.
+     * The results are sent in the order of the events, so the events sent are the same as scheduling one by one.
+     * Otherwise, the events are processed one by one.
+     *
+     * @param events       the events to be processed
+     * @param handlerNanos the array to put the wall time spent to process each event in, null if the events are not timed
+     * @return the number of the processed events
+     */
+    @Override
+    protected int processParallelEvents(List<SimEvent> events, long[] handlerNanos) {
+        if (!parallelIntraScheduling || events.size() < 2) {
+            return super.processParallelEvents(events, handlerNanos);
+        }
+        List<IntraScheduler> schedulers = new ArrayList<>(events.size());
+        for (SimEvent evt : events) {
+            if (evt.getTag() != CloudActionTags.INTRA_SCHEDULE_BEGIN || !(evt.getData() instanceof IntraScheduler intraScheduler)) {
+                return super.processParallelEvents(events, handlerNanos);
+            }
+            schedulers.add(intraScheduler);
+        }
+        if (new HashSet<>(schedulers).size() < schedulers.size()) {
+            return super.processParallelEvents(events, handlerNanos);
+        }
+
+        statesManager.prepareConcurrentIntraScheduling(schedulers);
+        IntraSchedulerResult[] results = new IntraSchedulerResult[schedulers.size()];
+        List<ForkJoinTask<?>> scheduleTasks = new ArrayList<>(schedulers.size());
+        for (int i = 0; i < schedulers.size(); i++) {
+            int index = i;
+            scheduleTasks.add(ForkJoinTask.adapt(() -> {
+                if (handlerNanos == null) {
+                    results[index] = schedulers.get(index).schedule();
+                } else {
+                    long startNanos = System.nanoTime();
+                    results[index] = schedulers.get(index).schedule();
+                    handlerNanos[index] = System.nanoTime() - startNanos;
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(scheduleTasks);
 
-            send(this, costTime, CloudActionTags.INTRA_SCHEDULE_END, innerScheduleResult);
+        for (int i = 0; i < schedulers.size(); i++) {
+            sendIntraScheduleEnd(schedulers.get(i), results[i]);
         }
+        return events.size();
     }
 
     /**
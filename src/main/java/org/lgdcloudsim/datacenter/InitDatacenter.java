@@ -50,6 +50,8 @@ import org.slf4j.Logger;
  * "dcId": 1, // The id of the datacenter that needs to synchronize the state
  * "synInterval": 1500, // The interval of state synchronization, in milliseconds
  * "synStateType": "easySimple" // The type of state synchronization. It determines the status that the scheduler can obtain. These types need to be registered in the {@link StatesManager}.
+ * // The types of {@link StatesManagerSimple} are "easySimple", "detailed", "detailedDelta" and "null".
+ * // "detailedDelta" gets the same host states as "detailed", but the inter-scheduler keeps its copy and only the changed hosts are copied at each synchronization.
  * },
  * ...
  * ]
@@ -78,6 +80,9 @@ import org.slf4j.Logger;
  * ...
  * ]
  * "synchronizationGap": 1000, // The interval of state synchronization, in milliseconds
+ * "hostStateStore": "heap", // The type of the store of the host states, "heap", "offHeap" which keeps the states out of the heap, "packed" which takes half the memory but each resource of a host must be at most 32767, or "sparse" which only keeps the states of the allocated hosts. If it is not set, the default value is "heap".
+ * "synStateStore": "epoch", // The type of the store of the synchronized host states, "epoch" which saves the state of each changed host once per synchronization, or "changeLog" which appends every change to a log and only looks up the hosts read by the intra-schedulers. "changeLog" is only used when the synchronizationGap is larger than 0. If it is not set, the default value is "epoch".
+ * "parallelIntraScheduling": false, // Whether the intra-schedulers starting at the same time schedule concurrently. It only takes effect when the simulation processes events in parallel, see Simulation#setParallelism. The placements are the same, but the schedule cost time is the wall time measured under contention, so the simulated time changes. If it is not set, the default value is false.
  * "intraSchedulers": // The intra-schedulers of the datacenter
  * [{
  * "firstPartitionId": 0, // The first partition id of the intra-scheduler to synchronize the state. If it is not set, the default value is 0.
@@ -437,6 +442,8 @@ public class InitDatacenter {
             datacenter.setArchitecture(datacenterJson.getString("architecture"));
         }
 
+        datacenter.setParallelIntraScheduling(datacenterJson.getBoolean("parallelIntraScheduling", false));
+
         boolean isNeedIntraScheduler = isNeedIntraScheduler(isCenterSchedule, target, isSupportForward, datacenterJson);
 
         StatesManager statesManager = getStatesManager(datacenterJson, isNeedIntraScheduler);
@@ -575,7 +582,10 @@ public class InitDatacenter {
             heartbeatInterval = datacenterJson.getInt("heartbeatInterval", 0);
         }
 
-        StatesManager statesManager = new StatesManagerSimple(hostNum, partitionRangesManager, synchronizationGap, heartbeatInterval, maxCpuRam[0], maxCpuRam[1]);
+        String hostStateStoreType = datacenterJson.getString("hostStateStore", "heap");
+        String synStateStoreType = datacenterJson.getString("synStateStore", "epoch");
+
+        StatesManager statesManager = new StatesManagerSimple(hostNum, partitionRangesManager, synchronizationGap, heartbeatInterval, maxCpuRam[0], maxCpuRam[1], hostStateStoreType, synStateStoreType);
 
         setPrediction(statesManager, datacenterJson);
 
@@ -440,8 +440,9 @@ public class InterSchedulerLeastRequested extends InterSchedulerSimple {
             if(scoreHostHistoryMap.containsKey(datacenter) && scoreHostHistoryMap.get(datacenter).containsKey(hostId)){
                 return scoreHostHistoryMap.get(datacenter).get(hostId);
             }else{
-                int cpuCapacity = detailedDcStateSimple.getHostCapacity(hostId)[0];
-                int ramCapacity = detailedDcStateSimple.getHostCapacity(hostId)[1];
+                int[] hostCapacity = detailedDcStateSimple.getHostCapacity(hostId);
+                int cpuCapacity = hostCapacity[0];
+                int ramCapacity = hostCapacity[1];
                 double score = (hostState.getCpu() * 10 / (double) cpuCapacity + hostState.getRam() * 10 / (double) ramCapacity) / 2;
                 scoreHostHistoryMap.computeIfAbsent(datacenter, k -> new HashMap<>()).put(hostId, score);
                 return score;
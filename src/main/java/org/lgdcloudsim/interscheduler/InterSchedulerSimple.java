@@ -12,7 +12,6 @@ import org.lgdcloudsim.request.Instance;
 import org.lgdcloudsim.request.InstanceGroup;
 import org.lgdcloudsim.request.UserRequest;
 import org.lgdcloudsim.statemanager.DetailedDcStateSimple;
-import org.lgdcloudsim.statemanager.HostState;
 import org.lgdcloudsim.statemanager.SimpleStateEasyObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -558,14 +557,13 @@ public class InterSchedulerSimple implements InterScheduler {
         int hostNum = detailedDcStateSimple.getHostNum();
         int startIndex = random.nextInt(hostNum);
 
-        for (int i = 0; i < hostNum; i++) {
-            int index = (startIndex + i) % hostNum;
-            HostState hostState = detailedDcStateSimple.getHostState(index);
-
-            if (hostState.isSuitable(instance)) {
-                traversalTime += i+1;
-                return index;
-            }
+        int index = detailedDcStateSimple.findFirstSuitableHost(startIndex, hostNum - 1, instance);
+        if (index == -1) {
+            index = detailedDcStateSimple.findFirstSuitableHost(0, startIndex - 1, instance);
+        }
+        if (index != -1) {
+            traversalTime += (index - startIndex + hostNum) % hostNum + 1;
+            return index;
         }
 
         traversalTime += hostNum;
@@ -593,7 +591,7 @@ public class InterSchedulerSimple implements InterScheduler {
             }
 
             String stateType = dcStateSynType.get(datacenter);
-            interScheduleSimpleStateMap.put(datacenter, datacenter.getStatesManager().getStateByType(stateType));
+            interScheduleSimpleStateMap.put(datacenter, datacenter.getStatesManager().getStateByType(stateType, interScheduleSimpleStateMap.get(datacenter)));
         }
     }
 
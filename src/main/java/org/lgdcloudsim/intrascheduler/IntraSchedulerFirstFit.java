@@ -52,13 +52,7 @@ public class IntraSchedulerFirstFit extends IntraSchedulerSimple {
             int p = 0;
             for (; p < partitionNum; p++) {
                 int[] range = datacenter.getStatesManager().getPartitionRangesManager().getRange(lastPartitionIndex);
-                for (int i = range[0]; i <= range[1]; i++) {
-                    if (synState.isSuitable(lastHostIndex, instance)) {
-                        suitId = lastHostIndex;
-                        break;
-                    }
-                    lastHostIndex = ++lastHostIndex % (range[1] - range[0] + 1);
-                }
+                suitId = findSuitableHost(range[1] - range[0] + 1, instance, synState);
                 if (suitId != -1) {
                     break;
                 }
@@ -75,4 +69,33 @@ public class IntraSchedulerFirstFit extends IntraSchedulerSimple {
 
         return intraSchedulerResult;
     }
+
+    /**
+     * Probe rangeLength hosts from the lastHostIndex, where the next host of a host is (hostId + 1) % rangeLength.
+     * The hosts are searched in at most two continuous ranges with {@link SynState#findFirstSuitableHost},
+     * and the lastHostIndex is moved in the same way as probing the hosts one by one.
+     *
+     * @param rangeLength the number of hosts to probe.
+     * @param instance    the instance to be scheduled.
+     * @param synState    the synchronization state.
+     * @return the id of the suitable host, -1 if there is no suitable host.
+     */
+    private int findSuitableHost(int rangeLength, Instance instance, SynState synState) {
+        int startHostId = lastHostIndex;
+        int probeNum = rangeLength;
+        if (startHostId >= rangeLength) {
+            if (synState.isSuitable(startHostId, instance)) {
+                return startHostId;
+            }
+            startHostId = (startHostId + 1) % rangeLength;
+            probeNum--;
+        }
+        int endHostId = startHostId + probeNum - 1;
+        int suitId = synState.findFirstSuitableHost(startHostId, Math.min(endHostId, rangeLength - 1), instance);
+        if (suitId == -1 && endHostId >= rangeLength) {
+            suitId = synState.findFirstSuitableHost(0, endHostId - rangeLength, instance);
+        }
+        lastHostIndex = suitId != -1 ? suitId : (startHostId + probeNum) % rangeLength;
+        return suitId;
+    }
 }
@@ -48,6 +48,11 @@ public class IntraSchedulerLeastRequested extends IntraSchedulerSimple {
      */
     Random random = new Random();
 
+    /**
+     * The buffer to copy the host state into when scoring a host.
+     */
+    int[] hostStateBuffer = new int[HostState.STATE_NUM];
+
     /**
      * The constructor of the least requested intra-scheduler.
      *
@@ -165,18 +170,20 @@ public class IntraSchedulerLeastRequested extends IntraSchedulerSimple {
      */
     protected double getScoreForHost(Instance instance, int hostId, SynState synState){
         long startTime = System.nanoTime();
-        HostState hostState = synState.getHostState(hostId);
+        synState.fillHostState(hostId, hostStateBuffer);
         long endTime  = System.nanoTime();
         excludeTimeNanos += endTime - startTime;
-        if (!hostState.isSuitable(instance)) {
+        if (hostStateBuffer[0] < instance.getCpu() || hostStateBuffer[1] < instance.getRam()
+                || hostStateBuffer[2] < instance.getStorage() || hostStateBuffer[3] < instance.getBw()) {
             return -1;
         } else {
             if(scoreHostHistoryMap.containsKey(hostId)){
                 return scoreHostHistoryMap.get(hostId);
             }else{
-                int cpuCapacity = datacenter.getStatesManager().getHostCapacityManager().getHostCapacity(hostId)[0];
-                int ramCapacity = datacenter.getStatesManager().getHostCapacityManager().getHostCapacity(hostId)[1];
-                double score = (hostState.getCpu() * 10 / (double) cpuCapacity + hostState.getRam() * 10 / (double) ramCapacity) / 2;
+                int[] hostCapacity = datacenter.getStatesManager().getHostCapacityManager().getHostCapacity(hostId);
+                int cpuCapacity = hostCapacity[0];
+                int ramCapacity = hostCapacity[1];
+                double score = (hostStateBuffer[0] * 10 / (double) cpuCapacity + hostStateBuffer[1] * 10 / (double) ramCapacity) / 2;
                 scoreHostHistoryMap.put(hostId, score);
                 return score;
             }
@@ -1,7 +1,6 @@
 package org.lgdcloudsim.intrascheduler;
 
 import org.lgdcloudsim.request.Instance;
-import org.lgdcloudsim.statemanager.HostState;
 import org.lgdcloudsim.statemanager.SynState;
 
 /**
@@ -35,10 +34,10 @@ public class IntraSchedulerRandomScore extends IntraSchedulerLeastRequested {
     @Override
     protected double getScoreForHost(Instance instance, int hostId, SynState synState){
         long startTime = System.nanoTime();
-        HostState hostState = synState.getHostState(hostId);
+        boolean isSuitable = synState.isSuitable(hostId, instance.getCpu(), instance.getRam(), instance.getStorage(), instance.getBw());
         long endTime  = System.nanoTime();
         excludeTimeNanos += endTime - startTime;
-        if (!hostState.isSuitable(instance)) {
+        if (!isSuitable) {
             return -1;
         } else {
             if(scoreHostHistoryMap.containsKey(hostId)){
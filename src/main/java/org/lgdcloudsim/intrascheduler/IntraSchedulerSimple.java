@@ -7,7 +7,6 @@ import org.lgdcloudsim.request.Instance;
 import org.lgdcloudsim.datacenter.Datacenter;
 import org.lgdcloudsim.queue.InstanceQueue;
 import org.lgdcloudsim.queue.InstanceQueueFifo;
-import org.lgdcloudsim.statemanager.HostState;
 import org.lgdcloudsim.statemanager.SynState;
 
 import java.util.List;
@@ -62,6 +61,11 @@ public class IntraSchedulerSimple implements IntraScheduler {
 
     /**
      * The schedule cost time.
+     * It is the wall time spent in {@link #scheduleInstances(List, SynState)}, in milliseconds.
+     * When the intra-schedulers of a datacenter schedule concurrently,
+     * see {@link org.lgdcloudsim.datacenter.DatacenterSimple#isParallelIntraScheduling()},
+     * it is measured while they compete for the cores and the memory bandwidth,
+     * so the simulated time changes although the placements are the same.
      */
     @Getter
     @Setter
@@ -236,18 +240,24 @@ public class IntraSchedulerSimple implements IntraScheduler {
         }
         for (Instance instance : instances) {
             int suitId = -1;
+            int cpu = instance.getCpu();
+            int ram = instance.getRam();
+            int storage = instance.getStorage();
+            int bw = instance.getBw();
 
             for (int p = 0; p < partitionNum; p++) {
                 int[] range = datacenter.getStatesManager().getPartitionRangesManager().getRange((synPartitionId + partitionNum - p) % partitionNum);
                 int startHostId = random.nextInt(range[1] - range[0] + 1);
                 int rangeLength = range[1] - range[0] + 1;
+                // Only the state reads are excluded from the schedule cost time, so the hosts are probed one by one
+                // instead of with SynState#findFirstSuitableHost, which would exclude the whole search.
                 for (int i = 0; i < rangeLength; i++) {
                     int hostId = range[0] + (startHostId + i) % rangeLength;
                     long startTime = System.nanoTime();
-                    HostState hostState = synState.getHostState(hostId);
+                    boolean isSuitable = synState.isSuitable(hostId, cpu, ram, storage, bw);
                     long endTime = System.nanoTime();
                     excludeTimeNanos += endTime - startTime;
-                    if (hostState.isSuitable(instance)) {
+                    if (isSuitable) {
                         suitId = hostId;
                         break;
                     }
@@ -0,0 +1,345 @@
+package org.lgdcloudsim.record;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.SimEntity;
+import org.lgdcloudsim.core.events.SimEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * EventProfiler records where the wall time of the simulation loop goes.
+ * For each {@link CloudActionTags} and each class of the destination entity,
+ * it records the number of processed events, the total wall time spent in {@link SimEntity#processEvent(SimEvent)}
+ * and a histogram of the handler times to get the percentiles.
+ * It also samples the sizes of the future and deferred queues over the simulation time.
+ * <p>
+ * It is disabled by default, so the simulation loop only checks a flag for each event.
+ * When it is enabled, the {@link #getSummary() summary} is logged at the end of the simulation
+ * and written to the database by {@link SqlRecord#recordEventProfile(EventProfiler)}.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class EventProfiler {
+    /**
+     * Whether the events are profiled.
+     */
+    @Getter
+    @Setter
+    private boolean enabled;
+
+    /**
+     * The minimum simulation time between two samples of the queue sizes.
+     * The unit is ms.
+     * The default value is 100.
+     */
+    @Getter
+    @Setter
+    private double queueSampleInterval = 100;
+
+    /**
+     * The statistics of the events of each tag.
+     */
+    private final Map<CloudActionTags, EventStatistics> tagStatistics = new EnumMap<>(CloudActionTags.class);
+
+    /**
+     * The statistics of the events of each class of the destination entity.
+     */
+    private final Map<Class<?>, EventStatistics> entityClassStatistics = new HashMap<>();
+
+    /**
+     * The simulation times of the queue samples.
+     */
+    private double[] sampleTimes = new double[64];
+
+    /**
+     * The sizes of the future queue of the queue samples.
+     */
+    private int[] futureQueueSizes = new int[64];
+
+    /**
+     * The sizes of the deferred queue of the queue samples.
+     */
+    private int[] deferredQueueSizes = new int[64];
+
+    /**
+     * The number of queue samples.
+     */
+    @Getter
+    private int queueSampleNum;
+
+    /**
+     * The maximum size of the future queue at the beginning of all the clock ticks.
+     */
+    @Getter
+    private int maxFutureQueueSize;
+
+    /**
+     * The maximum size of the deferred queue at the beginning of all the clock ticks.
+     */
+    @Getter
+    private int maxDeferredQueueSize;
+
+    /**
+     * Record an event processed by an entity.
+     * It must be called by the thread running the simulation.
+     *
+     * @param entity        the entity which processed the event
+     * @param tag           the tag of the event
+     * @param handlerNanos  the wall time spent to process the event in nanoseconds
+     */
+    public void recordEvent(final SimEntity entity, final CloudActionTags tag, final long handlerNanos) {
+        tagStatistics.computeIfAbsent(tag, key -> new EventStatistics()).record(handlerNanos);
+        entityClassStatistics.computeIfAbsent(entity.getClass(), key -> new EventStatistics()).record(handlerNanos);
+    }
+
+    /**
+     * Record the sizes of the queues at the beginning of a clock tick.
+     * The maximum sizes are updated at every tick,
+     * and a sample is kept if {@link #queueSampleInterval} has passed since the last one.
+     *
+     * @param time               the simulation time
+     * @param futureQueueSize    the number of events in the future queue
+     * @param deferredQueueSize  the number of events in the deferred queue
+     */
+    public void recordQueueSizes(final double time, final int futureQueueSize, final int deferredQueueSize) {
+        maxFutureQueueSize = Math.max(maxFutureQueueSize, futureQueueSize);
+        maxDeferredQueueSize = Math.max(maxDeferredQueueSize, deferredQueueSize);
+        if (queueSampleNum > 0 && time < sampleTimes[queueSampleNum - 1] + queueSampleInterval) {
+            return;
+        }
+
+        if (queueSampleNum == sampleTimes.length) {
+            sampleTimes = Arrays.copyOf(sampleTimes, queueSampleNum * 2);
+            futureQueueSizes = Arrays.copyOf(futureQueueSizes, queueSampleNum * 2);
+            deferredQueueSizes = Arrays.copyOf(deferredQueueSizes, queueSampleNum * 2);
+        }
+        sampleTimes[queueSampleNum] = time;
+        futureQueueSizes[queueSampleNum] = futureQueueSize;
+        deferredQueueSizes[queueSampleNum] = deferredQueueSize;
+        queueSampleNum++;
+    }
+
+    /**
+     * Get the statistics of the events of each tag.
+     * @return the statistics of each tag that has processed events
+     */
+    public Map<CloudActionTags, EventStatistics> getTagStatistics() {
+        return tagStatistics;
+    }
+
+    /**
+     * Get the statistics of the events of each class of the destination entity.
+     * @return the statistics of each entity class that has processed events
+     */
+    public Map<Class<?>, EventStatistics> getEntityClassStatistics() {
+        return entityClassStatistics;
+    }
+
+    /**
+     * Get the simulation time of a queue sample.
+     * @param index the index of the sample, less than {@link #getQueueSampleNum()}
+     * @return the simulation time of the sample
+     */
+    public double getQueueSampleTime(final int index) {
+        return sampleTimes[index];
+    }
+
+    /**
+     * Get the size of the future queue of a queue sample.
+     * @param index the index of the sample, less than {@link #getQueueSampleNum()}
+     * @return the number of events in the future queue
+     */
+    public int getFutureQueueSize(final int index) {
+        return futureQueueSizes[index];
+    }
+
+    /**
+     * Get the size of the deferred queue of a queue sample.
+     * @param index the index of the sample, less than {@link #getQueueSampleNum()}
+     * @return the number of events in the deferred queue
+     */
+    public int getDeferredQueueSize(final int index) {
+        return deferredQueueSizes[index];
+    }
+
+    /**
+     * Get a table of the statistics sorted by the total handler time, followed by the maximum queue sizes.
+     * The caller chooses where the table goes, such as a logger.
+     *
+     * @return the summary with a line for each tag and each entity class
+     */
+    public String getSummary() {
+        final StringBuilder summary = new StringBuilder();
+        summary.append("Event profile by tag:").append(System.lineSeparator());
+        appendStatistics(summary, tagStatistics, CloudActionTags::name);
+        summary.append("Event profile by entity class:").append(System.lineSeparator());
+        appendStatistics(summary, entityClassStatistics, Class::getSimpleName);
+        summary.append(String.format("The future queue has a maximum of %d events and the deferred queue has a maximum of %d events, %d samples are recorded",
+                maxFutureQueueSize, maxDeferredQueueSize, queueSampleNum));
+        return summary.toString();
+    }
+
+    /**
+     * Write the statistics and the queue samples to the database.
+     * The eventProfile table has a row for each tag and each entity class,
+     * and the eventQueueSize table has a row for each queue sample.
+     * The existing tables are replaced.
+     *
+     * @param conn the connection of the database
+     * @throws SQLException if the tables can't be written
+     */
+    void recordToDatabase(final Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP TABLE IF EXISTS eventProfile");
+            stmt.executeUpdate("CREATE TABLE eventProfile " +
+                    "(kind CHAR(10) NOT NULL," +
+                    " name CHAR(100) NOT NULL," +
+                    " eventNum INT NOT NULL," +
+                    " totalMs DOUBLE NOT NULL," +
+                    " p50Us DOUBLE NOT NULL," +
+                    " p99Us DOUBLE NOT NULL," +
+                    " maxUs DOUBLE NOT NULL)");
+            stmt.executeUpdate("DROP TABLE IF EXISTS eventQueueSize");
+            stmt.executeUpdate("CREATE TABLE eventQueueSize " +
+                    "(time DOUBLE PRIMARY KEY NOT NULL," +
+                    " futureQueueSize INT NOT NULL," +
+                    " deferredQueueSize INT NOT NULL)");
+        }
+
+        try (PreparedStatement statement = conn.prepareStatement("INSERT INTO eventProfile (kind,name,eventNum,totalMs,p50Us,p99Us,maxUs) VALUES (?,?,?,?,?,?,?);")) {
+            for (Map.Entry<CloudActionTags, EventStatistics> entry : tagStatistics.entrySet()) {
+                addStatisticsBatch(statement, "tag", entry.getKey().name(), entry.getValue());
+            }
+            for (Map.Entry<Class<?>, EventStatistics> entry : entityClassStatistics.entrySet()) {
+                addStatisticsBatch(statement, "entity", entry.getKey().getSimpleName(), entry.getValue());
+            }
+            statement.executeBatch();
+        }
+
+        try (PreparedStatement statement = conn.prepareStatement("INSERT INTO eventQueueSize (time,futureQueueSize,deferredQueueSize) VALUES (?,?,?);")) {
+            for (int i = 0; i < queueSampleNum; i++) {
+                statement.setDouble(1, sampleTimes[i]);
+                statement.setInt(2, futureQueueSizes[i]);
+                statement.setInt(3, deferredQueueSizes[i]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        conn.commit();
+    }
+
+    private static void addStatisticsBatch(final PreparedStatement statement, final String kind, final String name, final EventStatistics statistics) throws SQLException {
+        statement.setString(1, kind);
+        statement.setString(2, name);
+        statement.setLong(3, statistics.getCount());
+        statement.setDouble(4, statistics.getTotalNanos() / 1e6);
+        statement.setDouble(5, statistics.getPercentileNanos(0.5) / 1e3);
+        statement.setDouble(6, statistics.getPercentileNanos(0.99) / 1e3);
+        statement.setDouble(7, statistics.getMaxNanos() / 1e3);
+        statement.addBatch();
+    }
+
+    private static <K> void appendStatistics(final StringBuilder summary, final Map<K, EventStatistics> statistics, final Function<K, String> nameFunction) {
+        summary.append(String.format("%-52s %12s %12s %12s %12s%n", "name", "events", "total ms", "p50 us", "p99 us"));
+        statistics.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<K, EventStatistics> entry) -> entry.getValue().getTotalNanos()).reversed())
+                .forEach(entry -> summary.append(String.format("%-52s %12d %12.3f %12.3f %12.3f%n", nameFunction.apply(entry.getKey()),
+                        entry.getValue().getCount(), entry.getValue().getTotalNanos() / 1e6,
+                        entry.getValue().getPercentileNanos(0.5) / 1e3, entry.getValue().getPercentileNanos(0.99) / 1e3)));
+    }
+
+    /**
+     * The number and the handler times of a kind of events.
+     * The handler times are kept in a log-linear histogram:
+     * the times less than 16 ns have their own buckets,
+     * and every power of two above is split into 8 buckets,
+     * so a percentile has a relative error of at most 12.5% with a fixed memory.
+     */
+    public static final class EventStatistics {
+        private static final int LINEAR_BUCKET_NUM = 16;
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKET_NUM = 1 << SUB_BUCKET_BITS;
+        private static final int FIRST_EXPONENT = 4;
+
+        /**
+         * The number of events.
+         */
+        @Getter
+        private long count;
+
+        /**
+         * The total handler time in nanoseconds.
+         */
+        @Getter
+        private long totalNanos;
+
+        /**
+         * The maximum handler time in nanoseconds.
+         */
+        @Getter
+        private long maxNanos;
+
+        private final long[] buckets = new long[LINEAR_BUCKET_NUM + (Long.SIZE - FIRST_EXPONENT) * SUB_BUCKET_NUM];
+
+        /**
+         * Record the handler time of an event.
+         * @param nanos the handler time in nanoseconds
+         */
+        public void record(final long nanos) {
+            final long value = Math.max(nanos, 0);
+            count++;
+            totalNanos += value;
+            maxNanos = Math.max(maxNanos, value);
+            buckets[getBucket(value)]++;
+        }
+
+        /**
+         * Get a percentile of the handler times.
+         * It is the upper bound of the bucket containing the percentile, but not more than the maximum time.
+         * @param percentile the percentile between 0 and 1, such as 0.99
+         * @return the handler time in nanoseconds, 0 if there is no event
+         */
+        public long getPercentileNanos(final double percentile) {
+            final long rank = Math.max(1, (long) Math.ceil(percentile * count));
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= rank) {
+                    return Math.min(getBucketUpperBound(bucket), maxNanos);
+                }
+            }
+            return 0;
+        }
+
+        private static int getBucket(final long value) {
+            if (value < LINEAR_BUCKET_NUM) {
+                return (int) value;
+            }
+            final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_NUM - 1);
+            return LINEAR_BUCKET_NUM + (exponent - FIRST_EXPONENT) * SUB_BUCKET_NUM + subBucket;
+        }
+
+        private static long getBucketUpperBound(final int bucket) {
+            if (bucket < LINEAR_BUCKET_NUM) {
+                return bucket;
+            }
+            final int exponent = (bucket - LINEAR_BUCKET_NUM) / SUB_BUCKET_NUM + FIRST_EXPONENT;
+            final int subBucket = (bucket - LINEAR_BUCKET_NUM) % SUB_BUCKET_NUM;
+            final long width = 1L << (exponent - SUB_BUCKET_BITS);
+            return (SUB_BUCKET_NUM + subBucket) * width + width - 1;
+        }
+    }
+}
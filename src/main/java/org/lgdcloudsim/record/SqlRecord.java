@@ -184,6 +184,14 @@ public interface SqlRecord {
      */
     void recordDcNetworkInfo(Integer srcDcId, Integer dstDcId, double bw, double unitPrice);
 
+    /**
+     * Record the profile of the events processed in the simulation.
+     * It records the number and the handler times of the events of each tag and each entity class,
+     * and the sizes of the event queues over time.
+     * @param eventProfiler the event profiler.
+     */
+    void recordEventProfile(EventProfiler eventProfiler);
+
     /**
      * Close the SQLite database.
      */
@@ -505,6 +505,15 @@ public class SqlRecordDetailScheduleTime implements SqlRecord {
         }
     }
 
+    @Override
+    public void recordEventProfile(EventProfiler eventProfiler) {
+        try {
+            eventProfiler.recordToDatabase(conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public void close() {
         try {
@@ -113,6 +113,11 @@ public class SqlRecordNull implements SqlRecord {
 
     }
 
+    @Override
+    public void recordEventProfile(EventProfiler eventProfiler) {
+
+    }
+
     @Override
     public void close() {
 
@@ -469,6 +469,15 @@ public class SqlRecordSimple implements SqlRecord {
         }
     }
 
+    @Override
+    public void recordEventProfile(EventProfiler eventProfiler) {
+        try {
+            eventProfiler.recordToDatabase(conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public void close() {
         try {
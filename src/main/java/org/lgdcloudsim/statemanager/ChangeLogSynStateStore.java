@@ -0,0 +1,359 @@
+package org.lgdcloudsim.statemanager;
+
+import java.util.Arrays;
+
+/**
+ * The "changeLog" type of {@link SynStateStore}, which keeps the host states saved for the partition synchronization in a log.
+ * <p>
+ * Every change of a host appends the host id and the state of the host before the change to the log,
+ * and starting an epoch only records the position of the log where the epoch starts.
+ * So the allocation and the release only write a few ints at the end of the log,
+ * without looking up whether the host has been saved in the epoch as {@link PartitionSynStateStore} does.
+ * The saved state of a host in an epoch is the state of its first entry in the epoch, which is found when the host is read.
+ * The entries are indexed by their host id lazily when a state is read for the first time after they were appended,
+ * and each entry is linked to the previous entry of its host, so finding a state only visits the entries of the host.
+ * Most hosts changed between the synchronizations are never read by an intra-scheduler, so their entries are never indexed.
+ * <p>
+ * The log is kept in chunks of {@link #CHUNK_SIZE} entries,
+ * and the chunks older than the latest retainedEpochNum epochs are dropped when an epoch starts.
+ * The dropped chunks are reused, so the log only allocates when it is longer than ever before.
+ * <p>
+ * The log is shared by all the partitions, since an entry belongs to the partition of its host.
+ * The store is not thread-safe, which is the same as the {@link StatesManagerSimple} it belongs to.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class ChangeLogSynStateStore implements SynStateStore {
+    /**
+     * The log2 of the number of entries in a chunk.
+     */
+    static final int CHUNK_SHIFT = 12;
+
+    /**
+     * The number of entries in a chunk.
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The host id of each entry.
+     */
+    private int[][] hostIdChunks = new int[0][];
+
+    /**
+     * The saved state of each entry, {@link HostState#STATE_NUM} ints for each entry.
+     */
+    private int[][] stateChunks = new int[0][];
+
+    /**
+     * The sequence number of the previous entry of the same host, -1 if there is none.
+     * It is set when the entry is indexed.
+     */
+    private long[][] previousChunks = new long[0][];
+
+    /**
+     * The number of the chunks in use, the chunks after them are dropped ones kept for reuse.
+     */
+    private int chunkNum;
+
+    /**
+     * The sequence number of the first entry of the first chunk.
+     * The sequence number of an entry never changes, and its chunk is (sequence number - firstChunkSeq) / {@link #CHUNK_SIZE}.
+     */
+    private long firstChunkSeq;
+
+    /**
+     * The sequence number of the first entry of the oldest kept epoch.
+     */
+    private long baseSeq;
+
+    /**
+     * The sequence number of the next entry.
+     */
+    private long endSeq;
+
+    /**
+     * The entries before this sequence number are indexed.
+     */
+    private long indexedSeq;
+
+    /**
+     * The keys of the index from the host id to the sequence number of its latest indexed entry, -1 for an empty slot.
+     */
+    private int[] indexKeys;
+
+    /**
+     * The values of the index.
+     */
+    private long[] indexSeqs;
+
+    /**
+     * The number of the hosts in the index.
+     */
+    private int indexSize;
+
+    /**
+     * The sequence number of the first entry of each kept epoch.
+     * The epoch of the sync count c is at index c % length.
+     */
+    private long[] epochStartSeqs;
+
+    /**
+     * The oldest sync count whose epoch is kept completely.
+     */
+    private int oldestSynCount;
+
+    /**
+     * The latest partition sync count.
+     */
+    private int latestSynCount;
+
+    /**
+     * The number of the latest epochs that are kept, the older epochs are expired.
+     */
+    private int retainedEpochNum;
+
+    /**
+     * Create a new store with the first epoch of the sync count 0.
+     *
+     * @param retainedEpochNum the number of the latest epochs to keep
+     */
+    public ChangeLogSynStateStore(int retainedEpochNum) {
+        this.retainedEpochNum = Math.max(1, retainedEpochNum);
+        clear();
+    }
+
+    @Override
+    public void clear() {
+        chunkNum = 0;
+        firstChunkSeq = 0;
+        baseSeq = 0;
+        endSeq = 0;
+        clearIndex(0);
+        epochStartSeqs = new long[retainedEpochNum];
+        oldestSynCount = 0;
+        latestSynCount = 0;
+    }
+
+    @Override
+    public void startEpoch(int synCount, int retainedEpochNum) {
+        if (synCount <= latestSynCount) {
+            throw new IllegalArgumentException("The sync count " + synCount + " is not larger than the latest sync count " + latestSynCount);
+        }
+        this.retainedEpochNum = Math.max(1, retainedEpochNum);
+        if (this.retainedEpochNum > epochStartSeqs.length) {
+            long[] newEpochStartSeqs = new long[this.retainedEpochNum];
+            for (int count = oldestSynCount; count <= latestSynCount; count++) {
+                newEpochStartSeqs[count % newEpochStartSeqs.length] = epochStartSeqs[count % epochStartSeqs.length];
+            }
+            epochStartSeqs = newEpochStartSeqs;
+        }
+        for (int count = Math.max(latestSynCount + 1, synCount - epochStartSeqs.length + 1); count <= synCount; count++) {
+            epochStartSeqs[count % epochStartSeqs.length] = endSeq;
+        }
+        latestSynCount = synCount;
+        oldestSynCount = Math.max(oldestSynCount, synCount - this.retainedEpochNum + 1);
+        truncate(epochStartSeqs[oldestSynCount % epochStartSeqs.length]);
+    }
+
+    /**
+     * Append the state of the host before its change to the log.
+     * The log doesn't know whether the host has been saved in the epoch until the entry is indexed,
+     * so it always returns true.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @param hostStates  the array containing the state of the host
+     * @param offset      the offset of the state in hostStates
+     * @return true
+     */
+    @Override
+    public boolean saveIfAbsent(int partitionId, int hostId, int[] hostStates, int offset) {
+        long position = endSeq - firstChunkSeq;
+        int chunk = (int) (position >>> CHUNK_SHIFT);
+        if (chunk == chunkNum) {
+            addChunk();
+        }
+        int index = (int) position & CHUNK_MASK;
+        hostIdChunks[chunk][index] = hostId;
+        System.arraycopy(hostStates, offset, stateChunks[chunk], index * HostState.STATE_NUM, HostState.STATE_NUM);
+        endSeq++;
+        return true;
+    }
+
+    @Override
+    public boolean copyState(int partitionId, int synCount, int hostId, int[] hostState) {
+        if (synCount > latestSynCount || synCount < oldestSynCount || synCount < 0) {
+            return false;
+        }
+        long startSeq = epochStartSeqs[synCount % epochStartSeqs.length];
+        long endSeq = synCount == latestSynCount ? this.endSeq : epochStartSeqs[(synCount + 1) % epochStartSeqs.length];
+        if (startSeq == endSeq) {
+            return false;
+        }
+        indexEntries();
+        long foundSeq = -1;
+        for (long seq = getIndexedSeq(hostId); seq >= startSeq; seq = getPrevious(seq)) {
+            if (seq < endSeq) {
+                foundSeq = seq;
+            }
+        }
+        if (foundSeq < 0) {
+            return false;
+        }
+        long position = foundSeq - firstChunkSeq;
+        System.arraycopy(stateChunks[(int) (position >>> CHUNK_SHIFT)], ((int) position & CHUNK_MASK) * HostState.STATE_NUM,
+                hostState, 0, HostState.STATE_NUM);
+        return true;
+    }
+
+    /**
+     * Index all the entries, which are indexed lazily by {@link #copyState} otherwise.
+     */
+    @Override
+    public void prepareConcurrentReads() {
+        indexEntries();
+    }
+
+    /**
+     * Get the number of the entries in the kept epochs.
+     *
+     * @return the number of the entries
+     */
+    long getEntryNum() {
+        return endSeq - baseSeq;
+    }
+
+    private void addChunk() {
+        if (chunkNum == hostIdChunks.length) {
+            int length = Math.max(4, chunkNum * 2);
+            hostIdChunks = Arrays.copyOf(hostIdChunks, length);
+            stateChunks = Arrays.copyOf(stateChunks, length);
+            previousChunks = Arrays.copyOf(previousChunks, length);
+        }
+        if (hostIdChunks[chunkNum] == null) {
+            hostIdChunks[chunkNum] = new int[CHUNK_SIZE];
+            stateChunks[chunkNum] = new int[CHUNK_SIZE * HostState.STATE_NUM];
+            previousChunks[chunkNum] = new long[CHUNK_SIZE];
+        }
+        chunkNum++;
+    }
+
+    /**
+     * Drop the entries before the sequence number, whole chunks at a time.
+     * The dropped chunks are moved to the end for reuse.
+     * The index is rebuilt from the kept entries if most of its hosts only have dropped entries.
+     *
+     * @param seq the sequence number of the first entry to keep
+     */
+    private void truncate(long seq) {
+        baseSeq = seq;
+        int droppedChunkNum = (int) ((seq - firstChunkSeq) >>> CHUNK_SHIFT);
+        if (droppedChunkNum > 0) {
+            rotateChunks(hostIdChunks, droppedChunkNum);
+            rotateChunks(stateChunks, droppedChunkNum);
+            rotateChunks(previousChunks, droppedChunkNum);
+            chunkNum -= droppedChunkNum;
+            firstChunkSeq += (long) droppedChunkNum << CHUNK_SHIFT;
+        }
+        if (indexSize > 1024 && indexSize > 2 * (indexedSeq - baseSeq)) {
+            clearIndex(indexKeys.length / 2);
+        }
+        indexedSeq = Math.max(indexedSeq, baseSeq);
+    }
+
+    private static void rotateChunks(Object[] chunks, int droppedChunkNum) {
+        Object[] dropped = Arrays.copyOf(chunks, droppedChunkNum);
+        System.arraycopy(chunks, droppedChunkNum, chunks, 0, chunks.length - droppedChunkNum);
+        System.arraycopy(dropped, 0, chunks, chunks.length - droppedChunkNum, droppedChunkNum);
+    }
+
+    private void clearIndex(int capacity) {
+        int length = Integer.highestOneBit(Math.max(16, capacity) - 1) << 1;
+        indexKeys = new int[length];
+        Arrays.fill(indexKeys, -1);
+        indexSeqs = new long[length];
+        indexSize = 0;
+        indexedSeq = baseSeq;
+    }
+
+    /**
+     * Index the entries appended since the last time.
+     */
+    private void indexEntries() {
+        for (; indexedSeq < endSeq; indexedSeq++) {
+            long position = indexedSeq - firstChunkSeq;
+            int chunk = (int) (position >>> CHUNK_SHIFT);
+            int index = (int) position & CHUNK_MASK;
+            previousChunks[chunk][index] = putIndex(hostIdChunks[chunk][index], indexedSeq);
+        }
+    }
+
+    /**
+     * Set the latest entry of the host in the index.
+     *
+     * @param hostId the id of the host
+     * @param seq    the sequence number of the entry
+     * @return the sequence number of the previous kept entry of the host, -1 if there is none
+     */
+    private long putIndex(int hostId, long seq) {
+        if ((indexSize + 1) * 2 > indexKeys.length) {
+            rehashIndex(indexKeys.length * 2);
+        }
+        int mask = indexKeys.length - 1;
+        int slot = hash(hostId) & mask;
+        for (; indexKeys[slot] != -1; slot = (slot + 1) & mask) {
+            if (indexKeys[slot] == hostId) {
+                long previous = indexSeqs[slot];
+                indexSeqs[slot] = seq;
+                return previous >= baseSeq ? previous : -1;
+            }
+        }
+        indexKeys[slot] = hostId;
+        indexSeqs[slot] = seq;
+        indexSize++;
+        return -1;
+    }
+
+    private void rehashIndex(int capacity) {
+        int[] oldKeys = indexKeys;
+        long[] oldSeqs = indexSeqs;
+        indexKeys = new int[capacity];
+        Arrays.fill(indexKeys, -1);
+        indexSeqs = new long[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != -1) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (indexKeys[slot] != -1) {
+                    slot = (slot + 1) & mask;
+                }
+                indexKeys[slot] = oldKeys[i];
+                indexSeqs[slot] = oldSeqs[i];
+            }
+        }
+    }
+
+    private long getIndexedSeq(int hostId) {
+        int mask = indexKeys.length - 1;
+        for (int slot = hash(hostId) & mask; indexKeys[slot] != -1; slot = (slot + 1) & mask) {
+            if (indexKeys[slot] == hostId) {
+                return indexSeqs[slot] >= baseSeq ? indexSeqs[slot] : -1;
+            }
+        }
+        return -1;
+    }
+
+    private long getPrevious(long seq) {
+        long position = seq - firstChunkSeq;
+        long previous = previousChunks[(int) (position >>> CHUNK_SHIFT)][(int) position & CHUNK_MASK];
+        return previous >= baseSeq ? previous : -1;
+    }
+
+    private static int hash(int hostId) {
+        int h = hostId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
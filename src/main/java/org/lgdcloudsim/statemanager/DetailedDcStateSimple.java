@@ -6,6 +6,12 @@ import org.lgdcloudsim.request.Instance;
 /**
  * Used to describe the status of a data center,
  * including the status of each host and the total resource status of the data center.
+ * <p>
+ * A DetailedDcStateSimple of the "detailed" state type is a full copy of the host states in the center.
+ * A DetailedDcStateSimple of the "detailedDelta" state type is kept by the inter-scheduler across the synchronizations,
+ * and the {@link StatesManagerSimple} marks the hosts changed in the center since its last synchronization in its dirtyHosts.
+ * The hosts changed by {@link #allocate} are marked too,
+ * so a synchronization only copies the dirty hosts and the result is the same as a full copy.
  *
  * @author Anonymous
  * @since LGDCloudSim 1.0
@@ -14,13 +20,24 @@ public class DetailedDcStateSimple {
     /**
      * The status of each host in the data center.
      */
-    int[] hostStates;
+    HostStateStore hostStates;
 
     /**
      * The host capacity manager which records the capacity of each host in the data center.
      */
     final HostCapacityManager hostCapacityManager;
 
+    /**
+     * The index of the free capacity of hostStates, see {@link HostFreeCapacityIndex}.
+     */
+    final HostFreeCapacityIndex freeCapacityIndex;
+
+    /**
+     * The hosts which are different from the center since the last synchronization,
+     * null if the host states are not synchronized by delta.
+     */
+    DirtyHostSet dirtyHosts;
+
     /**
      * The number of hosts in the data center.
      */
@@ -61,10 +78,26 @@ public class DetailedDcStateSimple {
      * @param storageAvailableSum The total available storage resources of the data center.
      * @param bwAvailableSum      The total available bandwidth resources of the data center.
      */
-    public DetailedDcStateSimple(int[] hostStates, HostCapacityManager hostCapacityManager, long cpuAvailableSum, long ramAvailableSum, long storageAvailableSum, long bwAvailableSum) {
-        this.hostStates = hostStates.clone();//It must be cloned because it will be modified later, and this value must also be independent of the original value.
+    public DetailedDcStateSimple(HostStateStore hostStates, HostCapacityManager hostCapacityManager, long cpuAvailableSum, long ramAvailableSum, long storageAvailableSum, long bwAvailableSum) {
+        this(hostStates, hostCapacityManager, null, cpuAvailableSum, ramAvailableSum, storageAvailableSum, bwAvailableSum);
+    }
+
+    /**
+     * Construct a new DetailedDcStateSimple with a copy of the free capacity index of the host states.
+     *
+     * @param hostStates          The status of each host in the data center.
+     * @param hostCapacityManager The host capacity manager which records the capacity of each host in the data center.
+     * @param freeCapacityIndex   The index of the free capacity of hostStates, null to build a new index.
+     * @param cpuAvailableSum     The total available CPU resources of the data center.
+     * @param ramAvailableSum     The total available RAM resources of the data center.
+     * @param storageAvailableSum The total available storage resources of the data center.
+     * @param bwAvailableSum      The total available bandwidth resources of the data center.
+     */
+    public DetailedDcStateSimple(HostStateStore hostStates, HostCapacityManager hostCapacityManager, HostFreeCapacityIndex freeCapacityIndex, long cpuAvailableSum, long ramAvailableSum, long storageAvailableSum, long bwAvailableSum) {
+        this.hostStates = hostStates.copy();//It must be copied because it will be modified later, and this value must also be independent of the original value.
         this.hostCapacityManager = hostCapacityManager;
-        hostNum = hostStates.length / 4;
+        this.freeCapacityIndex = freeCapacityIndex == null ? new HostFreeCapacityIndex(this.hostStates) : freeCapacityIndex.copy(this.hostStates);
+        hostNum = hostStates.getHostNum();
         this.cpuAvailableSum = cpuAvailableSum;
         this.ramAvailableSum = ramAvailableSum;
         this.storageAvailableSum = storageAvailableSum;
@@ -77,7 +110,18 @@ public class DetailedDcStateSimple {
      * @return The status of the host.
      */
     public HostState getHostState(int hostId) {
-        return new HostState(hostStates[hostId * HostState.STATE_NUM], hostStates[hostId * HostState.STATE_NUM + 1], hostStates[hostId * HostState.STATE_NUM + 2], hostStates[hostId * HostState.STATE_NUM + 3]);
+        return hostStates.getHostState(hostId);
+    }
+
+    /**
+     * Find the first host in the range that has enough resources for the instance.
+     * @param fromHostId The first host id of the range.
+     * @param toHostId The last host id of the range, inclusive.
+     * @param instance The instance to be placed.
+     * @return The id of the first suitable host, -1 if there is no suitable host in the range.
+     */
+    public int findFirstSuitableHost(int fromHostId, int toHostId, Instance instance) {
+        return freeCapacityIndex.findFirst(fromHostId, toHostId, instance.getCpu(), instance.getRam(), instance.getStorage(), instance.getBw());
     }
 
     /**
@@ -97,14 +141,73 @@ public class DetailedDcStateSimple {
      * @return The DetailedDcStateSimple itself.
      */
     public DetailedDcStateSimple allocate(Instance instance, int hostId) {
-        hostStates[hostId * HostState.STATE_NUM] -= instance.getCpu();
-        hostStates[hostId * HostState.STATE_NUM + 1] -= instance.getRam();
-        hostStates[hostId * HostState.STATE_NUM + 2] -= instance.getStorage();
-        hostStates[hostId * HostState.STATE_NUM + 3] -= instance.getBw();
+        hostStates.allocate(hostId, instance);
+        freeCapacityIndex.update(hostId);
+        if (dirtyHosts != null) {
+            dirtyHosts.mark(hostId);
+        }
         cpuAvailableSum -= instance.getCpu();
         ramAvailableSum -= instance.getRam();
         storageAvailableSum -= instance.getStorage();
         bwAvailableSum -= instance.getBw();
         return this;
     }
+
+    /**
+     * Start to track the dirty hosts so that the host states can be synchronized by delta.
+     */
+    void trackDirtyHosts() {
+        if (dirtyHosts == null) {
+            dirtyHosts = new DirtyHostSet(hostNum);
+        }
+    }
+
+    /**
+     * Mark the host as changed in the center.
+     * @param hostId The id of the host.
+     */
+    void markDirty(int hostId) {
+        dirtyHosts.mark(hostId);
+    }
+
+    /**
+     * Mark all the hosts as changed in the center.
+     */
+    void markAllDirty() {
+        dirtyHosts.markAll();
+    }
+
+    /**
+     * Synchronize the dirty hosts from the center host states.
+     * The index is rebuilt instead of updated host by host if many hosts are dirty.
+     * @param centerHostStates The status of each host in the center.
+     * @param cpuAvailableSum The total available CPU resources of the data center.
+     * @param ramAvailableSum The total available RAM resources of the data center.
+     * @param storageAvailableSum The total available storage resources of the data center.
+     * @param bwAvailableSum The total available bandwidth resources of the data center.
+     * @return The DetailedDcStateSimple itself.
+     */
+    DetailedDcStateSimple synDirtyHosts(HostStateStore centerHostStates, long cpuAvailableSum, long ramAvailableSum, long storageAvailableSum, long bwAvailableSum) {
+        if (dirtyHosts.isAllDirty()) {
+            hostStates.copyAllFrom(centerHostStates);
+            freeCapacityIndex.invalidate();
+        } else {
+            boolean isRebuildIndex = dirtyHosts.getDirtyHostNum() > hostNum / HostFreeCapacityIndex.BLOCK_SIZE;
+            dirtyHosts.forEach(hostId -> {
+                hostStates.copyHostFrom(centerHostStates, hostId);
+                if (!isRebuildIndex) {
+                    freeCapacityIndex.update(hostId);
+                }
+            });
+            if (isRebuildIndex) {
+                freeCapacityIndex.invalidate();
+            }
+        }
+        dirtyHosts.clear();
+        this.cpuAvailableSum = cpuAvailableSum;
+        this.ramAvailableSum = ramAvailableSum;
+        this.storageAvailableSum = storageAvailableSum;
+        this.bwAvailableSum = bwAvailableSum;
+        return this;
+    }
 }
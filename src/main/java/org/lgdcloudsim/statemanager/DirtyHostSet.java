@@ -0,0 +1,122 @@
+package org.lgdcloudsim.statemanager;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A set of the hosts whose states have changed, used by the delta synchronization of {@link DetailedDcStateSimple}.
+ * It is a bitmap with a list of its non-zero words,
+ * so marking a host is O(1) and visiting the marked hosts doesn't scan the whole bitmap.
+ * It can also be marked as all dirty, such as after the host states are initialized.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+class DirtyHostSet {
+    /**
+     * The bitmap of the dirty hosts.
+     */
+    private final long[] words;
+
+    /**
+     * The indexes of the non-zero words in {@link #words}.
+     */
+    private final int[] dirtyWordIndexes;
+
+    /**
+     * The number of the non-zero words.
+     */
+    private int dirtyWordNum;
+
+    /**
+     * The number of the dirty hosts.
+     */
+    private int dirtyHostNum;
+
+    /**
+     * Whether all the hosts are dirty.
+     */
+    private boolean allDirty;
+
+    /**
+     * Create an empty set.
+     *
+     * @param hostNum the number of hosts
+     */
+    DirtyHostSet(int hostNum) {
+        this.words = new long[(hostNum + Long.SIZE - 1) / Long.SIZE];
+        this.dirtyWordIndexes = new int[words.length];
+    }
+
+    /**
+     * Mark the host as dirty.
+     *
+     * @param hostId the id of the host
+     */
+    void mark(int hostId) {
+        if (allDirty) {
+            return;
+        }
+        int wordIndex = hostId >>> 6;
+        long bit = 1L << hostId;
+        long word = words[wordIndex];
+        if ((word & bit) != 0) {
+            return;
+        }
+        if (word == 0) {
+            dirtyWordIndexes[dirtyWordNum++] = wordIndex;
+        }
+        words[wordIndex] = word | bit;
+        dirtyHostNum++;
+    }
+
+    /**
+     * Mark all the hosts as dirty.
+     */
+    void markAll() {
+        allDirty = true;
+    }
+
+    /**
+     * Whether all the hosts are dirty.
+     *
+     * @return true if all the hosts are dirty
+     */
+    boolean isAllDirty() {
+        return allDirty;
+    }
+
+    /**
+     * Get the number of the dirty hosts, which is meaningless if all the hosts are dirty.
+     *
+     * @return the number of the dirty hosts
+     */
+    int getDirtyHostNum() {
+        return dirtyHostNum;
+    }
+
+    /**
+     * Visit the dirty hosts, which must not be called if all the hosts are dirty.
+     *
+     * @param action the action to perform on the id of each dirty host
+     */
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < dirtyWordNum; i++) {
+            int wordIndex = dirtyWordIndexes[i];
+            for (long word = words[wordIndex]; word != 0; word &= word - 1) {
+                action.accept(wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    /**
+     * Remove all the hosts from the set.
+     */
+    void clear() {
+        for (int i = 0; i < dirtyWordNum; i++) {
+            words[dirtyWordIndexes[i]] = 0;
+        }
+        dirtyWordNum = 0;
+        dirtyHostNum = 0;
+        allDirty = false;
+    }
+}
@@ -1,29 +1,73 @@
 package org.lgdcloudsim.statemanager;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A class to manage the capacity of the hosts.
  * Considering that the status of hosts in a data center usually has certain similarities,
  * HostCapacityManager will record the CPU, memory, storage and bandwidth capacity of a certain type of host,
  * and then record the ID range of this type of host.
+ * <p>
+ * The same capacities are merged into a capacity class, whose capacity is kept in a primitive table.
+ * The id ranges are kept sorted by their start ids in primitive arrays, so they can be added in any order,
+ * and a lookup is a binary search without boxing or copying.
+ * When the dense index is enabled, which is the default,
+ * the capacity class of each host is also kept in a short array so that a lookup is O(1) with 2 bytes per host.
+ * The dense index is dropped if there are more capacity classes than a short can hold.
+ * <p>
+ * The capacity arrays returned by the lookups are shared, so they must not be modified.
  *
  * @author Anonymous
  * @since LGDCloudSim 1.0
  */
 public class HostCapacityManager {
     /**
-     * The start id of the hosts with the same capacity.
+     * The start id of the hosts with the same capacity, sorted in ascending order.
      */
-    List<Integer> sameCapacityHostStartIds;
+    int[] sameCapacityHostStartIds;
 
     /**
-     * A list to store the capacity of the different types of hosts.
+     * The end id (exclusive) of the hosts with the same capacity.
      * It corresponds to sameCapacityHostStartIds.
      */
-    List<int[]> hostCapacity;
+    int[] sameCapacityHostEndIds;
+
+    /**
+     * The capacity class of the hosts with the same capacity.
+     * It corresponds to sameCapacityHostStartIds.
+     */
+    int[] sameCapacityHostClasses;
+
+    /**
+     * The number of the id ranges in sameCapacityHostStartIds.
+     */
+    int rangeNum;
+
+    /**
+     * The capacity of each capacity class.
+     * The class index is the index of the array.
+     */
+    int[][] hostCapacity;
+
+    /**
+     * The number of capacity classes.
+     */
+    int classNum;
+
+    /**
+     * The capacity class of each capacity, used to merge the same capacities when adding hosts.
+     */
+    Map<List<Integer>, Integer> capacityClasses;
+
+    /**
+     * The capacity class of each host, -1 for the hosts which have not been added.
+     * The host id is the index of the array.
+     * It is null if the dense index is disabled.
+     */
+    short[] hostClasses;
 
     /**
      * The number of hosts.
@@ -39,47 +83,186 @@ public class HostCapacityManager {
      */
     long[] hostCapacitySum;
 
+    /**
+     * Create a new HostCapacityManager with the dense index.
+     */
+    public HostCapacityManager() {
+        this(true);
+    }
+
     /**
      * Create a new HostCapacityManager.
+     *
+     * @param isDenseIndex whether to keep the capacity class of each host for O(1) lookup
      */
-    public  HostCapacityManager(){
-        sameCapacityHostStartIds = new ArrayList<>();
-        hostCapacity = new ArrayList<>();
+    public HostCapacityManager(boolean isDenseIndex) {
+        sameCapacityHostStartIds = new int[8];
+        sameCapacityHostEndIds = new int[8];
+        sameCapacityHostClasses = new int[8];
+        rangeNum = 0;
+        hostCapacity = new int[8][];
+        classNum = 0;
+        capacityClasses = new HashMap<>();
+        hostClasses = isDenseIndex ? new short[0] : null;
         hostNum = 0;
         hostCapacitySum = new long[HostState.STATE_NUM];
     }
 
     /**
-     * Add some host with the same capacity.
-     * Now it is only supported to add the same capacity host orderly.
+     * Add some host with the same capacity after all the added hosts.
      *
      * @param length           the number of hosts to be added
      * @param resourceCapacity the capacity of the hosts to be added
      */
     public void orderlyAddSameCapacityHost(int length, int[] resourceCapacity) {
-        sameCapacityHostStartIds.add(hostNum);
+        addSameCapacityHost(rangeNum == 0 ? 0 : sameCapacityHostEndIds[rangeNum - 1], length, resourceCapacity);
+    }
+
+    /**
+     * Add some host with the same capacity.
+     * The hosts can be added in any order, but the id ranges must not overlap.
+     *
+     * @param startId          the id of the first host to be added
+     * @param length           the number of hosts to be added
+     * @param resourceCapacity the capacity of the hosts to be added
+     */
+    public void addSameCapacityHost(int startId, int length, int[] resourceCapacity) {
+        if (startId < 0 || length <= 0 || resourceCapacity.length != HostState.STATE_NUM) {
+            throw new IllegalArgumentException("Invalid host range [" + startId + "," + (startId + length) + ") or capacity in addSameCapacityHost");
+        }
+        int endId = startId + length;
+        int index = findRange(startId);
+        if ((index >= 0 && sameCapacityHostEndIds[index] > startId)
+                || (index + 1 < rangeNum && sameCapacityHostStartIds[index + 1] < endId)) {
+            throw new IllegalArgumentException("Host range [" + startId + "," + endId + ") overlaps the added hosts in addSameCapacityHost");
+        }
+
+        int capacityClass = getOrAddCapacityClass(resourceCapacity);
+        insertRange(index + 1, startId, endId, capacityClass);
+        if (hostClasses != null) {
+            if (hostClasses.length < endId) {
+                int oldLength = hostClasses.length;
+                hostClasses = Arrays.copyOf(hostClasses, Math.max(endId, oldLength * 2));
+                Arrays.fill(hostClasses, oldLength, hostClasses.length, (short) -1);
+            }
+            Arrays.fill(hostClasses, startId, endId, (short) capacityClass);
+        }
+
         hostNum += length;
-        hostCapacity.add(resourceCapacity);
-        for(int i=0;i<HostState.STATE_NUM;i++) {
+        for (int i = 0; i < HostState.STATE_NUM; i++) {
             hostCapacitySum[i] += (long) resourceCapacity[i] * length;
         }
     }
 
     /**
-     * Get the capacity of the host with the given host id through binary search.
+     * Get the capacity of the host with the given host id.
      * @param hostId the id of the host
      * @return the capacity of the host, including the CPU, memory, storage and bandwidth capacity
      */
     public int[] getHostCapacity(int hostId) {
-        if(hostId<0|| hostId>=hostNum) {
-            throw new IllegalArgumentException("hostId "+hostId+"is out of range [0,"+hostNum+"] in getHostCapacity");
+        return hostCapacity[getCapacityClass(hostId)];
+    }
+
+    /**
+     * Get the CPU capacity of the host with the given host id.
+     * @param hostId the id of the host
+     * @return the CPU capacity of the host
+     */
+    public int getCpuCapacity(int hostId) {
+        return getHostCapacity(hostId)[0];
+    }
+
+    /**
+     * Get the RAM capacity of the host with the given host id.
+     * @param hostId the id of the host
+     * @return the RAM capacity of the host
+     */
+    public int getRamCapacity(int hostId) {
+        return getHostCapacity(hostId)[1];
+    }
+
+    /**
+     * Get the capacity class of the host with the given host id.
+     * It uses the dense index if it is enabled, otherwise it uses the binary search on the id ranges.
+     * @param hostId the id of the host
+     * @return the capacity class of the host
+     */
+    public int getCapacityClass(int hostId) {
+        int capacityClass = findCapacityClass(hostId);
+        if (capacityClass < 0) {
+            throw new IllegalArgumentException("hostId " + hostId + " has not been added in getHostCapacity");
+        }
+        return capacityClass;
+    }
+
+    /**
+     * Find the capacity class of the host with the given host id.
+     * @param hostId the id of the host
+     * @return the capacity class of the host, -1 if the host has not been added
+     */
+    public int findCapacityClass(int hostId) {
+        if (hostClasses != null) {
+            return hostId >= 0 && hostId < hostClasses.length ? hostClasses[hostId] : -1;
         }
-        int index = Arrays.binarySearch(sameCapacityHostStartIds.toArray(), hostId);
-        if(index>=0) {
-            return hostCapacity.get(index);
-        } else {
-            return hostCapacity.get(-index-2);
+        if (hostId >= 0) {
+            int index = findRange(hostId);
+            if (index >= 0 && hostId < sameCapacityHostEndIds[index]) {
+                return sameCapacityHostClasses[index];
+            }
         }
+        return -1;
+    }
+
+    /**
+     * Get the capacity of the capacity class.
+     * @param capacityClass the capacity class
+     * @return the capacity of the class, including the CPU, memory, storage and bandwidth capacity
+     */
+    public int[] getClassCapacity(int capacityClass) {
+        return hostCapacity[capacityClass];
+    }
+
+    /**
+     * Whether all the hosts in the id range have been added with the given capacity.
+     * @param startId          the id of the first host
+     * @param length           the number of hosts
+     * @param resourceCapacity the capacity
+     * @return true if every host in the range has been added with the capacity
+     */
+    public boolean isSameCapacity(int startId, int length, int[] resourceCapacity) {
+        int endId = startId + length;
+        int index = findRange(startId);
+        for (int nextId = startId; nextId < endId; nextId = sameCapacityHostEndIds[index++]) {
+            if (index < 0 || index >= rangeNum || sameCapacityHostStartIds[index] > nextId || sameCapacityHostEndIds[index] <= nextId
+                    || !Arrays.equals(hostCapacity[sameCapacityHostClasses[index]], resourceCapacity)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of capacity classes.
+     * @return the number of different capacities of the hosts
+     */
+    public int getCapacityClassNum() {
+        return classNum;
+    }
+
+    /**
+     * Get the number of hosts.
+     * @return the number of added hosts
+     */
+    public int getHostNum() {
+        return hostNum;
+    }
+
+    /**
+     * Get whether the capacity class of each host is kept for O(1) lookup.
+     * @return true if the dense index is used
+     */
+    public boolean isDenseIndex() {
+        return hostClasses != null;
     }
 
     /**
@@ -113,4 +296,47 @@ public class HostCapacityManager {
     public long getBwCapacitySum() {
         return hostCapacitySum[3];
     }
+
+    /**
+     * Find the last id range whose start id is not greater than the host id.
+     * @param hostId the id of the host
+     * @return the index of the range, -1 if all the ranges start after the host id
+     */
+    private int findRange(int hostId) {
+        int index = Arrays.binarySearch(sameCapacityHostStartIds, 0, rangeNum, hostId);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private void insertRange(int index, int startId, int endId, int capacityClass) {
+        if (rangeNum == sameCapacityHostStartIds.length) {
+            sameCapacityHostStartIds = Arrays.copyOf(sameCapacityHostStartIds, rangeNum * 2);
+            sameCapacityHostEndIds = Arrays.copyOf(sameCapacityHostEndIds, rangeNum * 2);
+            sameCapacityHostClasses = Arrays.copyOf(sameCapacityHostClasses, rangeNum * 2);
+        }
+        System.arraycopy(sameCapacityHostStartIds, index, sameCapacityHostStartIds, index + 1, rangeNum - index);
+        System.arraycopy(sameCapacityHostEndIds, index, sameCapacityHostEndIds, index + 1, rangeNum - index);
+        System.arraycopy(sameCapacityHostClasses, index, sameCapacityHostClasses, index + 1, rangeNum - index);
+        sameCapacityHostStartIds[index] = startId;
+        sameCapacityHostEndIds[index] = endId;
+        sameCapacityHostClasses[index] = capacityClass;
+        rangeNum++;
+    }
+
+    private int getOrAddCapacityClass(int[] resourceCapacity) {
+        List<Integer> key = Arrays.stream(resourceCapacity).boxed().toList();
+        Integer capacityClass = capacityClasses.get(key);
+        if (capacityClass != null) {
+            return capacityClass;
+        }
+
+        if (classNum == hostCapacity.length) {
+            hostCapacity = Arrays.copyOf(hostCapacity, classNum * 2);
+        }
+        hostCapacity[classNum] = resourceCapacity.clone();
+        capacityClasses.put(key, classNum);
+        if (classNum > Short.MAX_VALUE) {
+            hostClasses = null;
+        }
+        return classNum++;
+    }
 }
@@ -0,0 +1,209 @@
+package org.lgdcloudsim.statemanager;
+
+import java.util.Arrays;
+
+/**
+ * An index of the free capacity of the hosts for searching a host that fits an instance in sub-linear time.
+ * It is a blocked max-tree over a {@link HostStateStore}.
+ * <p>
+ * The hosts are grouped into blocks of {@link #BLOCK_SIZE} hosts.
+ * The leaves of the tree are the blocks, and each node records the maximum free CPU and the maximum free RAM of its hosts.
+ * A search skips every subtree whose maximum CPU or RAM is not enough, and scans the hosts of the remaining blocks,
+ * so finding the first fitting host of a range is O(log n) when the fitting hosts are sparse, such as near saturation.
+ * The blocks keep the index small, it takes about one byte per host.
+ * <p>
+ * The index doesn't copy the host states, so {@link #update(int)} must be called after the state of a host is changed,
+ * or {@link #invalidate()} after many hosts are changed, which rebuilds the index when it is used next time.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class HostFreeCapacityIndex {
+    /**
+     * The number of hosts in a leaf block.
+     */
+    public static final int BLOCK_SIZE = 16;
+
+    /**
+     * The host states indexed by this index.
+     */
+    private final HostStateStore hostStates;
+
+    /**
+     * The number of hosts.
+     */
+    private final int hostNum;
+
+    /**
+     * The number of the leaves, which is a power of 2.
+     * The leaf of the block b is the node leafNum + b.
+     */
+    private final int leafNum;
+
+    /**
+     * The maximum free CPU of the hosts under each node.
+     * The root is the node 1, and the children of the node i are the node 2i and 2i+1.
+     */
+    private final int[] maxCpu;
+
+    /**
+     * The maximum free RAM of the hosts under each node.
+     */
+    private final int[] maxRam;
+
+    /**
+     * Whether the index needs to be rebuilt before it is used.
+     */
+    private boolean stale;
+
+    /**
+     * Create an index over the given host states.
+     * The index is built when it is used for the first time.
+     *
+     * @param hostStates the host states
+     */
+    public HostFreeCapacityIndex(HostStateStore hostStates) {
+        this.hostStates = hostStates;
+        this.hostNum = hostStates.getHostNum();
+        int blockNum = Math.max(1, (hostNum + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        this.leafNum = Integer.highestOneBit(blockNum) == blockNum ? blockNum : Integer.highestOneBit(blockNum) << 1;
+        this.maxCpu = new int[leafNum * 2];
+        this.maxRam = new int[leafNum * 2];
+        this.stale = true;
+    }
+
+    private HostFreeCapacityIndex(HostFreeCapacityIndex index, HostStateStore hostStates) {
+        this.hostStates = hostStates;
+        this.hostNum = index.hostNum;
+        this.leafNum = index.leafNum;
+        this.maxCpu = index.maxCpu.clone();
+        this.maxRam = index.maxRam.clone();
+        this.stale = index.stale;
+    }
+
+    /**
+     * Copy the index for a copy of its host states.
+     * It is cheaper than building a new index since the index is much smaller than the host states.
+     *
+     * @param hostStates the copy of the host states, which must have the same content as the indexed host states
+     * @return the copied index over the given host states
+     */
+    public HostFreeCapacityIndex copy(HostStateStore hostStates) {
+        if (hostStates.getHostNum() != hostNum) {
+            throw new IllegalArgumentException("The host states to copy the index for have a different number of hosts");
+        }
+        return new HostFreeCapacityIndex(this, hostStates);
+    }
+
+    /**
+     * Update the index after the state of the host is changed.
+     *
+     * @param hostId the id of the host
+     */
+    public void update(int hostId) {
+        if (stale) {
+            return;
+        }
+        int node = leafNum + hostId / BLOCK_SIZE;
+        updateLeaf(node);
+        for (node >>= 1; node > 0; node >>= 1) {
+            int cpu = Math.max(maxCpu[node * 2], maxCpu[node * 2 + 1]);
+            int ram = Math.max(maxRam[node * 2], maxRam[node * 2 + 1]);
+            if (cpu == maxCpu[node] && ram == maxRam[node]) {
+                break;
+            }
+            maxCpu[node] = cpu;
+            maxRam[node] = ram;
+        }
+    }
+
+    /**
+     * Mark the index to be rebuilt when it is used next time.
+     * It is used after the states of many hosts are changed, such as the initialization of the host states.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Rebuild the index now if it is marked to be rebuilt,
+     * so that {@link #findFirst(int, int, int, int, int, int)} only reads the index until it is changed again.
+     */
+    public void refresh() {
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Find the first host in the range that has enough free resources.
+     *
+     * @param fromHostId the first host id of the range
+     * @param toHostId   the last host id of the range, inclusive
+     * @param cpu        the required cpu
+     * @param ram        the required ram
+     * @param storage    the required storage
+     * @param bw         the required bw
+     * @return the id of the first fitting host, -1 if there is no fitting host in the range
+     */
+    public int findFirst(int fromHostId, int toHostId, int cpu, int ram, int storage, int bw) {
+        fromHostId = Math.max(fromHostId, 0);
+        toHostId = Math.min(toHostId, hostNum - 1);
+        if (fromHostId > toHostId) {
+            return -1;
+        }
+        refresh();
+        return findFirst(1, 0, leafNum - 1, fromHostId / BLOCK_SIZE, toHostId / BLOCK_SIZE,
+                fromHostId, toHostId, cpu, ram, storage, bw);
+    }
+
+    private int findFirst(int node, int nodeFromBlock, int nodeToBlock, int fromBlock, int toBlock,
+                          int fromHostId, int toHostId, int cpu, int ram, int storage, int bw) {
+        if (nodeToBlock < fromBlock || nodeFromBlock > toBlock || maxCpu[node] < cpu || maxRam[node] < ram) {
+            return -1;
+        }
+        if (node >= leafNum) {
+            int end = Math.min(toHostId, nodeFromBlock * BLOCK_SIZE + BLOCK_SIZE - 1);
+            for (int hostId = Math.max(fromHostId, nodeFromBlock * BLOCK_SIZE); hostId <= end; hostId++) {
+                if (hostStates.isSuitable(hostId, cpu, ram, storage, bw)) {
+                    return hostId;
+                }
+            }
+            return -1;
+        }
+        int middleBlock = (nodeFromBlock + nodeToBlock) >>> 1;
+        int hostId = findFirst(node * 2, nodeFromBlock, middleBlock, fromBlock, toBlock, fromHostId, toHostId, cpu, ram, storage, bw);
+        if (hostId >= 0) {
+            return hostId;
+        }
+        return findFirst(node * 2 + 1, middleBlock + 1, nodeToBlock, fromBlock, toBlock, fromHostId, toHostId, cpu, ram, storage, bw);
+    }
+
+    private void rebuild() {
+        Arrays.fill(maxCpu, leafNum, leafNum * 2, Integer.MIN_VALUE);
+        Arrays.fill(maxRam, leafNum, leafNum * 2, Integer.MIN_VALUE);
+        int blockNum = (hostNum + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        for (int block = 0; block < blockNum; block++) {
+            updateLeaf(leafNum + block);
+        }
+        for (int node = leafNum - 1; node > 0; node--) {
+            maxCpu[node] = Math.max(maxCpu[node * 2], maxCpu[node * 2 + 1]);
+            maxRam[node] = Math.max(maxRam[node * 2], maxRam[node * 2 + 1]);
+        }
+        stale = false;
+    }
+
+    private void updateLeaf(int node) {
+        int block = node - leafNum;
+        int start = block * BLOCK_SIZE;
+        int end = start + Math.min(BLOCK_SIZE, hostNum - start);
+        int cpu = Integer.MIN_VALUE;
+        int ram = Integer.MIN_VALUE;
+        for (int hostId = start; hostId < end; hostId++) {
+            cpu = Math.max(cpu, hostStates.get(hostId, 0));
+            ram = Math.max(ram, hostStates.get(hostId, 1));
+        }
+        maxCpu[node] = cpu;
+        maxRam[node] = ram;
+    }
+}
@@ -2,6 +2,8 @@ package org.lgdcloudsim.statemanager;
 
 /**
  * An interface to be implemented by each class that generates the state of a host.
+ * A generator can also be split into independent generators for the chunks of hosts,
+ * so that the hosts can be generated in parallel with the same result, see {@link #split(int)}.
  *
  * @author Anonymous
  * @since LGDCloudSim 1.0
@@ -14,4 +16,25 @@ public interface HostStateGenerator {
      * @return the state of the host. The state includes 4 integers: cpu, ram, storage and bw.
      * */
     int[] generateHostState();
+
+    /**
+     * Generate the state of a host into the given array.
+     *
+     * @param hostState the array to write the 4 integers of the state into: cpu, ram, storage and bw.
+     */
+    default void generateHostState(int[] hostState) {
+        System.arraycopy(generateHostState(), 0, hostState, 0, HostState.STATE_NUM);
+    }
+
+    /**
+     * Get the generator of a chunk of hosts.
+     * The generators of different chunks can be used by different threads at the same time,
+     * and the generator of a chunk generates the same states each time it is got.
+     *
+     * @param chunkIndex the index of the chunk.
+     * @return the generator of the chunk, null if the generator cannot be split.
+     */
+    default HostStateGenerator split(int chunkIndex) {
+        return null;
+    }
 }
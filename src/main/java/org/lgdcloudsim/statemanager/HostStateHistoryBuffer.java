@@ -0,0 +1,239 @@
+package org.lgdcloudsim.statemanager;
+
+import lombok.Getter;
+
+/**
+ * The recent synchronized states of each host, used by the {@link IncrementalPredictionManager}.
+ * An intra-scheduler predicts the state of a host from the states saved every partitionNum syncs,
+ * at the sync counts when the partition of the host was synchronized in its view, see {@link SynStateSimple}.
+ * Therefore, each host has {@link #ringNum} rings, one for each partition, and the state recorded at the sync count c
+ * is kept in the ring c % ringNum together with c, so that the states older than the oldest sync count of a prediction can be skipped.
+ * Each ring keeps the latest {@link #recordNum} states in a primitive array,
+ * and the rings of a host are allocated when the first state of the host is recorded.
+ * The sum and the index-weighted sum of the states in each ring are kept up to date by {@link #add},
+ * so the mean and the linear trend of the recent states are computed in O(1) plus the number of skipped states.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class HostStateHistoryBuffer {
+    /**
+     * The number of the rings of each host, which is the number of partitions.
+     */
+    @Getter
+    private final int ringNum;
+
+    /**
+     * The maximum number of the states kept in each ring.
+     */
+    @Getter
+    private final int recordNum;
+
+    /**
+     * The rings of the states of each host, null if no state of the host has been recorded.
+     * The i-th record of the ring r starts at (r * {@link #recordNum} + i) * {@link HostState#STATE_NUM}.
+     */
+    private final int[][] records;
+
+    /**
+     * The sync counts when the records of each host were recorded, in the same order as the {@link #records}.
+     */
+    private final int[][] synCounts;
+
+    /**
+     * The sums of the states in the rings of each host.
+     * For the ring r, the {@link HostState#STATE_NUM} values from r * 2 * {@link HostState#STATE_NUM} are the sums of each resource,
+     * and the next {@link HostState#STATE_NUM} values are the sums of each resource weighted by its index in the ring,
+     * where the oldest state has the index 0.
+     */
+    private final long[][] sums;
+
+    /**
+     * The number of the states in each ring of each host.
+     */
+    private final int[][] sizes;
+
+    /**
+     * The position of the oldest state in each ring of each host.
+     */
+    private final int[][] heads;
+
+    /**
+     * Create an empty buffer.
+     *
+     * @param hostNum   the number of hosts
+     * @param ringNum   the number of the rings of each host, which is the number of partitions
+     * @param recordNum the maximum number of the states kept in each ring
+     */
+    public HostStateHistoryBuffer(int hostNum, int ringNum, int recordNum) {
+        if (ringNum <= 0) {
+            throw new IllegalArgumentException("ringNum must be greater than 0");
+        }
+        if (recordNum <= 0) {
+            throw new IllegalArgumentException("recordNum must be greater than 0");
+        }
+        this.ringNum = ringNum;
+        this.recordNum = recordNum;
+        this.records = new int[hostNum][];
+        this.synCounts = new int[hostNum][];
+        this.sums = new long[hostNum][];
+        this.sizes = new int[hostNum][];
+        this.heads = new int[hostNum][];
+    }
+
+    /**
+     * Get the ring where the states recorded at the sync count are kept.
+     *
+     * @param synCount the sync count
+     * @return the index of the ring
+     */
+    public int getRing(int synCount) {
+        return synCount % ringNum;
+    }
+
+    /**
+     * Record a synchronized state of the host in the ring of the sync count.
+     * Only the first state recorded at a sync count is kept.
+     * If the ring is full, its oldest state is dropped.
+     *
+     * @param hostId    the id of the host
+     * @param hostState the state of the host
+     * @param synCount  the sync count when the state is synchronized, which is not smaller than the sync counts recorded before
+     */
+    public void add(int hostId, int[] hostState, int synCount) {
+        int[] hostRecords = records[hostId];
+        if (hostRecords == null) {
+            hostRecords = records[hostId] = new int[ringNum * recordNum * HostState.STATE_NUM];
+            synCounts[hostId] = new int[ringNum * recordNum];
+            sums[hostId] = new long[ringNum * HostState.STATE_NUM * 2];
+            sizes[hostId] = new int[ringNum];
+            heads[hostId] = new int[ringNum];
+        }
+        int ring = getRing(synCount);
+        int size = sizes[hostId][ring];
+        if (size > 0 && getSynCount(hostId, ring, size - 1) == synCount) {
+            return;
+        }
+        int head = heads[hostId][ring];
+        int sumOffset = ring * HostState.STATE_NUM * 2;
+        long[] hostSums = sums[hostId];
+        int slot;
+        if (size < recordNum) {
+            slot = ring * recordNum + (head + size) % recordNum;
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                hostSums[sumOffset + HostState.STATE_NUM + i] += (long) size * hostState[i];
+                hostSums[sumOffset + i] += hostState[i];
+            }
+            sizes[hostId][ring] = size + 1;
+        } else {
+            slot = ring * recordNum + head;
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                int oldest = hostRecords[slot * HostState.STATE_NUM + i];
+                hostSums[sumOffset + HostState.STATE_NUM + i] += (long) (recordNum - 1) * hostState[i] - (hostSums[sumOffset + i] - oldest);
+                hostSums[sumOffset + i] += hostState[i] - oldest;
+            }
+            heads[hostId][ring] = (head + 1) % recordNum;
+        }
+        System.arraycopy(hostState, 0, hostRecords, slot * HostState.STATE_NUM, HostState.STATE_NUM);
+        synCounts[hostId][slot] = synCount;
+    }
+
+    /**
+     * Get the number of the states kept in a ring of the host.
+     *
+     * @param hostId the id of the host
+     * @param ring   the index of the ring
+     * @return the number of the states, 0 if no state of the host has been recorded
+     */
+    public int getSize(int hostId, int ring) {
+        return sizes[hostId] == null ? 0 : sizes[hostId][ring];
+    }
+
+    /**
+     * Get the number of the states in a ring of the host that were recorded before the sync count.
+     * They are the oldest states of the ring.
+     *
+     * @param hostId   the id of the host
+     * @param ring     the index of the ring
+     * @param synCount the sync count
+     * @return the number of the states recorded before the sync count
+     */
+    public int countBefore(int hostId, int ring, int synCount) {
+        int size = getSize(hostId, ring);
+        int index = 0;
+        while (index < size && getSynCount(hostId, ring, index) < synCount) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Get the sync count when a kept state of the host was recorded.
+     *
+     * @param hostId the id of the host
+     * @param ring   the index of the ring
+     * @param index  the index of the state in the ring, 0 is the oldest one
+     * @return the sync count of the state
+     */
+    public int getSynCount(int hostId, int ring, int index) {
+        return synCounts[hostId][getSlot(hostId, ring, index)];
+    }
+
+    /**
+     * Get a resource of a kept state of the host.
+     *
+     * @param hostId        the id of the host
+     * @param ring          the index of the ring
+     * @param index         the index of the state in the ring, 0 is the oldest one
+     * @param resourceIndex the index of the resource in {@link HostState}
+     * @return the amount of the resource
+     */
+    public int get(int hostId, int ring, int index, int resourceIndex) {
+        return records[hostId][getSlot(hostId, ring, index) * HostState.STATE_NUM + resourceIndex];
+    }
+
+    /**
+     * Get the sum of a resource of the states in a ring of the host from the given index.
+     *
+     * @param hostId        the id of the host
+     * @param ring          the index of the ring
+     * @param from          the index of the first state to sum
+     * @param resourceIndex the index of the resource in {@link HostState}
+     * @return the sum of the resource
+     */
+    public long getSum(int hostId, int ring, int from, int resourceIndex) {
+        if (sums[hostId] == null) {
+            return 0;
+        }
+        long sum = sums[hostId][ring * HostState.STATE_NUM * 2 + resourceIndex];
+        for (int index = 0; index < from; index++) {
+            sum -= get(hostId, ring, index, resourceIndex);
+        }
+        return sum;
+    }
+
+    /**
+     * Get the sum of a resource of the states in a ring of the host from the given index,
+     * weighted by the index of each state counted from the given index.
+     *
+     * @param hostId        the id of the host
+     * @param ring          the index of the ring
+     * @param from          the index of the first state to sum, whose weight is 0
+     * @param resourceIndex the index of the resource in {@link HostState}
+     * @return the weighted sum of the resource
+     */
+    public long getWeightedSum(int hostId, int ring, int from, int resourceIndex) {
+        if (sums[hostId] == null) {
+            return 0;
+        }
+        long weightedSum = sums[hostId][ring * HostState.STATE_NUM * 2 + HostState.STATE_NUM + resourceIndex];
+        for (int index = 0; index < from; index++) {
+            weightedSum -= (long) index * get(hostId, ring, index, resourceIndex);
+        }
+        return weightedSum - from * getSum(hostId, ring, from, resourceIndex);
+    }
+
+    private int getSlot(int hostId, int ring, int index) {
+        return ring * recordNum + (heads[hostId][ring] + index) % recordNum;
+    }
+}
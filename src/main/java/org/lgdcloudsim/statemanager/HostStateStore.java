@@ -0,0 +1,814 @@
+package org.lgdcloudsim.statemanager;
+
+import org.lgdcloudsim.request.Instance;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A store of the states of all the hosts in a datacenter, {@link HostState#STATE_NUM} ints (cpu, ram, storage, bw) for each host.
+ * <p>
+ * The hosts are split into segments of {@link #SEGMENT_HOST_NUM} hosts, and each segment has its own array.
+ * So the offset of a host is computed inside its segment and never overflows,
+ * a datacenter can have up to {@link Integer#MAX_VALUE} hosts instead of the about 536M hosts of a single int array,
+ * and the states don't need one contiguous allocation of several GB.
+ * <p>
+ * The segments are int arrays on the heap by default, see {@link #onHeap(int)}.
+ * They can also be direct buffers out of the heap, see {@link #offHeap(int)},
+ * which keeps a large datacenter out of the garbage collector's way.
+ * Note that the direct memory is limited by -XX:MaxDirectMemorySize, which is the max heap size by default.
+ * For a datacenter whose host capacities are small, such as the generated homogeneous hosts,
+ * the state of a host can be packed into one long, see {@link #packed(int)}, which takes half the memory.
+ * For a large but lightly loaded datacenter, only the states of the changed hosts can be kept,
+ * and the other hosts answer with their capacities, see {@link #sparse(int, HostCapacityManager)}.
+ * <p>
+ * The store is not thread-safe, which is the same as the {@link StatesManagerSimple} it belongs to,
+ * except that the states of different hosts can be set from different threads if {@link #isConcurrentlyWritable()}.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public abstract class HostStateStore {
+    /**
+     * The log2 of the number of hosts in a segment.
+     */
+    public static final int SEGMENT_SHIFT = 20;
+
+    /**
+     * The number of hosts in a segment.
+     * A segment takes 16MB with {@link HostState#STATE_NUM} ints for each host.
+     */
+    public static final int SEGMENT_HOST_NUM = 1 << SEGMENT_SHIFT;
+
+    /**
+     * The mask to get the index of a host in its segment.
+     */
+    static final int SEGMENT_MASK = SEGMENT_HOST_NUM - 1;
+
+    /**
+     * The max value of a resource in the store created by {@link #packed(int)}.
+     */
+    public static final int MAX_PACKED_VALUE = (1 << 15) - 1;
+
+    /**
+     * The number of hosts.
+     */
+    final int hostNum;
+
+    private HostStateStore(int hostNum) {
+        if (hostNum < 0) {
+            throw new IllegalArgumentException("The number of hosts can't be negative: " + hostNum);
+        }
+        this.hostNum = hostNum;
+    }
+
+    /**
+     * Create a store by type.
+     *
+     * @param type                the type of the store, "heap", "offHeap", "packed" or "sparse"
+     * @param hostNum             the number of hosts
+     * @param hostCapacityManager the capacities of the hosts, which is only used by the "sparse" store
+     * @return the new store
+     */
+    public static HostStateStore create(String type, int hostNum, HostCapacityManager hostCapacityManager) {
+        return switch (type) {
+            case "heap" -> onHeap(hostNum);
+            case "offHeap" -> offHeap(hostNum);
+            case "packed" -> packed(hostNum);
+            case "sparse" -> sparse(hostNum, hostCapacityManager);
+            default -> throw new IllegalArgumentException("Unrecognized host state store type: " + type);
+        };
+    }
+
+    /**
+     * Create a store whose segments are int arrays on the heap.
+     * All the states are 0.
+     *
+     * @param hostNum the number of hosts
+     * @return the new store
+     */
+    public static HostStateStore onHeap(int hostNum) {
+        return new HeapHostStateStore(hostNum);
+    }
+
+    /**
+     * Create a store whose segments are direct buffers out of the heap.
+     * All the states are 0.
+     *
+     * @param hostNum the number of hosts
+     * @return the new store
+     */
+    public static HostStateStore offHeap(int hostNum) {
+        return new OffHeapHostStateStore(hostNum);
+    }
+
+    /**
+     * Create a store which packs the state of a host into one long on the heap.
+     * Each resource of a host must be in [0, {@link #MAX_PACKED_VALUE}],
+     * otherwise an {@link IllegalArgumentException} is thrown when the state is set
+     * and an {@link IllegalStateException} is thrown when the state is changed out of the range.
+     * All the states are 0.
+     *
+     * @param hostNum the number of hosts
+     * @return the new store
+     */
+    public static HostStateStore packed(int hostNum) {
+        return new PackedHostStateStore(hostNum);
+    }
+
+    /**
+     * Create a store which only keeps the states of the changed hosts.
+     * The state of an unchanged host is its capacity in the {@link HostCapacityManager},
+     * or 0 if it has not been added to the {@link HostCapacityManager}, which is the same as the other stores.
+     *
+     * @param hostNum             the number of hosts
+     * @param hostCapacityManager the capacities of the hosts
+     * @return the new store
+     */
+    public static HostStateStore sparse(int hostNum, HostCapacityManager hostCapacityManager) {
+        return new SparseHostStateStore(hostNum, hostCapacityManager);
+    }
+
+    /**
+     * Get the number of hosts.
+     *
+     * @return the number of hosts
+     */
+    public int getHostNum() {
+        return hostNum;
+    }
+
+    /**
+     * Get the total number of ints in the store, which may be larger than {@link Integer#MAX_VALUE}.
+     *
+     * @return the total number of ints
+     */
+    public long getStateNum() {
+        return (long) hostNum * HostState.STATE_NUM;
+    }
+
+    /**
+     * Get a resource of the host.
+     *
+     * @param hostId        the id of the host
+     * @param resourceIndex the index of the resource, 0 for cpu, 1 for ram, 2 for storage and 3 for bw
+     * @return the resource of the host
+     */
+    public abstract int get(int hostId, int resourceIndex);
+
+    /**
+     * Add the delta to a resource of the host.
+     *
+     * @param hostId        the id of the host
+     * @param resourceIndex the index of the resource, 0 for cpu, 1 for ram, 2 for storage and 3 for bw
+     * @param delta         the delta to add
+     */
+    public abstract void add(int hostId, int resourceIndex, int delta);
+
+    /**
+     * Copy the state of the host into the array.
+     *
+     * @param hostId     the id of the host
+     * @param dest       the array to copy the state into
+     * @param destOffset the offset of the state in dest
+     */
+    public abstract void copyTo(int hostId, int[] dest, int destOffset);
+
+    /**
+     * Set the state of the host from the array.
+     *
+     * @param hostId    the id of the host
+     * @param src       the array containing the state of the host
+     * @param srcOffset the offset of the state in src
+     */
+    public abstract void copyFrom(int hostId, int[] src, int srcOffset);
+
+    /**
+     * Set the state of the host from another store with the same number of hosts.
+     *
+     * @param source the store to copy from
+     * @param hostId the id of the host
+     */
+    public abstract void copyHostFrom(HostStateStore source, int hostId);
+
+    /**
+     * Set the states of all the hosts from another store with the same number of hosts.
+     *
+     * @param source the store to copy from
+     */
+    public abstract void copyAllFrom(HostStateStore source);
+
+    /**
+     * Set the states of the hosts in the id range to the same state.
+     *
+     * @param startId the id of the first host
+     * @param length  the number of hosts
+     * @param state   the state of the hosts
+     */
+    public void fill(int startId, int length, int[] state) {
+        for (int hostId = startId; hostId < startId + length; hostId++) {
+            copyFrom(hostId, state, 0);
+        }
+    }
+
+    /**
+     * Whether the states of different hosts can be set by {@link #copyFrom} from different threads at the same time,
+     * which is true if each host has its own place in the segments.
+     *
+     * @return true if the store can be written concurrently for different hosts
+     */
+    public boolean isConcurrentlyWritable() {
+        return true;
+    }
+
+    /**
+     * Create a new store of the same kind with the same states.
+     *
+     * @return the copied store
+     */
+    public abstract HostStateStore copy();
+
+    /**
+     * Whether the host has enough resources.
+     *
+     * @param hostId  the id of the host
+     * @param cpu     the required cpu
+     * @param ram     the required ram
+     * @param storage the required storage
+     * @param bw      the required bw
+     * @return true if the host has enough resources
+     */
+    public boolean isSuitable(int hostId, int cpu, int ram, int storage, int bw) {
+        return get(hostId, 0) >= cpu && get(hostId, 1) >= ram && get(hostId, 2) >= storage && get(hostId, 3) >= bw;
+    }
+
+    /**
+     * Subtract the resources of the instance from the state of the host.
+     *
+     * @param hostId   the id of the host
+     * @param instance the instance
+     */
+    public void allocate(int hostId, Instance instance) {
+        add(hostId, 0, -instance.getCpu());
+        add(hostId, 1, -instance.getRam());
+        add(hostId, 2, -instance.getStorage());
+        add(hostId, 3, -instance.getBw());
+    }
+
+    /**
+     * Add the resources of the instance back to the state of the host.
+     *
+     * @param hostId   the id of the host
+     * @param instance the instance
+     */
+    public void release(int hostId, Instance instance) {
+        add(hostId, 0, instance.getCpu());
+        add(hostId, 1, instance.getRam());
+        add(hostId, 2, instance.getStorage());
+        add(hostId, 3, instance.getBw());
+    }
+
+    /**
+     * Get the state of the host.
+     *
+     * @param hostId the id of the host
+     * @return the state of the host
+     */
+    public HostState getHostState(int hostId) {
+        return new HostState(get(hostId, 0), get(hostId, 1), get(hostId, 2), get(hostId, 3));
+    }
+
+    /**
+     * Copy the states of all the hosts from another store host by host.
+     */
+    void copyHostsFrom(HostStateStore source) {
+        for (int hostId = 0; hostId < hostNum; hostId++) {
+            copyHostFrom(source, hostId);
+        }
+    }
+
+    void checkSameHostNum(HostStateStore source) {
+        if (source.hostNum != hostNum) {
+            throw new IllegalArgumentException("The store to copy from has %d hosts, but %d hosts are expected.".formatted(source.hostNum, hostNum));
+        }
+    }
+
+    /**
+     * Get the number of segments, there is at least one segment even if there is no host.
+     */
+    static int getSegmentNum(int hostNum) {
+        return Math.max(1, (hostNum + SEGMENT_HOST_NUM - 1) >>> SEGMENT_SHIFT);
+    }
+
+    /**
+     * Get the number of ints in the segment.
+     */
+    static int getSegmentLength(int hostNum, int segment) {
+        return Math.min(SEGMENT_HOST_NUM, hostNum - (segment << SEGMENT_SHIFT)) * HostState.STATE_NUM;
+    }
+
+    static int getOffset(int hostId) {
+        return (hostId & SEGMENT_MASK) * HostState.STATE_NUM;
+    }
+
+    /**
+     * The store whose segments are int arrays on the heap.
+     */
+    private static final class HeapHostStateStore extends HostStateStore {
+        private final int[][] segments;
+
+        HeapHostStateStore(int hostNum) {
+            super(hostNum);
+            this.segments = new int[getSegmentNum(hostNum)][];
+            for (int segment = 0; segment < segments.length; segment++) {
+                segments[segment] = new int[getSegmentLength(hostNum, segment)];
+            }
+        }
+
+        @Override
+        public int get(int hostId, int resourceIndex) {
+            return segments[hostId >>> SEGMENT_SHIFT][getOffset(hostId) + resourceIndex];
+        }
+
+        @Override
+        public void add(int hostId, int resourceIndex, int delta) {
+            segments[hostId >>> SEGMENT_SHIFT][getOffset(hostId) + resourceIndex] += delta;
+        }
+
+        @Override
+        public boolean isSuitable(int hostId, int cpu, int ram, int storage, int bw) {
+            int[] segment = segments[hostId >>> SEGMENT_SHIFT];
+            int offset = getOffset(hostId);
+            return segment[offset] >= cpu && segment[offset + 1] >= ram && segment[offset + 2] >= storage && segment[offset + 3] >= bw;
+        }
+
+        @Override
+        public void copyTo(int hostId, int[] dest, int destOffset) {
+            System.arraycopy(segments[hostId >>> SEGMENT_SHIFT], getOffset(hostId), dest, destOffset, HostState.STATE_NUM);
+        }
+
+        @Override
+        public void copyFrom(int hostId, int[] src, int srcOffset) {
+            System.arraycopy(src, srcOffset, segments[hostId >>> SEGMENT_SHIFT], getOffset(hostId), HostState.STATE_NUM);
+        }
+
+        @Override
+        public void copyHostFrom(HostStateStore source, int hostId) {
+            source.copyTo(hostId, segments[hostId >>> SEGMENT_SHIFT], getOffset(hostId));
+        }
+
+        @Override
+        public void copyAllFrom(HostStateStore source) {
+            checkSameHostNum(source);
+            if (source instanceof HeapHostStateStore heapSource) {
+                for (int segment = 0; segment < segments.length; segment++) {
+                    System.arraycopy(heapSource.segments[segment], 0, segments[segment], 0, segments[segment].length);
+                }
+            } else if (source instanceof OffHeapHostStateStore offHeapSource) {
+                for (int segment = 0; segment < segments.length; segment++) {
+                    offHeapSource.segments[segment].get(0, segments[segment]);
+                }
+            } else {
+                copyHostsFrom(source);
+            }
+        }
+
+        @Override
+        public HostStateStore copy() {
+            HeapHostStateStore copied = new HeapHostStateStore(hostNum);
+            copied.copyAllFrom(this);
+            return copied;
+        }
+    }
+
+    /**
+     * The store whose segments are direct buffers out of the heap.
+     */
+    private static final class OffHeapHostStateStore extends HostStateStore {
+        private final IntBuffer[] segments;
+
+        OffHeapHostStateStore(int hostNum) {
+            super(hostNum);
+            this.segments = new IntBuffer[getSegmentNum(hostNum)];
+            for (int segment = 0; segment < segments.length; segment++) {
+                segments[segment] = ByteBuffer.allocateDirect(getSegmentLength(hostNum, segment) * Integer.BYTES)
+                        .order(ByteOrder.nativeOrder()).asIntBuffer();
+            }
+        }
+
+        @Override
+        public int get(int hostId, int resourceIndex) {
+            return segments[hostId >>> SEGMENT_SHIFT].get(getOffset(hostId) + resourceIndex);
+        }
+
+        @Override
+        public void add(int hostId, int resourceIndex, int delta) {
+            IntBuffer segment = segments[hostId >>> SEGMENT_SHIFT];
+            int offset = getOffset(hostId) + resourceIndex;
+            segment.put(offset, segment.get(offset) + delta);
+        }
+
+        @Override
+        public void copyTo(int hostId, int[] dest, int destOffset) {
+            segments[hostId >>> SEGMENT_SHIFT].get(getOffset(hostId), dest, destOffset, HostState.STATE_NUM);
+        }
+
+        @Override
+        public void copyFrom(int hostId, int[] src, int srcOffset) {
+            segments[hostId >>> SEGMENT_SHIFT].put(getOffset(hostId), src, srcOffset, HostState.STATE_NUM);
+        }
+
+        @Override
+        public void copyHostFrom(HostStateStore source, int hostId) {
+            IntBuffer segment = segments[hostId >>> SEGMENT_SHIFT];
+            int offset = getOffset(hostId);
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                segment.put(offset + i, source.get(hostId, i));
+            }
+        }
+
+        @Override
+        public void copyAllFrom(HostStateStore source) {
+            checkSameHostNum(source);
+            if (source instanceof OffHeapHostStateStore offHeapSource) {
+                for (int segment = 0; segment < segments.length; segment++) {
+                    segments[segment].put(0, offHeapSource.segments[segment], 0, segments[segment].capacity());
+                }
+            } else if (source instanceof HeapHostStateStore heapSource) {
+                for (int segment = 0; segment < segments.length; segment++) {
+                    segments[segment].put(0, heapSource.segments[segment]);
+                }
+            } else {
+                copyHostsFrom(source);
+            }
+        }
+
+        @Override
+        public HostStateStore copy() {
+            OffHeapHostStateStore copied = new OffHeapHostStateStore(hostNum);
+            copied.copyAllFrom(this);
+            return copied;
+        }
+    }
+
+    /**
+     * The store which packs the state of a host into one long on the heap.
+     * Each resource takes a lane of 16 bits, the lower 15 bits are the value and the highest bit is always 0.
+     * So whether a host is suitable is checked with a single subtraction of the packed required resources:
+     * the highest bit of a lane keeps 1 after the subtraction with the highest bits set if and only if the resource is enough.
+     */
+    private static final class PackedHostStateStore extends HostStateStore {
+        private static final int LANE_BITS = 16;
+
+        private static final long LANE_MASK = 0xFFFFL;
+
+        private static final long GUARD_BITS = 0x8000_8000_8000_8000L;
+
+        private final long[][] segments;
+
+        PackedHostStateStore(int hostNum) {
+            super(hostNum);
+            this.segments = new long[getSegmentNum(hostNum)][];
+            for (int segment = 0; segment < segments.length; segment++) {
+                segments[segment] = new long[getSegmentLength(hostNum, segment) / HostState.STATE_NUM];
+            }
+        }
+
+        @Override
+        public int get(int hostId, int resourceIndex) {
+            return (int) ((segments[hostId >>> SEGMENT_SHIFT][hostId & SEGMENT_MASK] >>> (resourceIndex * LANE_BITS)) & LANE_MASK);
+        }
+
+        @Override
+        public void add(int hostId, int resourceIndex, int delta) {
+            long[] segment = segments[hostId >>> SEGMENT_SHIFT];
+            int index = hostId & SEGMENT_MASK;
+            int shift = resourceIndex * LANE_BITS;
+            int value = (int) ((segment[index] >>> shift) & LANE_MASK) + delta;
+            if (value < 0 || value > MAX_PACKED_VALUE) {
+                throw new IllegalStateException("The resource %d of host %d becomes %d, which can't be packed.".formatted(resourceIndex, hostId, value));
+            }
+            segment[index] = (segment[index] & ~(LANE_MASK << shift)) | ((long) value << shift);
+        }
+
+        @Override
+        public boolean isSuitable(int hostId, int cpu, int ram, int storage, int bw) {
+            if (((cpu | ram | storage | bw) & ~MAX_PACKED_VALUE) != 0) {
+                return super.isSuitable(hostId, cpu, ram, storage, bw);
+            }
+            long word = segments[hostId >>> SEGMENT_SHIFT][hostId & SEGMENT_MASK];
+            return (((word | GUARD_BITS) - pack(cpu, ram, storage, bw)) & GUARD_BITS) == GUARD_BITS;
+        }
+
+        @Override
+        public void copyTo(int hostId, int[] dest, int destOffset) {
+            long word = segments[hostId >>> SEGMENT_SHIFT][hostId & SEGMENT_MASK];
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                dest[destOffset + i] = (int) ((word >>> (i * LANE_BITS)) & LANE_MASK);
+            }
+        }
+
+        @Override
+        public void copyFrom(int hostId, int[] src, int srcOffset) {
+            segments[hostId >>> SEGMENT_SHIFT][hostId & SEGMENT_MASK] = packChecked(hostId, src[srcOffset], src[srcOffset + 1], src[srcOffset + 2], src[srcOffset + 3]);
+        }
+
+        @Override
+        public void copyHostFrom(HostStateStore source, int hostId) {
+            if (source instanceof PackedHostStateStore packedSource) {
+                segments[hostId >>> SEGMENT_SHIFT][hostId & SEGMENT_MASK] = packedSource.segments[hostId >>> SEGMENT_SHIFT][hostId & SEGMENT_MASK];
+            } else {
+                segments[hostId >>> SEGMENT_SHIFT][hostId & SEGMENT_MASK] = packChecked(hostId, source.get(hostId, 0), source.get(hostId, 1), source.get(hostId, 2), source.get(hostId, 3));
+            }
+        }
+
+        @Override
+        public void copyAllFrom(HostStateStore source) {
+            checkSameHostNum(source);
+            if (source instanceof PackedHostStateStore packedSource) {
+                for (int segment = 0; segment < segments.length; segment++) {
+                    System.arraycopy(packedSource.segments[segment], 0, segments[segment], 0, segments[segment].length);
+                }
+            } else {
+                copyHostsFrom(source);
+            }
+        }
+
+        @Override
+        public HostStateStore copy() {
+            PackedHostStateStore copied = new PackedHostStateStore(hostNum);
+            copied.copyAllFrom(this);
+            return copied;
+        }
+
+        private static long pack(int cpu, int ram, int storage, int bw) {
+            return cpu | ((long) ram << LANE_BITS) | ((long) storage << (2 * LANE_BITS)) | ((long) bw << (3 * LANE_BITS));
+        }
+
+        private static long packChecked(int hostId, int cpu, int ram, int storage, int bw) {
+            if (((cpu | ram | storage | bw) & ~MAX_PACKED_VALUE) != 0) {
+                throw new IllegalArgumentException("The state (%d, %d, %d, %d) of host %d can't be packed, each resource must be in [0, %d]."
+                        .formatted(cpu, ram, storage, bw, hostId, MAX_PACKED_VALUE));
+            }
+            return pack(cpu, ram, storage, bw);
+        }
+    }
+
+    /**
+     * The store which only keeps the states of the changed hosts.
+     * A bitmap records whether each host is changed, and the states of the changed hosts are kept in chunks of int arrays.
+     * The slot of a changed host in the chunks is found by an open addressing table from its host id.
+     * The other hosts answer with their capacities in the {@link HostCapacityManager} without any lookup in the table.
+     * A changed host stays changed even if its state is back to its capacity.
+     */
+    static final class SparseHostStateStore extends HostStateStore {
+        private static final int CHUNK_SHIFT = 12;
+
+        private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+        private static final int MAX_TABLE_CAPACITY = 1 << 30;
+
+        private static final int[] ZERO_STATE = new int[HostState.STATE_NUM];
+
+        private final HostCapacityManager hostCapacityManager;
+
+        /**
+         * Whether each host is changed, one bit for each host.
+         */
+        private long[] changedHosts;
+
+        /**
+         * The host ids in the open addressing table, -1 for the empty entries.
+         */
+        private int[] tableHostIds;
+
+        /**
+         * The slots of the hosts in the open addressing table.
+         */
+        private int[] tableSlots;
+
+        /**
+         * The states of the changed hosts, {@link HostState#STATE_NUM} ints for each slot.
+         */
+        private int[][] chunks;
+
+        /**
+         * The number of the changed hosts, which is also the next slot.
+         */
+        private int changedHostNum;
+
+        private final int[] stateBuffer = new int[HostState.STATE_NUM];
+
+        SparseHostStateStore(int hostNum, HostCapacityManager hostCapacityManager) {
+            super(hostNum);
+            this.hostCapacityManager = hostCapacityManager;
+            this.changedHosts = new long[(int) (((long) hostNum + Long.SIZE - 1) / Long.SIZE)];
+            this.tableHostIds = newTable(16);
+            this.tableSlots = new int[16];
+            this.chunks = new int[0][];
+        }
+
+        /**
+         * The changed hosts share a hash table, so setting their states from different threads is not safe.
+         */
+        @Override
+        public boolean isConcurrentlyWritable() {
+            return false;
+        }
+
+        /**
+         * Get the number of the changed hosts whose states are kept.
+         *
+         * @return the number of the changed hosts
+         */
+        int getChangedHostNum() {
+            return changedHostNum;
+        }
+
+        @Override
+        public int get(int hostId, int resourceIndex) {
+            if (isChanged(hostId)) {
+                int slot = findSlot(hostId);
+                return chunks[slot >>> CHUNK_SHIFT][(slot & CHUNK_MASK) * HostState.STATE_NUM + resourceIndex];
+            }
+            return getCapacity(hostId)[resourceIndex];
+        }
+
+        @Override
+        public void add(int hostId, int resourceIndex, int delta) {
+            int slot = isChanged(hostId) ? findSlot(hostId) : addChangedHost(hostId);
+            chunks[slot >>> CHUNK_SHIFT][(slot & CHUNK_MASK) * HostState.STATE_NUM + resourceIndex] += delta;
+        }
+
+        @Override
+        public boolean isSuitable(int hostId, int cpu, int ram, int storage, int bw) {
+            int[] states;
+            int offset;
+            if (isChanged(hostId)) {
+                int slot = findSlot(hostId);
+                states = chunks[slot >>> CHUNK_SHIFT];
+                offset = (slot & CHUNK_MASK) * HostState.STATE_NUM;
+            } else {
+                states = getCapacity(hostId);
+                offset = 0;
+            }
+            return states[offset] >= cpu && states[offset + 1] >= ram && states[offset + 2] >= storage && states[offset + 3] >= bw;
+        }
+
+        @Override
+        public void copyTo(int hostId, int[] dest, int destOffset) {
+            if (isChanged(hostId)) {
+                int slot = findSlot(hostId);
+                System.arraycopy(chunks[slot >>> CHUNK_SHIFT], (slot & CHUNK_MASK) * HostState.STATE_NUM, dest, destOffset, HostState.STATE_NUM);
+            } else {
+                System.arraycopy(getCapacity(hostId), 0, dest, destOffset, HostState.STATE_NUM);
+            }
+        }
+
+        /**
+         * Set the state of the host, and the host is not changed if the state is the same as its capacity.
+         */
+        @Override
+        public void copyFrom(int hostId, int[] src, int srcOffset) {
+            int slot;
+            if (isChanged(hostId)) {
+                slot = findSlot(hostId);
+            } else if (Arrays.equals(getCapacity(hostId), 0, HostState.STATE_NUM, src, srcOffset, srcOffset + HostState.STATE_NUM)) {
+                return;
+            } else {
+                slot = addChangedHost(hostId);
+            }
+            System.arraycopy(src, srcOffset, chunks[slot >>> CHUNK_SHIFT], (slot & CHUNK_MASK) * HostState.STATE_NUM, HostState.STATE_NUM);
+        }
+
+        @Override
+        public void copyHostFrom(HostStateStore source, int hostId) {
+            source.copyTo(hostId, stateBuffer, 0);
+            copyFrom(hostId, stateBuffer, 0);
+        }
+
+        @Override
+        public void copyAllFrom(HostStateStore source) {
+            checkSameHostNum(source);
+            if (source instanceof SparseHostStateStore sparseSource && sparseSource.hostCapacityManager == hostCapacityManager) {
+                changedHosts = sparseSource.changedHosts.clone();
+                tableHostIds = sparseSource.tableHostIds.clone();
+                tableSlots = sparseSource.tableSlots.clone();
+                chunks = new int[sparseSource.chunks.length][];
+                for (int chunk = 0; chunk < chunks.length && sparseSource.chunks[chunk] != null; chunk++) {
+                    chunks[chunk] = sparseSource.chunks[chunk].clone();
+                }
+                changedHostNum = sparseSource.changedHostNum;
+            } else {
+                copyHostsFrom(source);
+            }
+        }
+
+        @Override
+        public HostStateStore copy() {
+            SparseHostStateStore copied = new SparseHostStateStore(hostNum, hostCapacityManager);
+            copied.copyAllFrom(this);
+            return copied;
+        }
+
+        /**
+         * If all the hosts in the range have the state as their capacity, only the changed hosts in the range are set.
+         */
+        @Override
+        public void fill(int startId, int length, int[] state) {
+            if (length <= 0 || !hostCapacityManager.isSameCapacity(startId, length, state)) {
+                super.fill(startId, length, state);
+                return;
+            }
+            int endId = startId + length;
+            for (int wordIndex = startId >>> 6; wordIndex <= (endId - 1) >>> 6; wordIndex++) {
+                for (long word = changedHosts[wordIndex]; word != 0; word &= word - 1) {
+                    int hostId = wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+                    if (hostId >= startId && hostId < endId) {
+                        int slot = findSlot(hostId);
+                        System.arraycopy(state, 0, chunks[slot >>> CHUNK_SHIFT], (slot & CHUNK_MASK) * HostState.STATE_NUM, HostState.STATE_NUM);
+                    }
+                }
+            }
+        }
+
+        private boolean isChanged(int hostId) {
+            return (changedHosts[hostId >>> 6] & (1L << hostId)) != 0;
+        }
+
+        private int[] getCapacity(int hostId) {
+            int capacityClass = hostCapacityManager.findCapacityClass(hostId);
+            return capacityClass < 0 ? ZERO_STATE : hostCapacityManager.getClassCapacity(capacityClass);
+        }
+
+        private int findSlot(int hostId) {
+            int mask = tableHostIds.length - 1;
+            int index = hash(hostId) & mask;
+            while (tableHostIds[index] != hostId) {
+                index = (index + 1) & mask;
+            }
+            return tableSlots[index];
+        }
+
+        /**
+         * Add the host to the changed hosts with its capacity as its state.
+         *
+         * @return the slot of the host
+         */
+        private int addChangedHost(int hostId) {
+            if ((changedHostNum + 1L) * 4 > tableHostIds.length * 3L) {
+                if (tableHostIds.length == MAX_TABLE_CAPACITY) {
+                    throw new IllegalStateException("Too many changed hosts for the sparse host state store: " + changedHostNum);
+                }
+                resizeTable(tableHostIds.length * 2);
+            }
+            int slot = changedHostNum++;
+            putSlot(hostId, slot);
+            int chunk = slot >>> CHUNK_SHIFT;
+            if (chunk == chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(4, chunks.length * 2));
+            }
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new int[(CHUNK_MASK + 1) * HostState.STATE_NUM];
+            }
+            System.arraycopy(getCapacity(hostId), 0, chunks[chunk], (slot & CHUNK_MASK) * HostState.STATE_NUM, HostState.STATE_NUM);
+            changedHosts[hostId >>> 6] |= 1L << hostId;
+            return slot;
+        }
+
+        private void putSlot(int hostId, int slot) {
+            int mask = tableHostIds.length - 1;
+            int index = hash(hostId) & mask;
+            while (tableHostIds[index] != -1) {
+                index = (index + 1) & mask;
+            }
+            tableHostIds[index] = hostId;
+            tableSlots[index] = slot;
+        }
+
+        private void resizeTable(int capacity) {
+            int[] oldHostIds = tableHostIds;
+            int[] oldSlots = tableSlots;
+            tableHostIds = newTable(capacity);
+            tableSlots = new int[capacity];
+            for (int i = 0; i < oldHostIds.length; i++) {
+                if (oldHostIds[i] != -1) {
+                    putSlot(oldHostIds[i], oldSlots[i]);
+                }
+            }
+        }
+
+        private static int[] newTable(int capacity) {
+            int[] table = new int[capacity];
+            Arrays.fill(table, -1);
+            return table;
+        }
+
+        private static int hash(int hostId) {
+            int hash = hostId * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
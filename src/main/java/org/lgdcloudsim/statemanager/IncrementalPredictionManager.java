@@ -0,0 +1,72 @@
+package org.lgdcloudsim.statemanager;
+
+/**
+ * The base class of the prediction managers that record the synchronized states of the hosts incrementally.
+ * The latest states of each host are kept in a {@link HostStateHistoryBuffer} when they are synchronized,
+ * so predicting the state of a host neither walks the synchronization epochs nor builds a list of histories.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public abstract class IncrementalPredictionManager implements PredictionManager {
+    /**
+     * The recent synchronized states of the hosts, null before {@link #initHostStateHistory(int, int, int)} is called.
+     */
+    HostStateHistoryBuffer hostStateHistories;
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    public void initHostStateHistory(int hostNum, int partitionNum, int predictRecordNum) {
+        hostStateHistories = new HostStateHistoryBuffer(hostNum, partitionNum, predictRecordNum);
+    }
+
+    /**
+     * Record the state of the host, unless a state of the host has been recorded at the sync count,
+     * since only the state when the partition was synchronized is kept for each sync count.
+     */
+    @Override
+    public void recordHostState(int hostId, int[] hostState, int synCount) {
+        hostStateHistories.add(hostId, hostState, synCount);
+    }
+
+    /**
+     * Predict from the states recorded at the oldest sync count and every partitionNum syncs after it,
+     * which are the states that {@link SynStateSimple} reads from the sync epochs for a list-based prediction manager.
+     */
+    @Override
+    public int[] predictHostState(int hostId, int oldestSynCount) {
+        if (hostStateHistories == null) {
+            return null;
+        }
+        int ring = hostStateHistories.getRing(oldestSynCount);
+        int from = hostStateHistories.countBefore(hostId, ring, oldestSynCount);
+        if (from == hostStateHistories.getSize(hostId, ring)) {
+            return null;
+        }
+        return predictRecordedHostState(hostId, ring, from);
+    }
+
+    /**
+     * Predict the state of a host from the states in a ring of the {@link #hostStateHistories}.
+     *
+     * @param hostId the id of the host.
+     * @param ring   the index of the ring.
+     * @param from   the index of the oldest state in the ring to predict from, which is smaller than the size of the ring.
+     * @return the predicted state of the host.
+     */
+    protected abstract int[] predictRecordedHostState(int hostId, int ring, int from);
+
+    /**
+     * Convert a predicted amount of resource to a valid one.
+     *
+     * @param value the predicted amount of resource.
+     * @return the rounded amount, which is not negative.
+     */
+    static int toResource(double value) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(value)));
+    }
+}
@@ -64,4 +64,23 @@ public class IsomorphicHostStateGenerator implements HostStateGenerator {
         hostStates[3] = bw;
         return hostStates;
     }
+
+    @Override
+    public void generateHostState(int[] hostState) {
+        hostState[0] = cpu;
+        hostState[1] = ram;
+        hostState[2] = storage;
+        hostState[3] = bw;
+    }
+
+    /**
+     * All the hosts have the same state, so the generator itself is used for every chunk.
+     *
+     * @param chunkIndex the index of the chunk.
+     * @return the generator itself.
+     */
+    @Override
+    public HostStateGenerator split(int chunkIndex) {
+        return this;
+    }
 }
@@ -0,0 +1,287 @@
+package org.lgdcloudsim.statemanager;
+
+import java.util.Arrays;
+
+/**
+ * A primitive store of the host states saved for the partition synchronization, see {@link StatesManagerSimple}.
+ * After every partition synchronization, a new sync epoch starts in every partition,
+ * and the state of a host is saved into the latest epoch of its partition before its first change in the epoch.
+ * The intra-schedulers read the state of a host from the epochs after the last synchronization of its partition.
+ * <p>
+ * Each partition has a ring of epochs indexed by the partition sync count.
+ * Each epoch is an open-addressing hash table from the host id to an offset in its int arena,
+ * where the {@link HostState#STATE_NUM} ints of the state are stored.
+ * The slots of the hash table are stamped with the sync count of the epoch,
+ * so an expired epoch is reused by changing its sync count without clearing or allocating anything.
+ * Saving and reading a host state only copies ints, so the store only allocates when an epoch grows larger than ever before.
+ * <p>
+ * It is the "epoch" type of {@link SynStateStore}.
+ * The store is not thread-safe, which is the same as the {@link StatesManagerSimple} it belongs to.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class PartitionSynStateStore implements SynStateStore {
+    /**
+     * The index of each partition in the {@link #epochRings}.
+     * The partition id is the index of the array.
+     */
+    private final int[] partitionIndexes;
+
+    /**
+     * The ring of the epochs of each partition.
+     * The epoch of the sync count c is at index c % ringSize.
+     */
+    private Epoch[][] epochRings;
+
+    /**
+     * The latest partition sync count.
+     */
+    private int latestSynCount;
+
+    /**
+     * The number of the latest epochs that are kept, the older epochs are expired.
+     */
+    private int retainedEpochNum;
+
+    /**
+     * Create a new store with the first epoch of the sync count 0 in every partition.
+     *
+     * @param partitionRangesManager the partition ranges manager of the datacenter
+     * @param retainedEpochNum       the number of the latest epochs to keep
+     */
+    public PartitionSynStateStore(PartitionRangesManager partitionRangesManager, int retainedEpochNum) {
+        int[] partitionIds = partitionRangesManager.getPartitionIds();
+        int maxPartitionId = Arrays.stream(partitionIds).max().orElse(-1);
+        this.partitionIndexes = new int[maxPartitionId + 1];
+        Arrays.fill(partitionIndexes, -1);
+        for (int i = 0; i < partitionIds.length; i++) {
+            partitionIndexes[partitionIds[i]] = i;
+        }
+        this.retainedEpochNum = Math.max(1, retainedEpochNum);
+        clear();
+    }
+
+    /**
+     * Drop all the epochs and restart from the sync count 0.
+     * The epochs are created again because the stamps of their slots are only valid for increasing sync counts.
+     */
+    @Override
+    public void clear() {
+        epochRings = new Epoch[epochRingNum()][retainedEpochNum];
+        latestSynCount = 0;
+        startEpochs(0);
+    }
+
+    /**
+     * Start a new epoch in every partition after a partition synchronization.
+     * The epochs older than the latest retainedEpochNum epochs are expired.
+     *
+     * @param synCount         the new partition sync count, which must be larger than the latest one
+     * @param retainedEpochNum the number of the latest epochs to keep
+     */
+    @Override
+    public void startEpoch(int synCount, int retainedEpochNum) {
+        if (synCount <= latestSynCount) {
+            throw new IllegalArgumentException("The sync count " + synCount + " is not larger than the latest sync count " + latestSynCount);
+        }
+        latestSynCount = synCount;
+        this.retainedEpochNum = Math.max(1, retainedEpochNum);
+        if (epochRings.length > 0 && this.retainedEpochNum > epochRings[0].length) {
+            growRings(this.retainedEpochNum);
+        }
+        startEpochs(synCount);
+    }
+
+    /**
+     * Save the state of a host into the latest epoch of its partition if it has not been saved in the epoch.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @param hostStates  the array containing the state of the host
+     * @param offset      the offset of the state in hostStates
+     * @return true if the state is saved, false if the state of the host has been saved in the epoch
+     */
+    @Override
+    public boolean saveIfAbsent(int partitionId, int hostId, int[] hostStates, int offset) {
+        return getEpoch(partitionId, latestSynCount).putIfAbsent(hostId, hostStates, offset);
+    }
+
+    /**
+     * Copy the state of a host saved in an epoch.
+     *
+     * @param partitionId the partition id of the host
+     * @param synCount    the sync count of the epoch
+     * @param hostId      the id of the host
+     * @param hostState   the array to copy the state into
+     * @return true if the epoch is kept and the state of the host is saved in it, false otherwise
+     */
+    @Override
+    public boolean copyState(int partitionId, int synCount, int hostId, int[] hostState) {
+        if (synCount > latestSynCount || synCount <= latestSynCount - retainedEpochNum || synCount < 0) {
+            return false;
+        }
+        Epoch epoch = getEpoch(partitionId, synCount);
+        if (epoch == null || epoch.synCount != synCount) {
+            return false;
+        }
+        int stateOffset = epoch.get(hostId);
+        if (stateOffset < 0) {
+            return false;
+        }
+        System.arraycopy(epoch.arena, stateOffset, hostState, 0, HostState.STATE_NUM);
+        return true;
+    }
+
+    /**
+     * Get the number of host states saved in an epoch.
+     *
+     * @param partitionId the partition id
+     * @param synCount    the sync count of the epoch
+     * @return the number of saved host states, 0 if the epoch is expired
+     */
+    public int getSavedNum(int partitionId, int synCount) {
+        if (synCount > latestSynCount || synCount <= latestSynCount - retainedEpochNum || synCount < 0) {
+            return 0;
+        }
+        Epoch epoch = getEpoch(partitionId, synCount);
+        return epoch != null && epoch.synCount == synCount ? epoch.size : 0;
+    }
+
+    private int epochRingNum() {
+        return (int) Arrays.stream(partitionIndexes).filter(index -> index >= 0).count();
+    }
+
+    private Epoch getEpoch(int partitionId, int synCount) {
+        Epoch[] epochRing = epochRings[partitionIndexes[partitionId]];
+        return epochRing[synCount % epochRing.length];
+    }
+
+    private void startEpochs(int synCount) {
+        for (Epoch[] epochRing : epochRings) {
+            int index = synCount % epochRing.length;
+            if (epochRing[index] == null) {
+                epochRing[index] = new Epoch();
+            }
+            epochRing[index].reset(synCount);
+        }
+    }
+
+    private void growRings(int ringSize) {
+        Epoch[][] newEpochRings = new Epoch[epochRings.length][ringSize];
+        for (int i = 0; i < epochRings.length; i++) {
+            for (Epoch epoch : epochRings[i]) {
+                if (epoch != null && epoch.synCount >= 0 && epoch.synCount > latestSynCount - ringSize) {
+                    newEpochRings[i][epoch.synCount % ringSize] = epoch;
+                }
+            }
+        }
+        epochRings = newEpochRings;
+    }
+
+    /**
+     * The host states saved in a partition during a sync epoch.
+     */
+    private static final class Epoch {
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * The sync count of the epoch.
+         * A slot is used only if its stamp is the same as the sync count.
+         */
+        private int synCount = -1;
+
+        private int[] stamps;
+        private int[] keys;
+        private int[] offsets;
+
+        /**
+         * The saved states, {@link HostState#STATE_NUM} ints for each host.
+         */
+        private int[] arena;
+
+        /**
+         * The number of saved hosts.
+         */
+        private int size;
+
+        void reset(int synCount) {
+            this.synCount = synCount;
+            this.size = 0;
+        }
+
+        int get(int hostId) {
+            if (size == 0) {
+                return -1;
+            }
+            int mask = keys.length - 1;
+            for (int slot = hash(hostId) & mask; stamps[slot] == synCount; slot = (slot + 1) & mask) {
+                if (keys[slot] == hostId) {
+                    return offsets[slot];
+                }
+            }
+            return -1;
+        }
+
+        boolean putIfAbsent(int hostId, int[] hostStates, int offset) {
+            if (keys == null) {
+                allocate(INITIAL_CAPACITY);
+            } else if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+
+            int mask = keys.length - 1;
+            int slot = hash(hostId) & mask;
+            for (; stamps[slot] == synCount; slot = (slot + 1) & mask) {
+                if (keys[slot] == hostId) {
+                    return false;
+                }
+            }
+
+            int stateOffset = size * HostState.STATE_NUM;
+            if (stateOffset + HostState.STATE_NUM > arena.length) {
+                arena = Arrays.copyOf(arena, arena.length * 2);
+            }
+            System.arraycopy(hostStates, offset, arena, stateOffset, HostState.STATE_NUM);
+            stamps[slot] = synCount;
+            keys[slot] = hostId;
+            offsets[slot] = stateOffset;
+            size++;
+            return true;
+        }
+
+        private void allocate(int capacity) {
+            stamps = new int[capacity];
+            Arrays.fill(stamps, Integer.MIN_VALUE);
+            keys = new int[capacity];
+            offsets = new int[capacity];
+            if (arena == null) {
+                arena = new int[capacity / 2 * HostState.STATE_NUM];
+            }
+        }
+
+        private void rehash(int capacity) {
+            int[] oldStamps = stamps;
+            int[] oldKeys = keys;
+            int[] oldOffsets = offsets;
+            allocate(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldStamps[i] == synCount) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (stamps[slot] == synCount) {
+                        slot = (slot + 1) & mask;
+                    }
+                    stamps[slot] = synCount;
+                    keys[slot] = oldKeys[i];
+                    offsets[slot] = oldOffsets[i];
+                }
+            }
+        }
+
+        private static int hash(int hostId) {
+            int h = hostId * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
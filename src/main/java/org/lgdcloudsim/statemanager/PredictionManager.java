@@ -4,6 +4,9 @@ import java.util.List;
 
 /**
  * An interface to be implemented by each class that predicts the state of a host.
+ * A prediction manager predicts from a list of the histories of the host by default.
+ * An incremental prediction manager also records the synchronized states of the hosts when they are synchronized,
+ * and predicts the state of a host from its own records, see {@link IncrementalPredictionManager}.
  *
  * @author Anonymous
  * @since LGDCloudSim 1.0
@@ -16,4 +19,45 @@ public interface PredictionManager {
      * @return the predicted state of the host.the state includes 4 integers: cpu, ram, storage and bw.
      * */
     int[] predictHostState(List<HostStateHistory> hostStateHistories);
+
+    /**
+     * Whether the prediction manager records the synchronized states itself
+     * and predicts by {@link #predictHostState(int, int)}.
+     *
+     * @return true if the prediction manager is incremental.
+     */
+    default boolean isIncremental() {
+        return false;
+    }
+
+    /**
+     * Initialize the records of the synchronized states, which drops all the recorded states.
+     *
+     * @param hostNum          the number of hosts.
+     * @param partitionNum     the number of partitions, a partition is synchronized every partitionNum syncs.
+     * @param predictRecordNum the number of the latest states of each partition synchronization recorded for each host.
+     */
+    default void initHostStateHistory(int hostNum, int partitionNum, int predictRecordNum) {
+    }
+
+    /**
+     * Record the state of the host when it is synchronized.
+     *
+     * @param hostId    the id of the host.
+     * @param hostState the synchronized state of the host.
+     * @param synCount  the sync count when the state is synchronized.
+     */
+    default void recordHostState(int hostId, int[] hostState, int synCount) {
+    }
+
+    /**
+     * Predict the state of a host from the recorded states.
+     *
+     * @param hostId         the id of the host.
+     * @param oldestSynCount the oldest sync count that the recorded states can be used from.
+     * @return the predicted state of the host, null if no state has been recorded since the oldest sync count.
+     */
+    default int[] predictHostState(int hostId, int oldestSynCount) {
+        return null;
+    }
 }
@@ -0,0 +1,83 @@
+package org.lgdcloudsim.statemanager;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A class to predict the state of a host by the exponentially weighted moving average of its synchronized states.
+ * The average starts from the oldest state and is updated with each newer state as alpha * state + (1 - alpha) * average.
+ * It is computed from the states kept in the {@link HostStateHistoryBuffer}, which are at most predictRecordNum,
+ * so the prediction neither walks the sync epochs nor allocates a list.
+ * This class extends the class {@link IncrementalPredictionManager}.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class PredictionManagerEwma extends IncrementalPredictionManager {
+    /**
+     * The default weight of the latest state.
+     */
+    public static final double DEFAULT_ALPHA = 0.5;
+
+    /**
+     * The weight of the latest state, in (0, 1].
+     */
+    @Getter
+    private final double alpha;
+
+    /**
+     * Create a prediction manager with the {@link #DEFAULT_ALPHA}.
+     */
+    public PredictionManagerEwma() {
+        this(DEFAULT_ALPHA);
+    }
+
+    /**
+     * Create a prediction manager with the given weight of the latest state.
+     *
+     * @param alpha the weight of the latest state, in (0, 1].
+     */
+    public PredictionManagerEwma(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+    }
+
+    @Override
+    public int[] predictHostState(List<HostStateHistory> hostStateHistories) {
+        double[] average = new double[HostState.STATE_NUM];
+        boolean first = true;
+        for (HostStateHistory hostStateHistory : hostStateHistories) {
+            int[] hostState = hostStateHistory.getStateArray();
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                average[i] = first ? hostState[i] : alpha * hostState[i] + (1 - alpha) * average[i];
+            }
+            first = false;
+        }
+        return toHostState(average);
+    }
+
+    @Override
+    protected int[] predictRecordedHostState(int hostId, int ring, int from) {
+        double[] average = new double[HostState.STATE_NUM];
+        for (int i = 0; i < HostState.STATE_NUM; i++) {
+            average[i] = hostStateHistories.get(hostId, ring, from, i);
+        }
+        for (int index = from + 1; index < hostStateHistories.getSize(hostId, ring); index++) {
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                average[i] = alpha * hostStateHistories.get(hostId, ring, index, i) + (1 - alpha) * average[i];
+            }
+        }
+        return toHostState(average);
+    }
+
+    private int[] toHostState(double[] average) {
+        int[] predictHostState = new int[HostState.STATE_NUM];
+        for (int i = 0; i < HostState.STATE_NUM; i++) {
+            predictHostState[i] = toResource(average[i]);
+        }
+        return predictHostState;
+    }
+}
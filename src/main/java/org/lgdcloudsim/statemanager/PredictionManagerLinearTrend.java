@@ -0,0 +1,64 @@
+package org.lgdcloudsim.statemanager;
+
+import java.util.List;
+
+/**
+ * A class to predict the state of a host by the linear trend of its recent synchronized states.
+ * A line is fitted to the recent states by least squares, with the index of each state as x,
+ * and the predicted state is the value of the line at the next index, which is not negative.
+ * The sums that the fitting needs are kept up to date by the {@link HostStateHistoryBuffer}, so the states are not walked for each prediction.
+ * This class extends the class {@link IncrementalPredictionManager}.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class PredictionManagerLinearTrend extends IncrementalPredictionManager {
+    @Override
+    public int[] predictHostState(List<HostStateHistory> hostStateHistories) {
+        long[] sums = new long[HostState.STATE_NUM];
+        long[] weightedSums = new long[HostState.STATE_NUM];
+        int index = 0;
+        for (HostStateHistory hostStateHistory : hostStateHistories) {
+            int[] hostState = hostStateHistory.getStateArray();
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                sums[i] += hostState[i];
+                weightedSums[i] += (long) index * hostState[i];
+            }
+            index++;
+        }
+        int[] predictHostState = new int[HostState.STATE_NUM];
+        for (int i = 0; i < HostState.STATE_NUM; i++) {
+            predictHostState[i] = predictNext(hostStateHistories.size(), sums[i], weightedSums[i]);
+        }
+        return predictHostState;
+    }
+
+    @Override
+    protected int[] predictRecordedHostState(int hostId, int ring, int from) {
+        int size = hostStateHistories.getSize(hostId, ring) - from;
+        int[] predictHostState = new int[HostState.STATE_NUM];
+        for (int i = 0; i < HostState.STATE_NUM; i++) {
+            predictHostState[i] = predictNext(size, hostStateHistories.getSum(hostId, ring, from, i), hostStateHistories.getWeightedSum(hostId, ring, from, i));
+        }
+        return predictHostState;
+    }
+
+    /**
+     * Predict the value at the index n of the line fitted to the values at the index 0 to n - 1.
+     *
+     * @param n           the number of the values.
+     * @param sum         the sum of the values.
+     * @param weightedSum the sum of the values multiplied by their indexes.
+     * @return the predicted value.
+     */
+    static int predictNext(int n, long sum, long weightedSum) {
+        double mean = (double) sum / n;
+        if (n == 1) {
+            return toResource(mean);
+        }
+        double indexSum = (double) n * (n - 1) / 2;
+        double indexSquareSum = (double) (n - 1) * n * (2 * n - 1) / 6;
+        double slope = (n * (double) weightedSum - indexSum * sum) / (n * indexSquareSum - indexSum * indexSum);
+        return toResource(mean + slope * (n - (n - 1) / 2.0));
+    }
+}
@@ -0,0 +1,34 @@
+package org.lgdcloudsim.statemanager;
+
+import java.util.List;
+
+/**
+ * A class to predict the state of a host by the average of its recent synchronized states.
+ * It predicts the same as {@link PredictionManagerSimple} from the same synchronized states,
+ * but the states are recorded incrementally and the average is computed from their running sums.
+ * This class extends the class {@link IncrementalPredictionManager}.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class PredictionManagerMean extends IncrementalPredictionManager {
+    /**
+     * The prediction manager to predict from a list of histories.
+     */
+    private final PredictionManagerSimple listPredictionManager = new PredictionManagerSimple();
+
+    @Override
+    public int[] predictHostState(List<HostStateHistory> hostStateHistories) {
+        return listPredictionManager.predictHostState(hostStateHistories);
+    }
+
+    @Override
+    protected int[] predictRecordedHostState(int hostId, int ring, int from) {
+        int size = hostStateHistories.getSize(hostId, ring) - from;
+        int[] predictHostState = new int[HostState.STATE_NUM];
+        for (int i = 0; i < HostState.STATE_NUM; i++) {
+            predictHostState[i] = (int) (hostStateHistories.getSum(hostId, ring, from, i) / size);
+        }
+        return predictHostState;
+    }
+}
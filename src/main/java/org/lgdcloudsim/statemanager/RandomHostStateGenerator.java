@@ -1,10 +1,17 @@
 package org.lgdcloudsim.statemanager;
 
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * A class to generate random host state.
  * Note that the range of randomly generated numbers here is: [min,max]
+ * <p>
+ * The generator of a chunk got by {@link #split(int)} uses its own {@link SplittableRandom},
+ * whose seed is derived from the seed of this generator and the chunk index,
+ * so the hosts generated by chunks are the same however the chunks are distributed among threads.
+ * They are different from the hosts generated by this generator itself.
  *
  * @author Anonymous
  * @since LGDCloudSim 1.0
@@ -12,7 +19,10 @@ import java.util.Random;
 
 public class RandomHostStateGenerator implements HostStateGenerator {
     /** A random number generator **/
-    private Random random;
+    private RandomGenerator random;
+
+    /** The seed to derive the seeds of the chunks from, see {@link #split(int)} **/
+    private long seed;
 
     /** the minimum amount of cpu that is available on the host */
     private int minCpu = 1;
@@ -50,11 +60,26 @@ public class RandomHostStateGenerator implements HostStateGenerator {
     public RandomHostStateGenerator(int seed) {
         if (seed == -1) {
             random = new Random();
+            this.seed = random.nextLong();
         } else {
             random = new Random(seed);
+            this.seed = seed;
         }
     }
 
+    private RandomHostStateGenerator(RandomHostStateGenerator generator, RandomGenerator random) {
+        this.random = random;
+        this.seed = generator.seed;
+        this.minCpu = generator.minCpu;
+        this.maxCpu = generator.maxCpu;
+        this.minRam = generator.minRam;
+        this.maxRam = generator.maxRam;
+        this.minStorage = generator.minStorage;
+        this.maxStorage = generator.maxStorage;
+        this.minBw = generator.minBw;
+        this.maxBw = generator.maxBw;
+    }
+
     /**
      * Initialize a random host state generator.
      *
@@ -88,10 +113,27 @@ public class RandomHostStateGenerator implements HostStateGenerator {
     @Override
     public int[] generateHostState() {
         int[] hostStates = new int[4];
-        hostStates[0] = random.nextInt(maxCpu - minCpu + 1) + minCpu;
-        hostStates[1] = random.nextInt(maxRam - minRam + 1) + minRam;
-        hostStates[2] = random.nextInt(maxStorage - minStorage + 1) + minStorage;
-        hostStates[3] = random.nextInt(maxBw - minBw + 1) + minBw;
+        generateHostState(hostStates);
         return hostStates;
     }
+
+    @Override
+    public void generateHostState(int[] hostState) {
+        hostState[0] = random.nextInt(maxCpu - minCpu + 1) + minCpu;
+        hostState[1] = random.nextInt(maxRam - minRam + 1) + minRam;
+        hostState[2] = random.nextInt(maxStorage - minStorage + 1) + minStorage;
+        hostState[3] = random.nextInt(maxBw - minBw + 1) + minBw;
+    }
+
+    /**
+     * Get the generator of a chunk of hosts with the same ranges as this generator.
+     *
+     * @param chunkIndex the index of the chunk.
+     * @return the generator of the chunk.
+     */
+    @Override
+    public HostStateGenerator split(int chunkIndex) {
+        long chunkSeed = new SplittableRandom(seed ^ (chunkIndex * 0x9E3779B97F4A7C15L)).nextLong();
+        return new RandomHostStateGenerator(this, new SplittableRandom(chunkSeed));
+    }
 }
@@ -0,0 +1,188 @@
+package org.lgdcloudsim.statemanager;
+
+import org.lgdcloudsim.request.Instance;
+
+import java.util.Arrays;
+
+/**
+ * A primitive store of the self host states of an intra-scheduler, see {@link StatesManagerSimple} and {@link SynStateSimple}.
+ * The self host state of a host is the state of the host in the view of the intra-scheduler,
+ * which is recorded after the intra-scheduler schedules instances to the host and is cleared when the partition of the host is synchronized.
+ * <p>
+ * The states of each partition are kept in an int array indexed by the host id minus the start id of the partition,
+ * which is allocated when a host state of the partition is first recorded.
+ * Each host has an epoch stamp, and each partition has an epoch counter.
+ * The state of a host is valid only if its stamp is the same as the epoch of its partition,
+ * so clearing a partition is just adding one to its epoch, and a lookup is an array read with an epoch compare.
+ * <p>
+ * The store is not thread-safe, which is the same as the {@link StatesManagerSimple} it belongs to.
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public class SelfHostStateStore {
+    /**
+     * The index of each partition in the arrays below.
+     * The partition id is the index of the array.
+     */
+    private final int[] partitionIndexes;
+
+    /**
+     * The start host id of each partition.
+     */
+    private final int[] partitionStartIds;
+
+    /**
+     * The number of hosts of each partition.
+     */
+    private final int[] partitionLengths;
+
+    /**
+     * The current epoch of each partition.
+     */
+    private final int[] partitionEpochs;
+
+    /**
+     * The epoch stamp of each host in each partition, null if the partition has no recorded host state.
+     */
+    private final int[][] hostEpochs;
+
+    /**
+     * The states of the hosts in each partition, {@link HostState#STATE_NUM} ints for each host.
+     */
+    private final int[][] hostStates;
+
+    /**
+     * Create a new empty store.
+     *
+     * @param partitionRangesManager the partition ranges manager of the datacenter
+     */
+    public SelfHostStateStore(PartitionRangesManager partitionRangesManager) {
+        int[] partitionIds = partitionRangesManager.getPartitionIds();
+        int maxPartitionId = Arrays.stream(partitionIds).max().orElse(-1);
+        this.partitionIndexes = new int[maxPartitionId + 1];
+        Arrays.fill(partitionIndexes, -1);
+        this.partitionStartIds = new int[partitionIds.length];
+        this.partitionLengths = new int[partitionIds.length];
+        for (int i = 0; i < partitionIds.length; i++) {
+            partitionIndexes[partitionIds[i]] = i;
+            partitionStartIds[i] = partitionRangesManager.getRange(partitionIds[i])[0];
+            partitionLengths[i] = partitionRangesManager.getRangeLength(partitionIds[i]);
+        }
+        this.partitionEpochs = new int[partitionIds.length];
+        Arrays.fill(partitionEpochs, 1);
+        this.hostEpochs = new int[partitionIds.length][];
+        this.hostStates = new int[partitionIds.length][];
+    }
+
+    /**
+     * Whether the state of the host is recorded.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @return true if the state of the host is recorded since the last clearing of its partition
+     */
+    public boolean contains(int partitionId, int hostId) {
+        int partitionIndex = partitionIndexes[partitionId];
+        int[] epochs = hostEpochs[partitionIndex];
+        return epochs != null && epochs[hostId - partitionStartIds[partitionIndex]] == partitionEpochs[partitionIndex];
+    }
+
+    /**
+     * Copy the recorded state of the host.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @param hostState   the array to copy the state into
+     * @return true if the state of the host is recorded, false otherwise
+     */
+    public boolean copyState(int partitionId, int hostId, int[] hostState) {
+        if (!contains(partitionId, hostId)) {
+            return false;
+        }
+        int partitionIndex = partitionIndexes[partitionId];
+        System.arraycopy(hostStates[partitionIndex], (hostId - partitionStartIds[partitionIndex]) * HostState.STATE_NUM, hostState, 0, HostState.STATE_NUM);
+        return true;
+    }
+
+    /**
+     * Record the state of the host.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @param states      the array containing the state of the host
+     * @param offset      the offset of the state in states
+     */
+    public void put(int partitionId, int hostId, int[] states, int offset) {
+        int partitionIndex = partitionIndexes[partitionId];
+        if (hostEpochs[partitionIndex] == null) {
+            hostEpochs[partitionIndex] = new int[partitionLengths[partitionIndex]];
+            hostStates[partitionIndex] = new int[partitionLengths[partitionIndex] * HostState.STATE_NUM];
+        }
+        int index = hostId - partitionStartIds[partitionIndex];
+        hostEpochs[partitionIndex][index] = partitionEpochs[partitionIndex];
+        System.arraycopy(states, offset, hostStates[partitionIndex], index * HostState.STATE_NUM, HostState.STATE_NUM);
+    }
+
+    /**
+     * Subtract the resources of the instance from the recorded state of the host.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @param instance    the instance
+     */
+    public void allocate(int partitionId, int hostId, Instance instance) {
+        addResource(partitionId, hostId, instance, -1);
+    }
+
+    /**
+     * Add the resources of the instance back to the recorded state of the host.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @param instance    the instance
+     */
+    public void release(int partitionId, int hostId, Instance instance) {
+        addResource(partitionId, hostId, instance, 1);
+    }
+
+    /**
+     * Clear the recorded states of the hosts in the partition.
+     *
+     * @param partitionId the partition id
+     */
+    public void clearPartition(int partitionId) {
+        int partitionIndex = partitionIndexes[partitionId];
+        if (++partitionEpochs[partitionIndex] == 0) {
+            // The stamps are 0 before the first record, so reset them when the epoch wraps around.
+            if (hostEpochs[partitionIndex] != null) {
+                Arrays.fill(hostEpochs[partitionIndex], 0);
+            }
+            partitionEpochs[partitionIndex] = 1;
+        }
+    }
+
+    /**
+     * Clear the recorded states of all the hosts.
+     */
+    public void clear() {
+        for (int partitionId = 0; partitionId < partitionIndexes.length; partitionId++) {
+            if (partitionIndexes[partitionId] >= 0) {
+                clearPartition(partitionId);
+            }
+        }
+    }
+
+    private void addResource(int partitionId, int hostId, Instance instance, int sign) {
+        if (!contains(partitionId, hostId)) {
+            throw new IllegalStateException("The self host state of host " + hostId + " is not recorded");
+        }
+        int partitionIndex = partitionIndexes[partitionId];
+        int[] states = hostStates[partitionIndex];
+        int offset = (hostId - partitionStartIds[partitionIndex]) * HostState.STATE_NUM;
+        states[offset] += sign * instance.getCpu();
+        states[offset + 1] += sign * instance.getRam();
+        states[offset + 2] += sign * instance.getStorage();
+        states[offset + 3] += sign * instance.getBw();
+    }
+}
@@ -30,6 +30,18 @@ public interface SimpleState {
      */
     SimpleState initHostSimpleState(int hostId, int[] hostState);
 
+    /**
+     * Initialize the states of many hosts at once by the sums of their states,
+     * such as after the hosts are initialized in parallel.
+     *
+     * @param cpuSum     the sum of the cpu of the hosts.
+     * @param ramSum     the sum of the ram of the hosts.
+     * @param storageSum the sum of the storage of the hosts.
+     * @param bwSum      the sum of the bw of the hosts.
+     * @return the host state.
+     */
+    SimpleState initHostsSimpleState(long cpuSum, long ramSum, long storageSum, long bwSum);
+
     /**
      * Update the host state when the instance is allocated to the host.
      *
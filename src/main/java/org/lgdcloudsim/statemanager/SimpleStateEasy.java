@@ -62,6 +62,15 @@ public class SimpleStateEasy implements SimpleState {
         return this;
     }
 
+    @Override
+    public SimpleState initHostsSimpleState(long cpuSum, long ramSum, long storageSum, long bwSum) {
+        cpuAvailableSum += cpuSum;
+        ramAvailableSum += ramSum;
+        storageAvailableSum += storageSum;
+        bwAvailableSum += bwSum;
+        return this;
+    }
+
     @Override
     public SimpleState updateSimpleStateAllocated(int hostId, int[] hostState, Instance instance) {
         cpuAvailableSum -= instance.getCpu();
@@ -155,12 +155,37 @@ public interface StatesManager {
     double getNextHeartbeatDelay(int hostId, double currentTime);
 
     /**
-     * In order to save space, heartbeat are only made when the host status changes.
-     * We need to synchronize the status of these changed hosts from actualHostStates to centerHostStates
+     * Add the host whose state has changed to the heartbeat timer wheel,
+     * so its state is synchronized to centerHostStates by {@link #synByHeartbeat(int)} at its next heartbeat.
+     * The hosts with the same next heartbeat time share a slot of the wheel,
+     * and only one heartbeat event is needed for each slot.
+     *
+     * @param hostId      the id of the host.
+     * @param currentTime the current time.
+     * @return the slot of the host if a heartbeat event needs to be sent for the slot after {@link #getNextHeartbeatDelay(int, double)},
+     * -1 if the event has been sent or the heartbeat is not used.
+     */
+    int addHeartbeatHost(int hostId, double currentTime);
+
+    /**
+     * Synchronize the states of all the hosts in the slot of the heartbeat timer wheel
+     * from actualHostStates to centerHostStates, and empty the slot.
+     *
+     * @param heartbeatSlot the slot returned by {@link #addHeartbeatHost(int, double)}.
+     * @return the StatesManager itself.
+     */
+    StatesManager synByHeartbeat(int heartbeatSlot);
+
+    /**
+     * Synchronize the states of the given hosts from actualHostStates to centerHostStates immediately.
+     * The hosts waiting in the heartbeat timer wheel stay there and are synchronized again at their heartbeat.
      *
      * @param updatedHostIds the ids of the hosts that have changed and make heartbeat
      * @return the StatesManager itself.
+     * @deprecated the heartbeat events carry the slot of the timer wheel,
+     * use {@link #addHeartbeatHost(int, double)} and {@link #synByHeartbeat(int)} instead.
      */
+    @Deprecated
     StatesManager synByHeartbeat(List<Integer> updatedHostIds);
 
     /**
@@ -171,6 +196,17 @@ public interface StatesManager {
      */
     SynState getSynStateForIntraScheduler(IntraScheduler intraScheduler);
 
+    /**
+     * Prepare for the intra-schedulers to schedule concurrently.
+     * After it, {@link #getSynStateForIntraScheduler(IntraScheduler)} of these intra-schedulers
+     * and reading the returned {@link SynState}s don't change anything shared by them,
+     * until the states are changed again.
+     *
+     * @param intraSchedulers the intra-schedulers to schedule concurrently, which must be different.
+     * @return the StatesManager itself.
+     */
+    StatesManager prepareConcurrentIntraScheduling(List<IntraScheduler> intraSchedulers);
+
     /**
      * Synchronize all state to the intra-scheduler.
      *
@@ -193,6 +229,19 @@ public interface StatesManager {
      */
     Object getStateByType(String type);
 
+    /**
+     * Get the simple state object by type for a subscriber which has got a state object of the same type before.
+     * A state manager can update the previous state object instead of creating a new one,
+     * such as the "detailedDelta" type of {@link StatesManagerSimple}.
+     *
+     * @param type          the type of the simple state.
+     * @param previousState the state object got by the subscriber last time, null if there is none.
+     * @return the simple state object.
+     */
+    default Object getStateByType(String type, Object previousState) {
+        return getStateByType(type);
+    }
+
     /**
      * Whether the synchronization takes time in the data center for the intra-scheduler.
      * If it doesn't take time, it means that the scheduler is state-aware in real time.
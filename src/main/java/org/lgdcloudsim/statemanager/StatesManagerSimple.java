@@ -9,6 +9,7 @@ import org.lgdcloudsim.intrascheduler.IntraSchedulerResult;
 import org.lgdcloudsim.request.Instance;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static org.apache.commons.lang3.math.NumberUtils.max;
 
@@ -20,20 +21,29 @@ import static org.apache.commons.lang3.math.NumberUtils.max;
  * However, using a simple method of duplicating all states to the intra-scheduler during each synchronization would result in redundant state copies and substantial memory wastage.
  * As a result, we optimize the maintenance of historical host resource states through a multi-level incremental state representation (MLI) method.
  * The core idea of this method is only to perform appropriate state replication on changed hosts to avoid redundant replication.
- * When synchronizing the host states to the intra-scheduler, the system creates an empty hash table in synStateMap for each partition and deletes outdated historical hash tables.
- * Before the next synchronization, if a host's state changes, the host state before the change is put into the new hash table of the corresponding partition to prevent state loss.
- * Since these hash tables synStateMap maintained by the state manager do not belong exclusively to an intra-scheduler, these tables are read-only to the intra-scheduler.
- * Therefore, each intra-scheduler also needs to maintain additional hash tables selfHostStateMap for each partition.
- * The hash tables document the state of the scheduled hosts from the intra-scheduler's own view before the next synchronization.
+ * When synchronizing the host states to the intra-scheduler, the system starts an empty sync epoch in synStateStore for each partition and expires outdated historical epochs.
+ * Before the next synchronization, if a host's state changes, the host state before the change is saved into the new epoch of the corresponding partition to prevent state loss.
+ * By default the epochs are primitive hash tables reused across the synchronizations, see {@link PartitionSynStateStore}.
+ * They can also be kept as a change log which only finds the saved state of the hosts read by the intra-schedulers, see {@link ChangeLogSynStateStore}.
+ * Since these epochs maintained by the state manager do not belong exclusively to an intra-scheduler, they are read-only to the intra-scheduler.
+ * Therefore, each intra-scheduler also needs to maintain an additional {@link SelfHostStateStore} in selfHostStateMap.
+ * The store documents the state of the scheduled hosts from the intra-scheduler's own view before the next synchronization,
+ * and a partition of it is cleared by adding one to the epoch of the partition when the partition is synchronized.
  *
  * @author Anonymous
  * @since LGDCloudSim 1.0
  */
 public class StatesManagerSimple implements StatesManager {
+    /**
+     * The number of hosts in a chunk when the host states are initialized in parallel,
+     * see {@link #initHostStates(HostStateGenerator)}.
+     */
+    public static final int INIT_CHUNK_HOST_NUM = 1 << 16;
+
     /**
      * The actual status of all hosts at the current time
      **/
-    private int[] actualHostStates;
+    private HostStateStore actualHostStates;
 
     /**
      * The status of all hosts maintained by the center state manager at the current time,
@@ -41,7 +51,7 @@ public class StatesManagerSimple implements StatesManager {
      * When the heartbeatInterval <= 0, the actual host status is always synchronized with the center status,
      * so we don't need to initialize the centerHostStates, we just use the actualHostStates as the centerHostStates.
      **/
-    private int[] centerHostStates;
+    private HostStateStore centerHostStates;
 
     /**
      * The interval of heartbeat synchronization.
@@ -61,6 +71,26 @@ public class StatesManagerSimple implements StatesManager {
      */
     private int[] heartbeatSendTime;
 
+    /**
+     * The first host of each slot of the heartbeat timer wheel, -1 if the slot is empty.
+     * A host's heartbeats are always at its heartbeatSendTime in each interval,
+     * so the slot of a heartbeat is its send time in the interval, plus heartbeatInterval for the odd intervals.
+     * The two rounds keep a heartbeat of the next interval apart from the one due at the current time.
+     * See {@link #addHeartbeatHost(int, double)}.
+     */
+    private int[] heartbeatSlotFirstHosts;
+
+    /**
+     * The next host in the same slot of the heartbeat timer wheel, -1 if it is the last one.
+     * The host id is the index of the array.
+     */
+    private int[] heartbeatSlotNextHosts;
+
+    /**
+     * The hosts which are waiting in the heartbeat timer wheel.
+     */
+    private BitSet heartbeatPendingHosts;
+
     /**
      * A random number generator of heartbeatSendTime
      **/
@@ -73,12 +103,17 @@ public class StatesManagerSimple implements StatesManager {
     /**
      * The host state at the time of synchronization
      **/
-    private Map<Integer, TreeMap<Double, Map<Integer, int[]>>> synStateMap;
+    private SynStateStore synStateStore;
+
+    /**
+     * The buffer to save the host state before it changes, which is reused by {@link #allocate} and {@link #release}
+     **/
+    private final int[] beforeHostState = new int[HostState.STATE_NUM];
 
     /**
      * Maintain separate selfHostState for each scheduler
      **/
-    private Map<IntraScheduler, Map<Integer, Map<Integer, int[]>>> selfHostStateMap;
+    private Map<IntraScheduler, SelfHostStateStore> selfHostStateMap;
 
     /**
      * Number of partition in the datacenter
@@ -97,6 +132,22 @@ public class StatesManagerSimple implements StatesManager {
     @Getter
     private DatacenterPowerOnRecord datacenterPowerOnRecord;
 
+    /**
+     * The index of the free capacity of the hosts in the center, see {@link HostFreeCapacityIndex}.
+     * It is null when there is a synchronization gap, because the intra-schedulers may see more resources
+     * in the synchronized states than in the center, so the index couldn't skip any host for them.
+     **/
+    @Getter
+    private HostFreeCapacityIndex freeCapacityIndex;
+
+    /**
+     * The states of the "detailedDelta" type which are synchronized by delta.
+     * The hosts changed in the center are marked in each of them.
+     * The states are weakly referenced, so a state dropped or replaced by its subscriber
+     * is no longer kept or marked after it is garbage collected.
+     **/
+    private final Set<DetailedDcStateSimple> deltaSynDetailedStates = Collections.newSetFromMap(new WeakHashMap<>());
+
     /**
      * see {@link  PartitionRangesManager}
      **/
@@ -107,14 +158,12 @@ public class StatesManagerSimple implements StatesManager {
      * see {@link  PredictionManager}
      **/
     @Getter
-    @Setter
     private PredictionManager predictionManager;
 
     /**
      * The record data num for predicting
      **/
     @Getter
-    @Setter
     private int predictRecordNum = 1;
 
     /**
@@ -187,26 +236,65 @@ public class StatesManagerSimple implements StatesManager {
      * @param maxRamCapacity         the max ram capacity among all hosts in the datacenter.
      */
     public StatesManagerSimple(int hostNum, PartitionRangesManager partitionRangesManager, double synGap, int heartbeatInterval, int maxCpuCapacity, int maxRamCapacity) {
+        this(hostNum, partitionRangesManager, synGap, heartbeatInterval, maxCpuCapacity, maxRamCapacity, "heap");
+    }
+
+    /**
+     * Initialize the StatesManagerSimple.
+     *
+     * @param hostNum                the number of hosts in the datacenter.
+     * @param partitionRangesManager the partition ranges manager.
+     * @param synGap                 the synchronization gap.
+     * @param heartbeatInterval      the interval of heartbeat synchronization.
+     * @param maxCpuCapacity         the max cpu capacity among all hosts in the datacenter.
+     * @param maxRamCapacity         the max ram capacity among all hosts in the datacenter.
+     * @param hostStateStoreType     the type of the store of the host states, see {@link HostStateStore#create(String, int)}.
+     */
+    public StatesManagerSimple(int hostNum, PartitionRangesManager partitionRangesManager, double synGap, int heartbeatInterval, int maxCpuCapacity, int maxRamCapacity, String hostStateStoreType) {
+        this(hostNum, partitionRangesManager, synGap, heartbeatInterval, maxCpuCapacity, maxRamCapacity, hostStateStoreType, "epoch");
+    }
+
+    /**
+     * Initialize the StatesManagerSimple.
+     *
+     * @param hostNum                the number of hosts in the datacenter.
+     * @param partitionRangesManager the partition ranges manager.
+     * @param synGap                 the synchronization gap.
+     * @param heartbeatInterval      the interval of heartbeat synchronization.
+     * @param maxCpuCapacity         the max cpu capacity among all hosts in the datacenter.
+     * @param maxRamCapacity         the max ram capacity among all hosts in the datacenter.
+     * @param hostStateStoreType     the type of the store of the host states, see {@link HostStateStore#create(String, int)}.
+     * @param synStateStoreType      the type of the store of the synchronized host states, see {@link SynStateStore#create(String, PartitionRangesManager, int)}.
+     *                               The "changeLog" type is only used when the synchronization gap is larger than 0,
+     *                               since its log is only truncated by the synchronizations.
+     */
+    public StatesManagerSimple(int hostNum, PartitionRangesManager partitionRangesManager, double synGap, int heartbeatInterval, int maxCpuCapacity, int maxRamCapacity,
+                               String hostStateStoreType, String synStateStoreType) {
         this.hostNum = hostNum;
         this.heartbeatInterval = heartbeatInterval;
         this.partitionRangesManager = partitionRangesManager;
         this.synGapManager = new SynGapManager(synGap, partitionRangesManager.getPartitionNum());
         this.maxCpuCapacity = maxCpuCapacity;
         this.maxRamCapacity = maxRamCapacity;
-        this.actualHostStates = new int[hostNum * HostState.STATE_NUM];
+        this.hostCapacityManager = new HostCapacityManager();
+        this.actualHostStates = HostStateStore.create(hostStateStoreType, hostNum, hostCapacityManager);
         if (isNeedHeartbeat()) {
-            this.centerHostStates = new int[hostNum * HostState.STATE_NUM];
+            this.centerHostStates = HostStateStore.create(hostStateStoreType, hostNum, hostCapacityManager);
             this.heartbeatSendTime = new int[hostNum];
             random = new Random();
             initHeartbeatSendTime();
+            this.heartbeatSlotFirstHosts = new int[heartbeatInterval * 2];
+            Arrays.fill(heartbeatSlotFirstHosts, -1);
+            this.heartbeatSlotNextHosts = new int[hostNum];
+            this.heartbeatPendingHosts = new BitSet(hostNum);
         }
         this.simpleState = new SimpleStateEasy(this);
         this.partitionNum = partitionRangesManager.getPartitionNum();
         this.selfHostStateMap = new HashMap<>();
         this.datacenterPowerOnRecord = new DatacenterPowerOnRecord();
-        this.hostCapacityManager = new HostCapacityManager();
         this.intraSchedulerView = new HashMap<>();
-        initSynStateMap();
+        this.synStateStore = SynStateStore.create(synGap > 0 ? synStateStoreType : "epoch", partitionRangesManager, partitionNum);
+        this.freeCapacityIndex = synGapManager.isSynCostTime() ? null : new HostFreeCapacityIndex(getCenterHostStates());
     }
 
     /**
@@ -250,35 +338,84 @@ public class StatesManagerSimple implements StatesManager {
      * @param length  the number of hosts that has the same capacity.
      * @return the host state.
      */
-    //TODO: The initHostStates function does not need to be in order,
-    // but here it is required that hostCapacityManager is initialized in order,
-    // which needs to be modified later.But since this is only used in initDatacenter, there is no problem yet.
     @Override
     public StatesManager initHostStates(int cpu, int ram, int storage, int bw, int startId, int length) {
-        int endId = startId + length - 1;
-        for (int i = startId; i <= endId; i++) {
-            initSingleHostState(i, cpu, ram, storage, bw);
+        int[] state = new int[]{cpu, ram, storage, bw};
+        hostCapacityManager.addSameCapacityHost(startId, length, state);
+        actualHostStates.fill(startId, length, state);
+        if (isNeedHeartbeat()) {
+            centerHostStates.fill(startId, length, state);
+        }
+        for (int i = startId; i < startId + length; i++) {
+            simpleState.initHostSimpleState(i, state);
         }
-        hostCapacityManager.orderlyAddSameCapacityHost(length, new int[]{cpu, ram, storage, bw});
+        centerHostStatesReset();
         return this;
     }
 
     /**
      * Initialize the host states of the datacenter by {@link HostStateGenerator}.
+     * If the generator can be split and the host states can be written concurrently,
+     * the hosts are split into chunks of {@link #INIT_CHUNK_HOST_NUM} hosts which are generated in parallel,
+     * each by the generator of its chunk, see {@link HostStateGenerator#split(int)}.
+     * The states are written directly into the host states without creating an array for each host,
+     * and the sums of the chunks are added to the simpleState at the end.
+     * Otherwise, the hosts are generated one by one.
      * @param hostStateGenerator the host state generator.
      * @return the host state.
      */
     @Override
     public StatesManager initHostStates(HostStateGenerator hostStateGenerator) {
-        for (int i = 0; i < hostNum; i++) {
-            int[] state = hostStateGenerator.generateHostState();
-            initSingleHostState(i, state);
+        if (hostStateGenerator.split(0) == null || !actualHostStates.isConcurrentlyWritable()) {
+            for (int i = 0; i < hostNum; i++) {
+                int[] state = hostStateGenerator.generateHostState();
+                initSingleHostState(i, state);
+            }
+            centerHostStatesReset();
+            return this;
         }
+        int chunkNum = (int) (((long) hostNum + INIT_CHUNK_HOST_NUM - 1) / INIT_CHUNK_HOST_NUM);
+        long[] stateSums = IntStream.range(0, chunkNum).parallel()
+                .mapToObj(chunkIndex -> initChunkHostStates(hostStateGenerator.split(chunkIndex), chunkIndex))
+                .reduce(new long[HostState.STATE_NUM], (sums, chunkSums) -> {
+                    long[] result = new long[HostState.STATE_NUM];
+                    for (int i = 0; i < HostState.STATE_NUM; i++) {
+                        result[i] = sums[i] + chunkSums[i];
+                    }
+                    return result;
+                });
+        simpleState.initHostsSimpleState(stateSums[0], stateSums[1], stateSums[2], stateSums[3]);
+        centerHostStatesReset();
         return this;
     }
 
+    /**
+     * Initialize the host states of a chunk of hosts.
+     * @param hostStateGenerator the generator of the chunk.
+     * @param chunkIndex the index of the chunk.
+     * @return the sums of the states of the hosts in the chunk.
+     */
+    private long[] initChunkHostStates(HostStateGenerator hostStateGenerator, int chunkIndex) {
+        long[] stateSums = new long[HostState.STATE_NUM];
+        int[] state = new int[HostState.STATE_NUM];
+        int startId = chunkIndex * INIT_CHUNK_HOST_NUM;
+        int endId = (int) Math.min(hostNum, (long) startId + INIT_CHUNK_HOST_NUM);
+        for (int hostId = startId; hostId < endId; hostId++) {
+            hostStateGenerator.generateHostState(state);
+            actualHostStates.copyFrom(hostId, state, 0);
+            if (isNeedHeartbeat()) {
+                centerHostStates.copyFrom(hostId, state, 0);
+            }
+            for (int i = 0; i < HostState.STATE_NUM; i++) {
+                stateSums[i] += state[i];
+            }
+        }
+        return stateSums;
+    }
+
     /**
      * Initialize the host state with the given state.
+     * The caller calls {@link #centerHostStatesReset()} once after all the hosts are initialized.
      * @param hostId the id of the host.
      * @param state the state of the host.
      */
@@ -286,43 +423,81 @@ public class StatesManagerSimple implements StatesManager {
         if (state.length != HostState.STATE_NUM) {
             throw new IllegalArgumentException("Host state must be array of size " + HostState.STATE_NUM);
         }
-        System.arraycopy(state, 0, actualHostStates, hostId * HostState.STATE_NUM, HostState.STATE_NUM);
+        actualHostStates.copyFrom(hostId, state, 0);
         if (isNeedHeartbeat()) {
-            System.arraycopy(state, 0, centerHostStates, hostId * HostState.STATE_NUM, HostState.STATE_NUM);
+            centerHostStates.copyFrom(hostId, state, 0);
         }
         simpleState.initHostSimpleState(hostId, state);
     }
 
     /**
-     * Initialize the host state with the given state.
-     * @param hostId the id of the host.
-     * @param cpu the cpu capacity of the host.
-     * @param ram the ram capacity of the host.
-     * @param storage the storage capacity of the host.
-     * @param bw the bw capacity of the host.
+     * Add the host to the heartbeat timer wheel.
+     * A host which is already waiting in the wheel is not added again,
+     * since its heartbeat will carry its latest state.
+     *
+     * @param hostId      the id of the host.
+     * @param currentTime the current time.
+     * @return the slot of the host if it is the first host of the slot, -1 otherwise.
      */
-    private void initSingleHostState(int hostId, int cpu, int ram, int storage, int bw) {
-        initSingleHostState(hostId, new int[]{cpu, ram, storage, bw});
+    @Override
+    public int addHeartbeatHost(int hostId, double currentTime) {
+        if (!isNeedHeartbeat() || heartbeatPendingHosts.get(hostId)) {
+            return -1;
+        }
+        heartbeatPendingHosts.set(hostId);
+        int round = (getNextHeartbeatTime(hostId, currentTime) - heartbeatSendTime[hostId]) / heartbeatInterval;
+        int heartbeatSlot = heartbeatSendTime[hostId] + (round & 1) * heartbeatInterval;
+        int firstHostId = heartbeatSlotFirstHosts[heartbeatSlot];
+        heartbeatSlotNextHosts[hostId] = firstHostId;
+        heartbeatSlotFirstHosts[heartbeatSlot] = hostId;
+        return firstHostId == -1 ? heartbeatSlot : -1;
+    }
+
+    @Override
+    public StatesManager synByHeartbeat(int heartbeatSlot) {
+        if (!isNeedHeartbeat()) {
+            return this;
+        }
+        for (int hostId = heartbeatSlotFirstHosts[heartbeatSlot]; hostId != -1; hostId = heartbeatSlotNextHosts[hostId]) {
+            heartbeatPendingHosts.clear(hostId);
+            synHostByHeartbeat(hostId);
+        }
+        heartbeatSlotFirstHosts[heartbeatSlot] = -1;
+        return this;
     }
 
     /**
-     * In order to save space, heartbeat are only made when the host status changes.
-     * We need to synchronize the status of these changed hosts from actualHostStates to centerHostStates
+     * Synchronize the states of the given hosts immediately.
+     * The pending hosts are not removed from the heartbeat timer wheel,
+     * since a host can only be unlinked from its slot when the whole slot is synchronized,
+     * so they are synchronized again at their heartbeat.
      *
      * @param updatedHostIds the ids of the hosts that have changed and make heartbeat
      * @return the StatesManager itself.
+     * @deprecated use {@link #addHeartbeatHost(int, double)} and {@link #synByHeartbeat(int)} instead.
      */
+    @Deprecated
     @Override
     public StatesManager synByHeartbeat(List<Integer> updatedHostIds) {
         if (!isNeedHeartbeat()) {
             return this;
         }
         for (int hostId : updatedHostIds) {
-            System.arraycopy(actualHostStates, hostId * HostState.STATE_NUM, centerHostStates, hostId * HostState.STATE_NUM, HostState.STATE_NUM);
+            synHostByHeartbeat(hostId);
         }
         return this;
     }
 
+    /**
+     * Copy the state of the host from actualHostStates to centerHostStates.
+     *
+     * @param hostId the id of the host.
+     */
+    private void synHostByHeartbeat(int hostId) {
+        centerHostStates.copyHostFrom(actualHostStates, hostId);
+        centerHostStateChanged(hostId);
+    }
+
     /**
      * Get the host state of the host with hostId in the intra-scheduler's view.
      * @see SynState
@@ -331,17 +506,30 @@ public class StatesManagerSimple implements StatesManager {
      */
     @Override
     public SynState getSynStateForIntraScheduler(IntraScheduler scheduler) {
-        Map<Integer, Map<Integer, int[]>> selfHostState;
-        int[] partitionIds = partitionRangesManager.getPartitionIds();
+        SelfHostStateStore selfHostState = selfHostStateMap.get(scheduler);
+        if (selfHostState == null) {
+            selfHostState = new SelfHostStateStore(partitionRangesManager);
+            selfHostStateMap.put(scheduler, selfHostState);
+        } else if (!synGapManager.isSynCostTime()) {
+            selfHostState.clear();
+        }
+        return new SynStateSimple(synStateStore, getCenterHostStates(), freeCapacityIndex, partitionRangesManager, selfHostState, scheduler, predictionManager, synGapManager, predictRecordNum, predictable);
+    }
 
-        if (!selfHostStateMap.containsKey(scheduler) || !synGapManager.isSynCostTime()) {
-            selfHostStateMap.put(scheduler, new HashMap<>());
-            for (int partitionId : partitionIds) {
-                selfHostStateMap.get(scheduler).put(partitionId, new HashMap<>());
-            }
+    /**
+     * Create the missing {@link SelfHostStateStore}s of the intra-schedulers,
+     * and let the {@link #freeCapacityIndex} and the {@link #synStateStore} finish their lazy work in advance.
+     */
+    @Override
+    public StatesManager prepareConcurrentIntraScheduling(List<IntraScheduler> intraSchedulers) {
+        for (IntraScheduler intraScheduler : intraSchedulers) {
+            selfHostStateMap.computeIfAbsent(intraScheduler, scheduler -> new SelfHostStateStore(partitionRangesManager));
+        }
+        if (freeCapacityIndex != null) {
+            freeCapacityIndex.refresh();
         }
-        selfHostState = selfHostStateMap.get(scheduler);
-        return new SynStateSimple(synStateMap, getCenterHostStates(), partitionRangesManager, selfHostState, scheduler, predictionManager, synGapManager, predictRecordNum, predictable);
+        synStateStore.prepareConcurrentReads();
+        return this;
     }
 
     /**
@@ -354,17 +542,10 @@ public class StatesManagerSimple implements StatesManager {
         }
         synGapManager.partitionSynGapCountAddOne();
         int latestSmallSynGapCount = synGapManager.getPartitionSynCount();
-        for (Map<Double, Map<Integer, int[]>> partitionSynStateMap : synStateMap.values()) {
-            if (!predictable && latestSmallSynGapCount >= partitionNum) {
-                partitionSynStateMap.remove(synGapManager.getSynTime(latestSmallSynGapCount - partitionNum));
-            } else if (predictable && latestSmallSynGapCount >= partitionNum * getPredictRecordNum()) {
-                partitionSynStateMap.remove(synGapManager.getSynTime(latestSmallSynGapCount - partitionNum * getPredictRecordNum()));
-            }
-            partitionSynStateMap.put(synGapManager.getSynTime(latestSmallSynGapCount), new HashMap<>());
-        }
-        for (IntraScheduler scheduler : selfHostStateMap.keySet()) {
-            int clearPartitionId = (latestSmallSynGapCount + scheduler.getFirstPartitionId()) % partitionNum;
-            selfHostStateMap.get(scheduler).get(clearPartitionId).clear();
+        synStateStore.startEpoch(latestSmallSynGapCount, predictable ? partitionNum * getPredictRecordNum() : partitionNum);
+        for (Map.Entry<IntraScheduler, SelfHostStateStore> entry : selfHostStateMap.entrySet()) {
+            int clearPartitionId = (latestSmallSynGapCount + entry.getKey().getFirstPartitionId()) % partitionNum;
+            entry.getValue().clearPartition(clearPartitionId);
         }
         return this;
     }
@@ -377,28 +558,21 @@ public class StatesManagerSimple implements StatesManager {
     */
     @Override
     public boolean allocate(int hostId, Instance instance) {
-        int[] beforeHostState = new int[HostState.STATE_NUM];
-        System.arraycopy(getCenterHostStates(), hostId * HostState.STATE_NUM, beforeHostState, 0, HostState.STATE_NUM);
+        getCenterHostStates().copyTo(hostId, beforeHostState, 0);
         if (beforeHostState[0] < instance.getCpu() || beforeHostState[1] < instance.getRam() || beforeHostState[2] < instance.getStorage() || beforeHostState[3] < instance.getBw()
-                || actualHostStates[hostId * HostState.STATE_NUM] < instance.getCpu() || actualHostStates[hostId * HostState.STATE_NUM + 1] < instance.getRam()
-                || actualHostStates[hostId * HostState.STATE_NUM + 2] < instance.getStorage() || actualHostStates[hostId * HostState.STATE_NUM + 3] < instance.getBw()) {
+                || !actualHostStates.isSuitable(hostId, instance.getCpu(), instance.getRam(), instance.getStorage(), instance.getBw())) {
             return false; //This usually doesn't happen because the previous conflict handler has already checked it.
         }
 
-        updateSynStateMap(hostId, beforeHostState);
+        updateSynStateStore(hostId, beforeHostState);
 
-        actualHostStates[hostId * HostState.STATE_NUM] -= instance.getCpu();
-        actualHostStates[hostId * HostState.STATE_NUM + 1] -= instance.getRam();
-        actualHostStates[hostId * HostState.STATE_NUM + 2] -= instance.getStorage();
-        actualHostStates[hostId * HostState.STATE_NUM + 3] -= instance.getBw();
+        actualHostStates.allocate(hostId, instance);
 
         if (isNeedHeartbeat()) {
-            centerHostStates[hostId * HostState.STATE_NUM] -= instance.getCpu();
-            centerHostStates[hostId * HostState.STATE_NUM + 1] -= instance.getRam();
-            centerHostStates[hostId * HostState.STATE_NUM + 2] -= instance.getStorage();
-            centerHostStates[hostId * HostState.STATE_NUM + 3] -= instance.getBw();
+            centerHostStates.allocate(hostId, instance);
         }
 
+        centerHostStateChanged(hostId);
         simpleState.updateSimpleStateAllocated(hostId, beforeHostState, instance);
         datacenterPowerOnRecord.hostAllocateInstance(hostId, datacenter.getSimulation().clock());
         return true;
@@ -412,17 +586,15 @@ public class StatesManagerSimple implements StatesManager {
      */
     @Override
     public StatesManager release(int hostId, Instance instance) {
-        int[] beforeHostState = new int[HostState.STATE_NUM];
-        System.arraycopy(actualHostStates, hostId * HostState.STATE_NUM, beforeHostState, 0, HostState.STATE_NUM);
-
-        updateSynStateMap(hostId, beforeHostState);
+        actualHostStates.copyTo(hostId, beforeHostState, 0);
+        updateSynStateStore(hostId, beforeHostState);
 
-        actualHostStates[hostId * HostState.STATE_NUM] += instance.getCpu();
-        actualHostStates[hostId * HostState.STATE_NUM + 1] += instance.getRam();
-        actualHostStates[hostId * HostState.STATE_NUM + 2] += instance.getStorage();
-        actualHostStates[hostId * HostState.STATE_NUM + 3] += instance.getBw();
+        actualHostStates.release(hostId, instance);
+        if (!isNeedHeartbeat()) {
+            centerHostStateChanged(hostId);
+        }
 
-//        simpleState.updateSimpleStateReleased(hostId, beforeHostState, instance);
+//        simpleState.updateSimpleStateReleased(hostId, actualHostStates, instance);
         datacenterPowerOnRecord.hostReleaseInstance(hostId, datacenter.getSimulation().clock());
         return this;
     }
@@ -430,14 +602,39 @@ public class StatesManagerSimple implements StatesManager {
     @Override
     public Object getStateByType(String type) {
         return switch (type) {
-            case "detailed" ->
-                    new DetailedDcStateSimple(getCenterHostStates(), hostCapacityManager, simpleState.getCpuAvailableSum(), simpleState.getRamAvailableSum(), simpleState.getStorageAvailableSum(), simpleState.getBwAvailableSum());
+            case "detailed", "detailedDelta" ->
+                    new DetailedDcStateSimple(getCenterHostStates(), hostCapacityManager, freeCapacityIndex, simpleState.getCpuAvailableSum(), simpleState.getRamAvailableSum(), simpleState.getStorageAvailableSum(), simpleState.getBwAvailableSum());
             case "easySimple" -> simpleState.generate();
             case "null" -> null;
             default -> throw new IllegalArgumentException("Unrecognized state type: " + type);
         };
     }
 
+    /**
+     * Get the state object by type for a subscriber.
+     * For the "detailedDelta" type, the previous {@link DetailedDcStateSimple} got from this state manager is synchronized by delta and returned,
+     * that is, only the hosts changed in the center or by the subscriber since the last synchronization are copied.
+     * The result is the same as the "detailed" type, which copies all the host states every time.
+     * The other types are the same as {@link #getStateByType(String)}.
+     *
+     * @param type          the type of the simple state.
+     * @param previousState the state object got by the subscriber last time, null if there is none.
+     * @return the simple state object.
+     */
+    @Override
+    public Object getStateByType(String type, Object previousState) {
+        if (!"detailedDelta".equals(type)) {
+            return getStateByType(type);
+        }
+        if (previousState instanceof DetailedDcStateSimple previousDetailedState && deltaSynDetailedStates.contains(previousDetailedState)) {
+            return previousDetailedState.synDirtyHosts(getCenterHostStates(), simpleState.getCpuAvailableSum(), simpleState.getRamAvailableSum(), simpleState.getStorageAvailableSum(), simpleState.getBwAvailableSum());
+        }
+        DetailedDcStateSimple detailedState = (DetailedDcStateSimple) getStateByType(type);
+        detailedState.trackDirtyHosts();
+        deltaSynDetailedStates.add(detailedState);
+        return detailedState;
+    }
+
     @Override
     public boolean getPredictable() {
         return predictable;
@@ -449,23 +646,38 @@ public class StatesManagerSimple implements StatesManager {
         return this;
     }
 
+    @Override
+    public StatesManager setPredictionManager(PredictionManager predictionManager) {
+        this.predictionManager = predictionManager;
+        initHostStateHistory();
+        return this;
+    }
+
+    @Override
+    public StatesManager setPredictRecordNum(int predictRecordNum) {
+        this.predictRecordNum = predictRecordNum;
+        initHostStateHistory();
+        return this;
+    }
+
+    /**
+     * Initialize the records of the synchronized states in the prediction manager,
+     * which are used if it is an incremental one.
+     */
+    private void initHostStateHistory() {
+        if (predictionManager != null) {
+            predictionManager.initHostStateHistory(hostNum, partitionNum, predictRecordNum);
+        }
+    }
+
     @Override
     public HostState getActualHostState(int hostId) {
-        return new HostState(
-                actualHostStates[hostId * HostState.STATE_NUM],
-                actualHostStates[hostId * HostState.STATE_NUM + 1],
-                actualHostStates[hostId * HostState.STATE_NUM + 2],
-                actualHostStates[hostId * HostState.STATE_NUM + 3]);
+        return actualHostStates.getHostState(hostId);
     }
 
     @Override
     public HostState getCenterHostState(int hostId) {
-        int[] hostStates = getCenterHostStates();
-        return new HostState(
-                hostStates[hostId * HostState.STATE_NUM],
-                hostStates[hostId * HostState.STATE_NUM + 1],
-                hostStates[hostId * HostState.STATE_NUM + 2],
-                hostStates[hostId * HostState.STATE_NUM + 3]);
+        return getCenterHostStates().getHostState(hostId);
     }
 
     @Override
@@ -483,58 +695,44 @@ public class StatesManagerSimple implements StatesManager {
         }
 //        LOGGER.info("{}: revertHostState: clearPartitions: {}", datacenter.getSimulation().clock(), clearPartitions);
 
+        SelfHostStateStore selfHostState = selfHostStateMap.get(intraScheduler);
         for (Instance instance : intraSchedulerResult.getScheduledInstances()) {
             int hostId = instance.getExpectedScheduleHostId();
             int partitionId = partitionRangesManager.getPartitionId(hostId);
             if (clearPartitions.contains(partitionId)) {
-                int[] hostState;
-                if (selfHostStateMap.get(intraScheduler).get(partitionId).containsKey(hostId)) {
-                    hostState = selfHostStateMap.get(intraScheduler).get(partitionId).get(hostId);
-                }else{
-                    hostState = getLatestSynHostState(hostId);
+                if (!selfHostState.contains(partitionId, hostId)) {
+                    selfHostState.put(partitionId, hostId, getLatestSynHostState(hostId), 0);
                 }
-                hostState[0] -= instance.getCpu();
-                hostState[1] -= instance.getRam();
-                hostState[2] -= instance.getStorage();
-                hostState[3] -= instance.getBw();
-                selfHostStateMap.get(intraScheduler).get(partitionId).put(hostId, hostState);
+                selfHostState.allocate(partitionId, hostId, instance);
             }
         }
         return this;
     }
 
     /**
-     * Get the latest synchronized host state of the host with hostId.
+     * Get a copy of the latest synchronized host state of the host with hostId.
      * @param hostId the id of the host.
      * @return the host state.
      */
     private int[] getLatestSynHostState(int hostId) {
-        double time = synGapManager.getSynTime(synGapManager.getPartitionSynCount());
         int partitionId = partitionRangesManager.getPartitionId(hostId);
-        Map<Integer, int[]> partitionSynState = synStateMap.get(partitionId).get(time);
-        if (partitionSynState.containsKey(hostId)) {
-            return partitionSynState.get(hostId);
-        } else {
-            int[] hostState = new int[HostState.STATE_NUM];
-            System.arraycopy(getCenterHostStates(), hostId * HostState.STATE_NUM, hostState, 0, HostState.STATE_NUM);
-            return hostState;
+        int[] hostState = new int[HostState.STATE_NUM];
+        if (!synStateStore.copyState(partitionId, synGapManager.getPartitionSynCount(), hostId, hostState)) {
+            getCenterHostStates().copyTo(hostId, hostState, 0);
         }
+        return hostState;
     }
 
     @Override
     public StatesManager revertSelfHostState(List<Instance> instances, IntraScheduler intraScheduler) {
-        Map<Integer, Map<Integer, int[]>> selfHostState = selfHostStateMap.get(intraScheduler);
+        SelfHostStateStore selfHostState = selfHostStateMap.get(intraScheduler);
         for (Instance instance : instances) {
             if (instance.getRetryHostIds() == null || instance.getRetryHostIds().isEmpty()) {
                 LOGGER.error("{}: instance {} has no retry host id in revertSelftHostState function", getDatacenter().getSimulation().clockStr(), instance.getId());
                 System.exit(-1);
             }
             int hostId = instance.getRetryHostIds().get(instance.getRetryHostIds().size() - 1);
-            int[] hostState = selfHostState.get(partitionRangesManager.getPartitionId(hostId)).get(hostId);
-            hostState[0] += instance.getCpu();
-            hostState[1] += instance.getRam();
-            hostState[2] += instance.getStorage();
-            hostState[3] += instance.getBw();
+            selfHostState.release(partitionRangesManager.getPartitionId(hostId), hostId, instance);
         }
         return this;
     }
@@ -544,9 +742,12 @@ public class StatesManagerSimple implements StatesManager {
         if (!isNeedHeartbeat()) {
             return 0;
         }
+        return getNextHeartbeatTime(hostId, currentTime) - currentTime;
+    }
+
+    private int getNextHeartbeatTime(int hostId, double currentTime) {
         int heartBeatInitSendTime = heartbeatSendTime[hostId];
-        int nextHeartBeatTime = (int) ((currentTime - heartBeatInitSendTime) / heartbeatInterval) * heartbeatInterval + heartbeatInterval + heartBeatInitSendTime;
-        return nextHeartBeatTime - currentTime;
+        return (int) ((currentTime - heartBeatInitSendTime) / heartbeatInterval) * heartbeatInterval + heartbeatInterval + heartBeatInitSendTime;
     }
 
     @Override
@@ -640,28 +841,40 @@ public class StatesManagerSimple implements StatesManager {
      * @param hostId       The host id to be changed
      * @param synHostState The host state before the change
      */
-    private void updateSynStateMap(int hostId, int[] synHostState) {
-        int partitionId = partitionRangesManager.getPartitionId(hostId);
-        TreeMap<Double, Map<Integer, int[]>> partitionSynStateMap = synStateMap.get(partitionId);
-        double largestSynTime = partitionSynStateMap.lastKey();
-        if (!partitionSynStateMap.get(largestSynTime).containsKey(hostId)) {
-            partitionSynStateMap.get(largestSynTime).put(hostId, synHostState);
+    private void updateSynStateStore(int hostId, int[] synHostState) {
+        if (synStateStore.saveIfAbsent(partitionRangesManager.getPartitionId(hostId), hostId, synHostState, 0)
+                && predictable && predictionManager.isIncremental() && isSynCostTime()) {
+            predictionManager.recordHostState(hostId, synHostState, synGapManager.getPartitionSynCount());
+        }
+    }
+
+    /**
+     * Update the index and the delta synchronized states after the state of a host in the center is changed.
+     *
+     * @param hostId the id of the host.
+     */
+    private void centerHostStateChanged(int hostId) {
+        if (freeCapacityIndex != null) {
+            freeCapacityIndex.update(hostId);
+        }
+        for (DetailedDcStateSimple detailedState : deltaSynDetailedStates) {
+            detailedState.markDirty(hostId);
         }
     }
 
     /**
-     * Initialize the synStateMap.
+     * Update the index and the delta synchronized states after the states of many hosts in the center are changed.
      */
-    private void initSynStateMap() {
-        synStateMap = new HashMap<>();
-        for (int partitionId : partitionRangesManager.getPartitionIds()) {
-            TreeMap<Double, Map<Integer, int[]>> partitionSynStateMap = new TreeMap<>();
-            partitionSynStateMap.put(0.0, new HashMap<>());
-            synStateMap.put(partitionId, partitionSynStateMap);
+    private void centerHostStatesReset() {
+        if (freeCapacityIndex != null) {
+            freeCapacityIndex.invalidate();
+        }
+        for (DetailedDcStateSimple detailedState : deltaSynDetailedStates) {
+            detailedState.markAllDirty();
         }
     }
 
-    private int[] getCenterHostStates() {
+    private HostStateStore getCenterHostStates() {
         if (isNeedHeartbeat()) {
             return centerHostStates;
         } else {
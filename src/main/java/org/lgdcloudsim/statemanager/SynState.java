@@ -27,6 +27,38 @@ public interface SynState {
      */
     HostState getHostState(int hostId);
 
+    /**
+     * Copy the host state of the host with hostId in the intra-scheduler's view into the given array.
+     * Unlike {@link #getHostState(int)}, it doesn't need to create a {@link HostState},
+     * so the schedulers can call it for every probed host with a reused array.
+     *
+     * @param hostId    the id of the host.
+     * @param hostState the array to copy the cpu, ram, storage and bw of the host into.
+     */
+    default void fillHostState(int hostId, int[] hostState) {
+        HostState state = getHostState(hostId);
+        hostState[0] = state.getCpu();
+        hostState[1] = state.getRam();
+        hostState[2] = state.getStorage();
+        hostState[3] = state.getBw();
+    }
+
+    /**
+     * Judging whether the given resources are available on the host with hostId according to SynState.
+     * It is the primitive version of {@link #isSuitable(int, Instance)}, which doesn't need to create a {@link HostState}.
+     *
+     * @param hostId  the id of the host.
+     * @param cpu     the required cpu.
+     * @param ram     the required ram.
+     * @param storage the required storage.
+     * @param bw      the required bw.
+     * @return true if the resources are available on the host, otherwise false.
+     */
+    default boolean isSuitable(int hostId, int cpu, int ram, int storage, int bw) {
+        HostState state = getHostState(hostId);
+        return state.getCpu() >= cpu && state.getRam() >= ram && state.getStorage() >= storage && state.getBw() >= bw;
+    }
+
     /**
      * Judging whether this instance is suitable to be placed on the host with hostId according to SynState
      * @param hostId the id of the host.
@@ -35,6 +67,25 @@ public interface SynState {
      */
     boolean isSuitable(int hostId, Instance instance);
 
+    /**
+     * Find the first host in the range that the instance is suitable to be placed on according to SynState.
+     * It is the same as calling {@link #isSuitable(int, Instance)} from fromHostId to toHostId,
+     * but an implementation can skip the hosts that can't fit the instance with an index, see {@link HostFreeCapacityIndex}.
+     *
+     * @param fromHostId the first host id of the range.
+     * @param toHostId   the last host id of the range, inclusive.
+     * @param instance   the instance to be placed.
+     * @return the id of the first suitable host, -1 if there is no suitable host in the range.
+     */
+    default int findFirstSuitableHost(int fromHostId, int toHostId, Instance instance) {
+        for (int hostId = fromHostId; hostId <= toHostId; hostId++) {
+            if (isSuitable(hostId, instance)) {
+                return hostId;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Pretend that resources have been allocated on this host and modify the corresponding SysState
      * @param hostId the id of the host.
@@ -32,18 +32,33 @@ public class SynStateSimple implements SynState {
      **/
 
     @Getter
-    Map<Integer, Map<Integer, int[]>> selfHostState;
+    SelfHostStateStore selfHostState;
 
     /**
      * The host status here refers to the host status obtained during synchronization
      **/
     @Getter
-    Map<Integer, TreeMap<Double, Map<Integer, int[]>>> synState;
+    SynStateStore synState;
+
+    /**
+     * The buffer to copy the synchronized host state into, so that reading it doesn't allocate
+     **/
+    int[] synHostStateBuffer = new int[HostState.STATE_NUM];
+
+    /**
+     * The buffer to copy the host state into in {@link #getHostState} and {@link #isSuitable}
+     **/
+    int[] hostStateBuffer = new int[HostState.STATE_NUM];
 
     /**
      * The actual state of all hosts in the datacenter
      **/
-    int[] nowHostStates;
+    HostStateStore nowHostStates;
+
+    /**
+     * The index of the free capacity of nowHostStates, see {@link HostFreeCapacityIndex}
+     **/
+    HostFreeCapacityIndex freeCapacityIndex;
 
     /**
      * see {@link  PartitionRangesManager}
@@ -61,14 +76,16 @@ public class SynStateSimple implements SynState {
     int latestSynPartitionId;
 
     /**
-     * The small syn count when the state was last synced for each region
+     * The small syn count when the state was last synced for each region.
+     * The partition id is the index of the array.
      **/
-    Map<Integer, Integer> partitionLatestSynCount = new HashMap<>();
+    int[] partitionLatestSynCount;
 
     /**
-     * Earliest recorded small syn count for each partition, which is used by the {@link PredictionManager}
+     * Earliest recorded small syn count for each partition, which is used by the {@link PredictionManager}.
+     * The partition id is the index of the array.
      **/
-    Map<Integer, Integer> partitionOldSynCount = new HashMap<>();
+    int[] partitionOldSynCount;
 
     /**
      * The host status has been predicted, the purpose of this data is to prevent repeated predictions
@@ -90,6 +107,8 @@ public class SynStateSimple implements SynState {
      *
      * @param synState               the state of the hosts in different partition synchronization time.
      * @param nowHostStates          the actual state of all hosts in the datacenter.
+     * @param freeCapacityIndex      the index of the free capacity of nowHostStates, null if there is no index,
+     *                               which must be null when the synchronized host states are used.
      * @param partitionRangesManager the partition ranges manager.
      * @param selfHostState          the state of the hosts that the intra-scheduler have scheduled instances to.
      * @param scheduler              the intra-scheduler.
@@ -98,29 +117,33 @@ public class SynStateSimple implements SynState {
      * @param predictRecordNum       the record data num for predicting.
      * @param predictable            whether to use the prediction function.
      */
-    public SynStateSimple(Map<Integer, TreeMap<Double, Map<Integer, int[]>>> synState, int[] nowHostStates,
-                          PartitionRangesManager partitionRangesManager, Map<Integer, Map<Integer, int[]>> selfHostState, IntraScheduler scheduler,
+    public SynStateSimple(SynStateStore synState, HostStateStore nowHostStates, HostFreeCapacityIndex freeCapacityIndex,
+                          PartitionRangesManager partitionRangesManager, SelfHostStateStore selfHostState, IntraScheduler scheduler,
                           PredictionManager predictionManager, SynGapManager synGapManager, int predictRecordNum, boolean predictable) {
         this.synState = synState;
         this.nowHostStates = nowHostStates;
+        this.freeCapacityIndex = freeCapacityIndex;
         this.partitionRangesManager = partitionRangesManager;
         this.selfHostState = selfHostState;
         this.predictionManager = predictionManager;
         this.synGapManager = synGapManager;
         this.predictable = predictable;
         this.latestSynPartitionId = (scheduler.getFirstPartitionId() + synGapManager.getPartitionSynCount()) % partitionRangesManager.getPartitionNum();
+        int partitionIdNum = Arrays.stream(partitionRangesManager.getPartitionIds()).max().orElse(-1) + 1;
+        this.partitionLatestSynCount = new int[partitionIdNum];
+        this.partitionOldSynCount = new int[partitionIdNum];
 
         for (int partitionId : partitionRangesManager.getPartitionIds()) {
             int partDistanceLatestSynPartition = (latestSynPartitionId + partitionRangesManager.getPartitionNum() - partitionId) % partitionRangesManager.getPartitionNum();
             int partLatestSmallSynGapCount = max(0, synGapManager.getPartitionSynCount() - partDistanceLatestSynPartition);
-            partitionLatestSynCount.put(partitionId, partLatestSmallSynGapCount);
+            partitionLatestSynCount[partitionId] = partLatestSmallSynGapCount;
 
             int additionRecordNum = 0;
             if (predictable) {
                 additionRecordNum = min(partLatestSmallSynGapCount / partitionRangesManager.getPartitionNum(), predictRecordNum - 1);
             }
             int partOldSmallSynGapCount = partLatestSmallSynGapCount - partitionRangesManager.getPartitionNum() * additionRecordNum;
-            partitionOldSynCount.put(partitionId, partOldSmallSynGapCount);
+            partitionOldSynCount[partitionId] = partOldSmallSynGapCount;
         }
     }
 
@@ -134,22 +157,34 @@ public class SynStateSimple implements SynState {
      */
     @Override
     public HostState getHostState(int hostId){
+        fillHostState(hostId, hostStateBuffer);
+        return new HostState(hostStateBuffer);
+    }
+
+    /**
+     * Copy the host state in the same order as {@link #getHostState(int)} without creating any object,
+     * unless the host state needs to be predicted for the first time.
+     *
+     * @param hostId    the id of the host.
+     * @param hostState the array to copy the host state into.
+     */
+    @Override
+    public void fillHostState(int hostId, int[] hostState) {
         int partitionId = partitionRangesManager.getPartitionId(hostId);
-        if (selfHostState.get(partitionId).containsKey(hostId)) {
-            return new HostState(selfHostState.get(partitionId).get(hostId));
-        }else{
-            int[] hostState;
-            if (predictable) {
-                hostState = getPredictSynState(hostId);
-            } else {
-                hostState = getSynHostState(hostId);
-            }
+        if (selfHostState.copyState(partitionId, hostId, hostState)) {
+            return;
+        }
+        int[] synHostState;
+        if (predictable) {
+            synHostState = getPredictSynState(hostId);
+        } else {
+            synHostState = getSynHostState(hostId);
+        }
 
-            if (hostState == null) {
-                return new HostState(nowHostStates[hostId * HostState.STATE_NUM], nowHostStates[hostId * HostState.STATE_NUM + 1], nowHostStates[hostId * HostState.STATE_NUM + 2], nowHostStates[hostId * HostState.STATE_NUM + 3]);
-            } else {
-                return new HostState(hostState);
-            }
+        if (synHostState == null) {
+            nowHostStates.copyTo(hostId, hostState, 0);
+        } else {
+            System.arraycopy(synHostState, 0, hostState, 0, HostState.STATE_NUM);
         }
     }
 
@@ -162,8 +197,47 @@ public class SynStateSimple implements SynState {
      */
     @Override
     public boolean isSuitable(int hostId, Instance instance) {
-        HostState hostState = getHostState(hostId);
-        return hostState.isSuitable(instance);
+        return isSuitable(hostId, instance.getCpu(), instance.getRam(), instance.getStorage(), instance.getBw());
+    }
+
+    @Override
+    public boolean isSuitable(int hostId, int cpu, int ram, int storage, int bw) {
+        fillHostState(hostId, hostStateBuffer);
+        return hostStateBuffer[0] >= cpu && hostStateBuffer[1] >= ram && hostStateBuffer[2] >= storage && hostStateBuffer[3] >= bw;
+    }
+
+    /**
+     * Find the first suitable host in the range.
+     * Without the synchronization cost, the state of a host in the view is either nowHostStates
+     * or the selfHostState, which is nowHostStates minus the resources allocated by the intra-scheduler since the state was got,
+     * so the hosts that don't fit in nowHostStates are skipped with the freeCapacityIndex and only the candidates are checked.
+     * With the synchronization cost, the synchronized host states may have more resources than nowHostStates,
+     * so the {@link StatesManagerSimple} doesn't keep the index and all the hosts are checked.
+     *
+     * @param fromHostId the first host id of the range.
+     * @param toHostId   the last host id of the range, inclusive.
+     * @param instance   the instance to be placed.
+     * @return the id of the first suitable host, -1 if there is no suitable host in the range.
+     */
+    @Override
+    public int findFirstSuitableHost(int fromHostId, int toHostId, Instance instance) {
+        if (freeCapacityIndex == null) {
+            return SynState.super.findFirstSuitableHost(fromHostId, toHostId, instance);
+        }
+        int cpu = instance.getCpu();
+        int ram = instance.getRam();
+        int storage = instance.getStorage();
+        int bw = instance.getBw();
+        for (int hostId = fromHostId; hostId <= toHostId; hostId++) {
+            hostId = freeCapacityIndex.findFirst(hostId, toHostId, cpu, ram, storage, bw);
+            if (hostId < 0) {
+                return -1;
+            }
+            if (isSuitable(hostId, cpu, ram, storage, bw)) {
+                return hostId;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -177,40 +251,27 @@ public class SynStateSimple implements SynState {
      */
     @Override
     public void allocateTmpResource(int hostId, Instance instance) {
-        int[] hostState;
         int partitionId = partitionRangesManager.getPartitionId(hostId);
-        if (selfHostState.get(partitionId).containsKey(hostId)) {
-            hostState = selfHostState.get(partitionId).get(hostId);
-            hostState[0] -= instance.getCpu();
-            hostState[1] -= instance.getRam();
-            hostState[2] -= instance.getStorage();
-            hostState[3] -= instance.getBw();
-        } else {
+        if (!selfHostState.contains(partitionId, hostId)) {
+            int[] hostState;
             if (predictable) {
                 hostState = getPredictSynState(hostId);
             } else {
                 hostState = getSynHostState(hostId);
             }
             if (hostState != null) {
-                selfHostState.get(partitionId).put(hostId, new int[]{
-                        hostState[0] - instance.getCpu(),
-                        hostState[1] - instance.getRam(),
-                        hostState[2] - instance.getStorage(),
-                        hostState[3] - instance.getBw()
-                });
+                selfHostState.put(partitionId, hostId, hostState, 0);
             } else {
-                selfHostState.get(partitionId).put(hostId, new int[]{
-                        nowHostStates[hostId * HostState.STATE_NUM] - instance.getCpu(),
-                        nowHostStates[hostId * HostState.STATE_NUM + 1] - instance.getRam(),
-                        nowHostStates[hostId * HostState.STATE_NUM + 2] - instance.getStorage(),
-                        nowHostStates[hostId * HostState.STATE_NUM + 3] - instance.getBw()
-                });
+                nowHostStates.copyTo(hostId, hostStateBuffer, 0);
+                selfHostState.put(partitionId, hostId, hostStateBuffer, 0);
             }
         }
+        selfHostState.allocate(partitionId, hostId, instance);
     }
 
     /**
      * Get the state of the host when synchronized.
+     * The state is copied into {@link #synHostStateBuffer}, so it is only valid until the next call.
      *
      * @param hostId the host id to get the state
      * @return the state of the host when synchronized
@@ -220,13 +281,11 @@ public class SynStateSimple implements SynState {
             return null;
         }
         int partitionId = partitionRangesManager.getPartitionId(hostId);
-        TreeMap<Double, Map<Integer, int[]>> partitionSynState = synState.get(partitionId);
         //TODO 这里需要再细看一下
-        int latestSmallSynCount = partitionLatestSynCount.get(partitionId);
+        int latestSmallSynCount = partitionLatestSynCount[partitionId];
         while (latestSmallSynCount <= synGapManager.getPartitionSynCount()) {
-            double synTime = synGapManager.getSynTime(latestSmallSynCount);
-            if (partitionSynState.containsKey(synTime) && partitionSynState.get(synTime).containsKey(hostId)) {
-                return partitionSynState.get(synTime).get(hostId);
+            if (synState.copyState(partitionId, latestSmallSynCount, hostId, synHostStateBuffer)) {
+                return synHostStateBuffer;
             }
             latestSmallSynCount++;
         }
@@ -237,7 +296,8 @@ public class SynStateSimple implements SynState {
      * Get the predicted host state.
      * Note that if the smallSynGap is 0, the predicted host state is null.
      * Because we have the latest host state,we don't need to predict the host state.
-     * It will use the data stored in synState for a period of time to make predictions.
+     * It will use the data stored in synState for a period of time to make predictions,
+     * or the states recorded by the prediction manager since the oldest sync count of the partition if it is incremental.
      *
      * @param hostId the host id to predict
      * @return the predicted host state
@@ -249,17 +309,22 @@ public class SynStateSimple implements SynState {
         if (predictHostStateMap.containsKey(hostId)) {
             return predictHostStateMap.get(hostId);
         }
-        List<HostStateHistory> hostStateHistories = new ArrayList<>();
         int partitionId = partitionRangesManager.getPartitionId(hostId);
-        TreeMap<Double, Map<Integer, int[]>> partitionSynState = synState.get(partitionId);
-        int latestSmallSynCount = partitionLatestSynCount.get(partitionId);
-        int oldSmallSynCount = partitionOldSynCount.get(partitionId);
+        if (predictionManager.isIncremental()) {
+            int[] predictHostState = predictionManager.predictHostState(hostId, partitionOldSynCount[partitionId]);
+            if (predictHostState != null) {
+                predictHostStateMap.put(hostId, predictHostState);
+            }
+            return predictHostState;
+        }
+        List<HostStateHistory> hostStateHistories = new ArrayList<>();
+        int latestSmallSynCount = partitionLatestSynCount[partitionId];
+        int oldSmallSynCount = partitionOldSynCount[partitionId];
         int tmpCount = oldSmallSynCount;
         while (tmpCount <= synGapManager.getPartitionSynCount()) {
             if (tmpCount >= oldSmallSynCount) {
-                double time = synGapManager.getSynTime(tmpCount);
-                if (partitionSynState.containsKey(time) && partitionSynState.get(time).containsKey(hostId)) {
-                    hostStateHistories.add(new HostStateHistory(partitionSynState.get(time).get(hostId), time));
+                if (synState.copyState(partitionId, tmpCount, hostId, synHostStateBuffer)) {
+                    hostStateHistories.add(new HostStateHistory(synHostStateBuffer, synGapManager.getSynTime(tmpCount)));
                 }
                 do {
                     oldSmallSynCount += partitionRangesManager.getPartitionNum();
@@ -0,0 +1,79 @@
+package org.lgdcloudsim.statemanager;
+
+/**
+ * A store of the host states for the partition synchronization, see {@link StatesManagerSimple}.
+ * After every partition synchronization, a new sync epoch starts,
+ * and the state of a host is saved before it changes, so that the intra-schedulers can read the state of a host
+ * as it was when its partition was synchronized.
+ * <p>
+ * There are two kinds of stores:
+ * <ul>
+ *     <li>"epoch": {@link PartitionSynStateStore}, which saves the state of a host into a hash table of the latest epoch before its first change in the epoch.</li>
+ *     <li>"changeLog": {@link ChangeLogSynStateStore}, which appends every change to a log
+ *     and finds the saved states only for the hosts that are read.</li>
+ * </ul>
+ *
+ * @author Anonymous
+ * @since LGDCloudSim 1.0
+ */
+public interface SynStateStore {
+    /**
+     * Create a store of the given type.
+     *
+     * @param type                   the type of the store, "epoch" or "changeLog"
+     * @param partitionRangesManager the partition ranges manager of the datacenter
+     * @param retainedEpochNum       the number of the latest epochs to keep
+     * @return the store
+     */
+    static SynStateStore create(String type, PartitionRangesManager partitionRangesManager, int retainedEpochNum) {
+        return switch (type) {
+            case "epoch" -> new PartitionSynStateStore(partitionRangesManager, retainedEpochNum);
+            case "changeLog" -> new ChangeLogSynStateStore(retainedEpochNum);
+            default -> throw new IllegalArgumentException("Unknown sync state store type: " + type);
+        };
+    }
+
+    /**
+     * Drop all the epochs and restart from the sync count 0.
+     */
+    void clear();
+
+    /**
+     * Start a new epoch after a partition synchronization.
+     * The epochs older than the latest retainedEpochNum epochs are expired.
+     *
+     * @param synCount         the new partition sync count, which must be larger than the latest one
+     * @param retainedEpochNum the number of the latest epochs to keep
+     */
+    void startEpoch(int synCount, int retainedEpochNum);
+
+    /**
+     * Save the state of a host before it changes in the latest epoch.
+     *
+     * @param partitionId the partition id of the host
+     * @param hostId      the id of the host
+     * @param hostStates  the array containing the state of the host
+     * @param offset      the offset of the state in hostStates
+     * @return true if it is the first state of the host saved in the epoch, as far as the store knows
+     */
+    boolean saveIfAbsent(int partitionId, int hostId, int[] hostStates, int offset);
+
+    /**
+     * Copy the state of a host saved in an epoch, which is the state of the host when the epoch started
+     * if the host changed in the epoch.
+     *
+     * @param partitionId the partition id of the host
+     * @param synCount    the sync count of the epoch
+     * @param hostId      the id of the host
+     * @param hostState   the array to copy the state into
+     * @return true if the epoch is kept and the state of the host is saved in it, false otherwise
+     */
+    boolean copyState(int partitionId, int synCount, int hostId, int[] hostState);
+
+    /**
+     * Finish the lazy work of the store, so that {@link #copyState} doesn't change the store
+     * and can be called concurrently until the next state is saved or the next epoch starts.
+     */
+    default void prepareConcurrentReads() {
+    }
+}
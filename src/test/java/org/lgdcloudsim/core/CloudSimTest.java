@@ -0,0 +1,145 @@
+package org.lgdcloudsim.core;
+
+import org.junit.jupiter.api.Test;
+import org.lgdcloudsim.core.events.SimEvent;
+import org.lgdcloudsim.datacenter.CollaborationManagerSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CloudSimTest {
+    private static final CloudActionTags[] TAGS = {CloudActionTags.INTRA_SCHEDULE_BEGIN, CloudActionTags.INTRA_SCHEDULE_END,
+            CloudActionTags.INTER_SCHEDULE_BEGIN, CloudActionTags.USER_REQUEST_SEND};
+
+    /**
+     * An entity that records the events it processes and sends a few events to random entities for each event.
+     */
+    private static class RecordingEntity extends CloudSimEntity {
+        private final List<RecordingEntity> entities;
+        private final Random random;
+        private final List<String> processedEvents = new ArrayList<>();
+        private int sentNum;
+
+        RecordingEntity(Simulation simulation, List<RecordingEntity> entities, int seed) {
+            super(simulation);
+            this.entities = entities;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        protected void startInternal() {
+            sendRandomEvents(3);
+        }
+
+        @Override
+        public void processEvent(SimEvent evt) {
+            processedEvents.add(evt.getTime() + " " + evt.getTag() + " " + evt.getData());
+            sendRandomEvents(random.nextInt(3));
+        }
+
+        private void sendRandomEvents(int num) {
+            for (int i = 0; i < num && sentNum < 300; i++) {
+                RecordingEntity dest = entities.get(random.nextInt(entities.size()));
+                schedule(dest, random.nextInt(2), TAGS[random.nextInt(TAGS.length)], getId() + "-" + sentNum++);
+            }
+        }
+    }
+
+    /**
+     * An entity that records the data of the events it processes.
+     */
+    private static class MailboxEntity extends CloudSimEntity {
+        private final List<Object> processedData = new ArrayList<>();
+
+        MailboxEntity(Simulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        protected void startInternal() {
+        }
+
+        @Override
+        public void processEvent(SimEvent evt) {
+            processedData.add(evt.getData());
+        }
+    }
+
+    private List<List<String>> runRandomScenario(int parallelism) {
+        CloudSim simulation = new CloudSim();
+        new CollaborationManagerSimple(simulation);
+        simulation.setParallelism(parallelism);
+        List<RecordingEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            entities.add(new RecordingEntity(simulation, entities, i));
+        }
+        simulation.startSync();
+        while (simulation.processEvents(Double.MAX_VALUE)) {
+        }
+        simulation.setParallelism(1);
+        return entities.stream().map(entity -> entity.processedEvents).toList();
+    }
+
+    @Test
+    void testParallelSameAsSequential() {
+        List<List<String>> sequential = runRandomScenario(1);
+        assertTrue(sequential.stream().mapToInt(List::size).sum() > 1000);
+        for (int parallelism : new int[]{2, 4}) {
+            assertEquals(sequential, runRandomScenario(parallelism));
+        }
+    }
+
+    @Test
+    void testReadyEntities() {
+        for (int parallelism : new int[]{1, 2}) {
+            checkReadyEntities(parallelism);
+        }
+    }
+
+    private void checkReadyEntities(int parallelism) {
+        CloudSim simulation = new CloudSim();
+        new CollaborationManagerSimple(simulation);
+        simulation.setParallelism(parallelism);
+        MailboxEntity busy = new MailboxEntity(simulation);
+        MailboxEntity idle = new MailboxEntity(simulation);
+        simulation.startSync();
+        busy.schedule(busy, 1, CloudActionTags.NONE, "busy1");
+        busy.schedule(idle, 2, CloudActionTags.NONE, "idle2");
+        busy.schedule(busy, 3, CloudActionTags.NONE, "busy3");
+        busy.schedule(busy, 4, CloudActionTags.NONE, "busy4");
+
+        simulation.processEvents(Double.MAX_VALUE);
+        assertTrue(simulation.isReadyEntity(busy));
+        assertFalse(simulation.isReadyEntity(idle));
+
+        simulation.processEvents(Double.MAX_VALUE);
+        assertEquals(List.of("busy1"), busy.processedData);
+        assertFalse(simulation.isReadyEntity(busy));
+        assertTrue(simulation.isReadyEntity(idle));
+
+        idle.setState(SimEntity.State.WAITING);
+        simulation.processEvents(Double.MAX_VALUE);
+        assertTrue(idle.processedData.isEmpty());
+        assertTrue(simulation.isReadyEntity(idle));
+        assertTrue(simulation.isReadyEntity(busy));
+
+        idle.setState(SimEntity.State.HOLDING);
+        simulation.processEvents(Double.MAX_VALUE);
+        assertEquals(List.of("busy1", "busy3"), busy.processedData);
+        assertTrue(idle.processedData.isEmpty());
+        assertTrue(simulation.isReadyEntity(idle));
+
+        idle.setState(SimEntity.State.RUNNABLE);
+        simulation.processEvents(Double.MAX_VALUE);
+        assertEquals(List.of("idle2"), idle.processedData);
+        assertEquals(List.of("busy1", "busy3", "busy4"), busy.processedData);
+        assertFalse(simulation.isReadyEntity(idle));
+        assertFalse(simulation.isReadyEntity(busy));
+        simulation.setParallelism(1);
+    }
+}
@@ -0,0 +1,142 @@
+package org.lgdcloudsim.core;
+
+import org.junit.jupiter.api.Test;
+import org.lgdcloudsim.core.events.SimEvent;
+import org.lgdcloudsim.datacenter.CollaborationManagerSimple;
+import org.lgdcloudsim.datacenter.DatacenterSimple;
+import org.lgdcloudsim.intrascheduler.IntraScheduler;
+import org.lgdcloudsim.intrascheduler.IntraSchedulerFirstFit;
+import org.lgdcloudsim.intrascheduler.IntraSchedulerResult;
+import org.lgdcloudsim.request.Instance;
+import org.lgdcloudsim.request.InstanceSimple;
+import org.lgdcloudsim.request.UserRequest;
+import org.lgdcloudsim.request.UserRequestSimple;
+import org.lgdcloudsim.statemanager.PartitionRangesManager;
+import org.lgdcloudsim.statemanager.StatesManager;
+import org.lgdcloudsim.statemanager.StatesManagerSimple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelIntraSchedulingTest {
+    private static final int HOST_NUM = 40;
+    private static final int PARTITION_NUM = 4;
+    private static final int SCHEDULER_NUM = 4;
+
+    /**
+     * A datacenter that records the results of the intra-schedulers instead of allocating them.
+     */
+    private static class RecordingDatacenter extends DatacenterSimple {
+        private final List<String> intraScheduleEnds = new ArrayList<>();
+
+        RecordingDatacenter(Simulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        public void processEvent(SimEvent evt) {
+            if (evt.getTag() == CloudActionTags.INTRA_SCHEDULE_END && evt.getData() instanceof IntraSchedulerResult result) {
+                StringBuilder record = new StringBuilder(evt.getTime() + " " + result.getIntraScheduler().getName());
+                for (Instance instance : result.getScheduledInstances()) {
+                    record.append(' ').append(instance.getId()).append("->").append(instance.getExpectedScheduleHostId());
+                }
+                record.append(" failed ").append(result.getFailedInstances().size());
+                intraScheduleEnds.add(record.toString());
+            } else {
+                super.processEvent(evt);
+            }
+        }
+    }
+
+    /**
+     * A first-fit intra-scheduler whose schedule cost time doesn't depend on the wall time.
+     */
+    private static class FixedCostIntraScheduler extends IntraSchedulerFirstFit {
+        FixedCostIntraScheduler(int id) {
+            super(id, id % PARTITION_NUM, PARTITION_NUM);
+        }
+
+        @Override
+        public IntraSchedulerResult schedule() {
+            IntraSchedulerResult result = super.schedule();
+            setScheduleCostTime(SCHEDULER_NUM - getId() % 2);
+            return result;
+        }
+    }
+
+    /**
+     * An entity that starts all the intra-schedulers of the datacenter at the same time.
+     */
+    private static class IntraScheduleStarter extends CloudSimEntity {
+        private final DatacenterSimple datacenter;
+
+        IntraScheduleStarter(Simulation simulation, DatacenterSimple datacenter) {
+            super(simulation);
+            this.datacenter = datacenter;
+        }
+
+        @Override
+        protected void startInternal() {
+            for (IntraScheduler intraScheduler : datacenter.getIntraSchedulers()) {
+                schedule(datacenter, 1, CloudActionTags.INTRA_SCHEDULE_BEGIN, intraScheduler);
+            }
+        }
+
+        @Override
+        public void processEvent(SimEvent evt) {
+        }
+    }
+
+    private List<String> runIntraScheduling(boolean parallelIntraScheduling) {
+        CloudSim simulation = new CloudSim();
+        new CollaborationManagerSimple(simulation);
+        simulation.setParallelism(SCHEDULER_NUM);
+        RecordingDatacenter datacenter = new RecordingDatacenter(simulation);
+        datacenter.setParallelIntraScheduling(parallelIntraScheduling);
+
+        Map<Integer, int[]> ranges = new HashMap<>();
+        for (int i = 0; i < PARTITION_NUM; i++) {
+            ranges.put(i, new int[]{i * HOST_NUM / PARTITION_NUM, (i + 1) * HOST_NUM / PARTITION_NUM - 1});
+        }
+        StatesManager statesManager = new StatesManagerSimple(HOST_NUM, new PartitionRangesManager(ranges), 0);
+        statesManager.setDatacenter(datacenter);
+        datacenter.setStatesManager(statesManager);
+        statesManager.initHostStates(10, 10, 10, 10, 0, HOST_NUM);
+
+        Random random = new Random(1);
+        UserRequest userRequest = new UserRequestSimple(0);
+        List<IntraScheduler> intraSchedulers = new ArrayList<>();
+        for (int i = 0; i < SCHEDULER_NUM; i++) {
+            FixedCostIntraScheduler intraScheduler = new FixedCostIntraScheduler(i);
+            List<Instance> instances = new ArrayList<>();
+            for (int j = 0; j < 30; j++) {
+                Instance instance = new InstanceSimple(i * 100 + j, 1 + random.nextInt(6), 1 + random.nextInt(6), 1, 1);
+                instance.setUserRequest(userRequest);
+                instances.add(instance);
+            }
+            intraScheduler.getInstanceQueue().setBatchNum(instances.size());
+            intraScheduler.addInstance(instances, false);
+            intraSchedulers.add(intraScheduler);
+        }
+        datacenter.setIntraSchedulers(intraSchedulers);
+        new IntraScheduleStarter(simulation, datacenter);
+
+        simulation.startSync();
+        while (simulation.processEvents(Double.MAX_VALUE)) {
+        }
+        simulation.setParallelism(1);
+        return datacenter.intraScheduleEnds;
+    }
+
+    @Test
+    void testSamePlacementsAsSequential() {
+        List<String> sequential = runIntraScheduling(false);
+        assertEquals(SCHEDULER_NUM, sequential.size());
+        assertEquals(sequential, runIntraScheduling(true));
+    }
+}
@@ -0,0 +1,59 @@
+package org.lgdcloudsim.core.events;
+
+import org.junit.Test;
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.core.Simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CalendarFutureQueueTest extends FutureQueueTest {
+    @Override
+    public FutureQueue createEventQueue() {
+        return new CalendarFutureQueue();
+    }
+
+    @Test
+    public void testSameOrderAsFutureQueue() {
+        Simulation simulation = new CloudSim();
+        FakeEntity entity = new FakeEntity(simulation);
+        FutureQueue expectedQueue = new FutureQueue();
+        FutureQueue actualQueue = createEventQueue();
+        CloudActionTags[] tags = CloudActionTags.values();
+        Random random = new Random(0);
+
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 1000; i++) {
+                double delay = random.nextInt(10) == 0 ? random.nextInt(100000) : random.nextInt(100) / 10.0;
+                CloudActionTags tag = tags[random.nextInt(tags.length)];
+                expectedQueue.addEvent(new CloudSimEvent(delay, entity, entity, tag, null));
+                actualQueue.addEvent(new CloudSimEvent(delay, entity, entity, tag, null));
+            }
+            for (int i = 0; i < 900; i++) {
+                SimEvent expected = expectedQueue.first();
+                SimEvent actual = actualQueue.first();
+                assertEquals(expected, actual);
+                simulation.setClock(actual.getTime());
+                assertTrue(expectedQueue.remove(expected));
+                assertTrue(actualQueue.remove(actual));
+            }
+            assertEquals(expectedQueue.size(), actualQueue.size());
+        }
+
+        List<SimEvent> remaining = new ArrayList<>();
+        while (!actualQueue.isEmpty()) {
+            SimEvent actual = actualQueue.first();
+            assertEquals(expectedQueue.first(), actual);
+            expectedQueue.remove(actual);
+            actualQueue.remove(actual);
+            remaining.add(actual);
+        }
+        assertTrue(expectedQueue.isEmpty());
+        assertEquals(5000, remaining.size());
+    }
+}
@@ -0,0 +1,96 @@
+package org.lgdcloudsim.core.events;
+
+import org.junit.Test;
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.core.Simulation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class CloudSimEventPoolTest {
+    @Test
+    public void testReuse() {
+        Simulation simulation = new CloudSim();
+        FakeEntity entity = new FakeEntity(simulation);
+        CloudSimEventPool pool = new CloudSimEventPool();
+        pool.setEnabled(true);
+
+        CloudSimEvent first = pool.acquire(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, "first");
+        first.setSerial(3);
+        pool.release(first);
+        assertEquals(1, pool.getFreeNum());
+        assertThrows(IllegalStateException.class, () -> pool.release(first));
+
+        CloudSimEvent second = pool.acquire(2, entity, entity, CloudActionTags.INTRA_SCHEDULE_BEGIN, "second");
+        assertSame(first, second);
+        assertEquals(2, second.getTime(), 0);
+        assertEquals(CloudActionTags.INTRA_SCHEDULE_BEGIN, second.getTag());
+        assertEquals("second", second.getData());
+        assertEquals(-1, second.getSerial());
+        assertEquals(1, pool.getCreatedNum());
+        assertEquals(1, pool.getReusedNum());
+
+        SimEvent notPooled = new CloudSimEvent(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, null);
+        pool.release(notPooled);
+        assertEquals(0, pool.getFreeNum());
+    }
+
+    @Test
+    public void testDebugDetectsRetainedEvent() {
+        Simulation simulation = new CloudSim();
+        FakeEntity entity = new FakeEntity(simulation);
+        CloudSimEventPool pool = new CloudSimEventPool();
+        pool.setEnabled(true);
+        pool.setDebug(true);
+
+        CloudSimEvent retained = pool.acquire(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, "data");
+        pool.release(retained);
+        assertEquals(0, pool.getFreeNum());
+        assertNotSame(retained, pool.acquire(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, "data"));
+        assertThrows(IllegalStateException.class, retained::getData);
+        assertThrows(IllegalStateException.class, retained::getDestination);
+    }
+
+    @Test
+    public void testReleaseCoalescedEvent() {
+        Simulation simulation = new CloudSim();
+        FakeEntity entity = new FakeEntity(simulation);
+        CloudSimEventPool pool = new CloudSimEventPool();
+        pool.setEnabled(true);
+        FutureQueue queue = new FutureQueue();
+        queue.setEventPool(pool);
+        queue.setCoalescingEnabled(true);
+
+        CloudSimEvent first = pool.acquire(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, List.of(1));
+        CloudSimEvent coalesced = pool.acquire(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, List.of(2));
+        queue.addEvent(first);
+        queue.addEvent(coalesced);
+        assertEquals(1, queue.size());
+        assertEquals(List.of(1, 2), first.getData());
+        assertEquals(1, pool.getFreeNum());
+        assertSame(coalesced, pool.acquire(2, entity, entity, CloudActionTags.NONE, null));
+    }
+
+    @Test
+    public void testRoundTimeSameAsBigDecimal() {
+        Random random = new Random(0);
+        for (int i = 0; i < 1_000_000; i++) {
+            double time = switch (i % 3) {
+                case 0 -> random.nextInt(1_000_000) / 10.0 + random.nextInt(1000) / 100.0;
+                case 1 -> random.nextInt(100_000) + 0.0005 * random.nextInt(3);
+                default -> random.nextDouble() * 1e7;
+            };
+            int accuracy = random.nextInt(5);
+            assertEquals(BigDecimal.valueOf(time).setScale(accuracy, RoundingMode.HALF_UP).doubleValue(),
+                    CloudSimEvent.roundTime(time, accuracy), 0);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.lgdcloudsim.core.events;
+
+import org.junit.Test;
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.core.Simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EntityDeferredQueueTest extends EventQueueTestBase<EntityDeferredQueue> {
+    public EntityDeferredQueue createEventQueue() {
+        return new EntityDeferredQueue();
+    }
+
+    @Test
+    public void testPollByEntity() {
+        Simulation simulation = new CloudSim();
+        FakeEntity first = new FakeEntity(simulation);
+        FakeEntity second = new FakeEntity(simulation);
+        EntityDeferredQueue queue = createEventQueue();
+
+        SimEvent firstA = new CloudSimEvent(1, first, first, CloudActionTags.NONE, "a");
+        SimEvent secondA = new CloudSimEvent(1, second, second, CloudActionTags.NONE, "a");
+        SimEvent firstB = new CloudSimEvent(1, first, first, CloudActionTags.NONE, "b");
+        SimEvent firstC = new CloudSimEvent(0, first, first, CloudActionTags.NONE, "c");
+        queue.addEvent(firstA);
+        queue.addEvent(secondA);
+        queue.addEvent(firstB);
+        queue.addEvent(firstC);
+        assertEquals(4, queue.size());
+
+        assertTrue(queue.isExistSameEvent(first, CloudActionTags.NONE, "b"));
+        assertSame(firstA, queue.findFirst(first, evt -> evt.getTime() >= 1));
+        assertSame(SimEvent.NULL, queue.pollFirst(first, evt -> evt.getTime() >= 1));
+        assertSame(firstC, queue.pollFirst(first, evt -> evt.getTime() < 1));
+        queue.addEvent(firstC);
+        assertSame(firstC, queue.poll(first, evt -> true));
+        assertSame(firstA, queue.poll(first, evt -> true));
+        assertSame(firstB, queue.poll(first, evt -> true));
+        assertSame(SimEvent.NULL, queue.poll(first, evt -> true));
+        assertSame(SimEvent.NULL, queue.poll(second, evt -> evt.getTime() < 1));
+        assertSame(secondA, queue.poll(second, evt -> true));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testIsExistSameUniqueEvent() {
+        Simulation simulation = new CloudSim();
+        FakeEntity first = new FakeEntity(simulation);
+        FakeEntity second = new FakeEntity(simulation);
+        EntityDeferredQueue queue = createEventQueue();
+
+        SimEvent preAllocate = new CloudSimEvent(0, first, first, CloudActionTags.PRE_ALLOCATE_RESOURCE, null);
+        SimEvent heartbeat = new CloudSimEvent(0, first, first, CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, List.of(1));
+        queue.addEvent(preAllocate);
+        queue.addEvent(heartbeat);
+
+        assertTrue(queue.isExistSameEvent(first, CloudActionTags.PRE_ALLOCATE_RESOURCE, null));
+        assertFalse(queue.isExistSameEvent(first, CloudActionTags.PRE_ALLOCATE_RESOURCE, "intra"));
+        assertFalse(queue.isExistSameEvent(second, CloudActionTags.PRE_ALLOCATE_RESOURCE, null));
+        assertTrue(queue.isExistSameEvent(first, CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, new ArrayList<>(List.of(1))));
+        assertFalse(queue.isExistSameEvent(first, CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, null));
+
+        queue.poll(first, evt -> true);
+        assertFalse(queue.isExistSameEvent(first, CloudActionTags.PRE_ALLOCATE_RESOURCE, null));
+        queue.removeIf(evt -> true);
+        assertFalse(queue.isExistSameEvent(first, CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, List.of(1)));
+    }
+}
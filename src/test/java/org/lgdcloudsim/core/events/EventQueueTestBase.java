@@ -7,6 +7,8 @@ import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.lgdcloudsim.core.CloudSimEntity;
+import org.lgdcloudsim.core.Simulation;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -70,4 +72,18 @@ class FakeSimEvent extends SimEventNull {
         final CloudSimEvent that = (CloudSimEvent) obj;
         return Double.compare(that.getTime(), getTime()) == 0;
     }
-}
\ No newline at end of file
+}
+
+class FakeEntity extends CloudSimEntity {
+    FakeEntity(Simulation simulation) {
+        super(simulation);
+    }
+
+    @Override
+    protected void startInternal() {
+    }
+
+    @Override
+    public void processEvent(SimEvent evt) {
+    }
+}
@@ -1,7 +1,84 @@
 package org.lgdcloudsim.core.events;
 
+import org.junit.Test;
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.core.Simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 public class FutureQueueTest extends EventQueueTestBase<FutureQueue> {
     public FutureQueue createEventQueue() {
         return new FutureQueue();
     }
+
+    @Test
+    public void testLoopEventNum() {
+        Simulation simulation = new CloudSim();
+        FakeEntity entity = new FakeEntity(simulation);
+        FutureQueue queue = createEventQueue();
+
+        SimEvent loopEvent = new CloudSimEvent(1, entity, entity, CloudActionTags.SYN_STATE_BETWEEN_DC, null);
+        SimEvent endEvent = new CloudSimEvent(2, entity, entity, CloudActionTags.END_INSTANCE_RUN, null);
+        SimEvent otherEndEvent = new CloudSimEvent(3, entity, entity, CloudActionTags.END_INSTANCE_RUN, null);
+        queue.addEvent(loopEvent);
+        assertTrue(queue.isOnlyLoopEvents());
+        queue.addEvent(endEvent);
+        queue.addEvent(otherEndEvent);
+        assertFalse(queue.isOnlyLoopEvents());
+        assertEquals(1, queue.getLoopEventNum());
+        assertEquals(2, queue.getNonLoopEventNum());
+        assertEquals(2, queue.getEventNum(CloudActionTags.END_INSTANCE_RUN));
+
+        queue.remove(endEvent);
+        queue.removeIf(evt -> evt.getTime() > 2.5);
+        assertTrue(queue.isOnlyLoopEvents());
+        assertEquals(0, queue.getEventNum(CloudActionTags.END_INSTANCE_RUN));
+
+        queue.clear();
+        assertEquals(0, queue.getLoopEventNum());
+    }
+
+    @Test
+    public void testCoalesceListEvents() {
+        Simulation simulation = new CloudSim();
+        FakeEntity entity = new FakeEntity(simulation);
+        FakeEntity otherEntity = new FakeEntity(simulation);
+        FutureQueue queue = createEventQueue();
+        queue.addEvent(new CloudSimEvent(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, List.of(0)));
+        queue.addEvent(new CloudSimEvent(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, List.of(0)));
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getCoalescedEventNum());
+        queue.clear();
+        queue.setCoalescingEnabled(true);
+
+        List<Integer> firstInstances = List.of(1);
+        SimEvent first = new CloudSimEvent(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, firstInstances);
+        queue.addEvent(first);
+        queue.addEvent(new CloudSimEvent(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, List.of(2)));
+        queue.addEvent(new CloudSimEvent(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, new ArrayList<>(List.of(3, 4))));
+        queue.addEvent(new CloudSimEvent(2, entity, entity, CloudActionTags.END_INSTANCE_RUN, List.of(5)));
+        queue.addEvent(new CloudSimEvent(1, otherEntity, otherEntity, CloudActionTags.END_INSTANCE_RUN, List.of(6)));
+        queue.addEvent(new CloudSimEvent(1, entity, entity, CloudActionTags.NONE, List.of(7)));
+        queue.addEvent(new CloudSimEvent(1, entity, entity, CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, List.of(8)));
+        queue.addEvent(new CloudSimEvent(1, entity, entity, CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC, List.of(9)));
+
+        assertEquals(6, queue.size());
+        assertEquals(2, queue.getCoalescedEventNum());
+        assertEquals(3, queue.getEventNum(CloudActionTags.END_INSTANCE_RUN));
+        assertEquals(2, queue.getEventNum(CloudActionTags.SYN_STATE_BY_HEARTBEAT_IN_DC));
+        assertEquals(List.of(1, 2, 3, 4), first.getData());
+        assertEquals(List.of(1), firstInstances);
+
+        queue.remove(first);
+        SimEvent afterRemoved = new CloudSimEvent(1, entity, entity, CloudActionTags.END_INSTANCE_RUN, List.of(10));
+        queue.addEvent(afterRemoved);
+        assertEquals(6, queue.size());
+        assertEquals(List.of(10), afterRemoved.getData());
+    }
 }
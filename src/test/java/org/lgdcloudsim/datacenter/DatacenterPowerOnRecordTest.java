@@ -3,6 +3,9 @@ package org.lgdcloudsim.datacenter;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class DatacenterPowerOnRecordTest {
     @Test
@@ -25,4 +28,23 @@ public class DatacenterPowerOnRecordTest {
         assertEquals(65, datacenterPowerOnRecord.getAllPowerOnTime(), 0.1);
         assertEquals(3, datacenterPowerOnRecord.getMaxHostNum());
     }
+
+    @Test
+    public void testPowerOnHosts() {
+        DatacenterPowerOnRecord datacenterPowerOnRecord = new DatacenterPowerOnRecord();
+        datacenterPowerOnRecord.hostAllocateInstance(1000, 0);
+        datacenterPowerOnRecord.hostAllocateInstance(5, 0);
+        datacenterPowerOnRecord.hostAllocateInstance(5, 1);
+        assertEquals(5, datacenterPowerOnRecord.nextPowerOnHost(0));
+        assertEquals(1000, datacenterPowerOnRecord.nextPowerOnHost(6));
+        assertEquals(2, datacenterPowerOnRecord.getHostInstanceNum(5));
+        assertEquals(0, datacenterPowerOnRecord.getHostInstanceNum(2000));
+
+        datacenterPowerOnRecord.hostReleaseInstance(1000, 10);
+        assertEquals(-1, datacenterPowerOnRecord.nextPowerOnHost(6));
+        assertFalse(datacenterPowerOnRecord.isPowerOn(1000));
+        assertTrue(datacenterPowerOnRecord.isPowerOn(5));
+        assertEquals(1, datacenterPowerOnRecord.getNowPowerOnHostNum());
+        assertThrows(IllegalStateException.class, () -> datacenterPowerOnRecord.hostReleaseInstance(1000, 10));
+    }
 }
\ No newline at end of file
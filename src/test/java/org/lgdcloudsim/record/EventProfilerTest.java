@@ -0,0 +1,53 @@
+package org.lgdcloudsim.record;
+
+import org.junit.Test;
+import org.lgdcloudsim.core.CloudActionTags;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.datacenter.DatacenterSimple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventProfilerTest {
+    @Test
+    public void testPercentile() {
+        EventProfiler.EventStatistics statistics = new EventProfiler.EventStatistics();
+        for (int i = 1; i <= 1000; i++) {
+            statistics.record(i * 1000L);
+        }
+        assertEquals(1000, statistics.getCount());
+        assertEquals(500_500_000L, statistics.getTotalNanos());
+        assertEquals(1_000_000L, statistics.getMaxNanos());
+
+        long p50 = statistics.getPercentileNanos(0.5);
+        long p99 = statistics.getPercentileNanos(0.99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000);
+        assertEquals(0, new EventProfiler.EventStatistics().getPercentileNanos(0.5));
+    }
+
+    @Test
+    public void testRecord() {
+        EventProfiler eventProfiler = new EventProfiler();
+        DatacenterSimple datacenter = new DatacenterSimple(new CloudSim());
+        eventProfiler.recordEvent(datacenter, CloudActionTags.INTRA_SCHEDULE_BEGIN, 100);
+        eventProfiler.recordEvent(datacenter, CloudActionTags.END_INSTANCE_RUN, 300);
+        assertEquals(1, eventProfiler.getTagStatistics().get(CloudActionTags.INTRA_SCHEDULE_BEGIN).getCount());
+        assertEquals(400, eventProfiler.getEntityClassStatistics().get(DatacenterSimple.class).getTotalNanos());
+
+        eventProfiler.setQueueSampleInterval(10);
+        eventProfiler.recordQueueSizes(0, 5, 1);
+        eventProfiler.recordQueueSizes(5, 50, 2);
+        eventProfiler.recordQueueSizes(10, 7, 3);
+        assertEquals(2, eventProfiler.getQueueSampleNum());
+        assertEquals(10, eventProfiler.getQueueSampleTime(1), 0);
+        assertEquals(7, eventProfiler.getFutureQueueSize(1));
+        assertEquals(50, eventProfiler.getMaxFutureQueueSize());
+
+        String[] lines = eventProfiler.getSummary().split(System.lineSeparator());
+        assertEquals("Event profile by tag:", lines[0]);
+        assertTrue(lines[2].startsWith("END_INSTANCE_RUN"));
+        assertTrue(lines[3].startsWith("INTRA_SCHEDULE_BEGIN"));
+        assertTrue(lines[lines.length - 1].startsWith("The future queue has a maximum of 50 events"));
+    }
+}
@@ -0,0 +1,123 @@
+package org.lgdcloudsim.statemanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeLogSynStateStoreTest {
+    private PartitionRangesManager newPartitionRangesManager() {
+        TreeMap<Integer, int[]> ranges = new TreeMap<>();
+        ranges.put(0, new int[]{0, 99});
+        ranges.put(1, new int[]{100, 199});
+        return new PartitionRangesManager(ranges);
+    }
+
+    @Test
+    void testSameAsEpochStore() {
+        PartitionRangesManager partitionRangesManager = newPartitionRangesManager();
+        SynStateStore epochStore = SynStateStore.create("epoch", partitionRangesManager, 3);
+        SynStateStore changeLogStore = SynStateStore.create("changeLog", partitionRangesManager, 3);
+        Random random = new Random(1);
+        int synCount = 0;
+        int[] expected = new int[HostState.STATE_NUM];
+        int[] actual = new int[HostState.STATE_NUM];
+        for (int round = 0; round < 200000; round++) {
+            int hostId = random.nextInt(200);
+            int partitionId = partitionRangesManager.getPartitionId(hostId);
+            int operation = random.nextInt(100);
+            if (operation < 60) {
+                int[] hostState = {round, random.nextInt(10), random.nextInt(10), random.nextInt(10)};
+                epochStore.saveIfAbsent(partitionId, hostId, hostState, 0);
+                assertTrue(changeLogStore.saveIfAbsent(partitionId, hostId, hostState, 0));
+            } else if (operation < 99) {
+                int readSynCount = synCount - random.nextInt(5);
+                assertEquals(epochStore.copyState(partitionId, readSynCount, hostId, expected),
+                        changeLogStore.copyState(partitionId, readSynCount, hostId, actual));
+                assertArrayEquals(expected, actual);
+            } else {
+                synCount += 1 + random.nextInt(2);
+                epochStore.startEpoch(synCount, 3);
+                changeLogStore.startEpoch(synCount, 3);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentReads() {
+        PartitionRangesManager partitionRangesManager = newPartitionRangesManager();
+        SynStateStore epochStore = SynStateStore.create("epoch", partitionRangesManager, 2);
+        SynStateStore changeLogStore = SynStateStore.create("changeLog", partitionRangesManager, 2);
+        Random random = new Random(2);
+        for (int synCount = 1; synCount <= 3; synCount++) {
+            for (int i = 0; i < 5000; i++) {
+                int hostId = random.nextInt(200);
+                int[] hostState = {i, synCount, random.nextInt(10), random.nextInt(10)};
+                epochStore.saveIfAbsent(partitionRangesManager.getPartitionId(hostId), hostId, hostState, 0);
+                changeLogStore.saveIfAbsent(partitionRangesManager.getPartitionId(hostId), hostId, hostState, 0);
+            }
+            if (synCount < 3) {
+                epochStore.startEpoch(synCount, 2);
+                changeLogStore.startEpoch(synCount, 2);
+            }
+        }
+
+        changeLogStore.prepareConcurrentReads();
+        IntStream.range(0, 400 * 4).parallel().forEach(i -> {
+            int hostId = i % 200;
+            int synCount = i / 200 % 2 + 1;
+            int partitionId = partitionRangesManager.getPartitionId(hostId);
+            int[] expected = new int[HostState.STATE_NUM];
+            int[] actual = new int[HostState.STATE_NUM];
+            assertEquals(epochStore.copyState(partitionId, synCount, hostId, expected),
+                    changeLogStore.copyState(partitionId, synCount, hostId, actual));
+            assertArrayEquals(expected, actual);
+        });
+    }
+
+    @Test
+    void testTruncateAndReuse() {
+        ChangeLogSynStateStore store = new ChangeLogSynStateStore(2);
+        int[] hostState = new int[HostState.STATE_NUM];
+        int entryNum = ChangeLogSynStateStore.CHUNK_SIZE * 3;
+        for (int i = 0; i < entryNum; i++) {
+            store.saveIfAbsent(0, i % 10, new int[]{i, 0, 0, 0}, 0);
+        }
+        assertEquals(entryNum, store.getEntryNum());
+        assertTrue(store.copyState(0, 0, 3, hostState));
+        assertEquals(3, hostState[0]);
+
+        store.startEpoch(1, 2);
+        store.saveIfAbsent(0, 3, new int[]{-1, 0, 0, 0}, 0);
+        assertTrue(store.copyState(0, 0, 3, hostState));
+        assertEquals(3, hostState[0]);
+        assertTrue(store.copyState(0, 1, 3, hostState));
+        assertEquals(-1, hostState[0]);
+        assertFalse(store.copyState(0, 1, 4, hostState));
+
+        store.startEpoch(2, 2);
+        assertEquals(1, store.getEntryNum());
+        assertFalse(store.copyState(0, 0, 3, hostState));
+        assertTrue(store.copyState(0, 1, 3, hostState));
+        assertEquals(-1, hostState[0]);
+        assertFalse(store.copyState(0, 2, 3, hostState));
+
+        for (int i = 0; i < entryNum; i++) {
+            store.saveIfAbsent(0, 100 + i % 10, new int[]{i, 0, 0, 0}, 0);
+        }
+        store.startEpoch(4, 2);
+        assertFalse(store.copyState(0, 3, 3, hostState));
+        assertFalse(store.copyState(0, 2, 105, hostState));
+        store.saveIfAbsent(0, 105, new int[]{7, 0, 0, 0}, 0);
+        assertTrue(store.copyState(0, 4, 105, hostState));
+        assertEquals(7, hostState[0]);
+        assertThrows(IllegalArgumentException.class, () -> store.startEpoch(4, 2));
+
+        store.clear();
+        assertEquals(0, store.getEntryNum());
+        assertFalse(store.copyState(0, 0, 105, hostState));
+    }
+}
@@ -3,6 +3,11 @@ package org.lgdcloudsim.statemanager;
 import org.junit.Test;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HostCapacityManagerTest {
     @Test
@@ -43,4 +48,32 @@ public class HostCapacityManagerTest {
 
 
     }
+
+    @Test
+    public void testOutOfOrderHostCapacityManager() {
+        for (boolean isDenseIndex : new boolean[]{true, false}) {
+            HostCapacityManager hostCapacityManager = new HostCapacityManager(isDenseIndex);
+            hostCapacityManager.addSameCapacityHost(200, 50, new int[]{300, 300, 300, 300});
+            hostCapacityManager.addSameCapacityHost(0, 100, new int[]{100, 100, 100, 100});
+            hostCapacityManager.addSameCapacityHost(100, 100, new int[]{300, 300, 300, 300});
+            assertEquals(isDenseIndex, hostCapacityManager.isDenseIndex());
+            assertEquals(2, hostCapacityManager.getCapacityClassNum());
+            assertEquals(250, hostCapacityManager.getHostNum());
+
+            assertArrayEquals(new int[]{100, 100, 100, 100}, hostCapacityManager.getHostCapacity(99));
+            assertArrayEquals(new int[]{300, 300, 300, 300}, hostCapacityManager.getHostCapacity(100));
+            assertArrayEquals(new int[]{300, 300, 300, 300}, hostCapacityManager.getHostCapacity(249));
+            assertSame(hostCapacityManager.getHostCapacity(100), hostCapacityManager.getHostCapacity(200));
+            assertEquals(100 * 100 + 150 * 300, hostCapacityManager.getCpuCapacitySum());
+            assertThrows(IllegalArgumentException.class, () -> hostCapacityManager.getHostCapacity(250));
+            assertThrows(IllegalArgumentException.class, () -> hostCapacityManager.addSameCapacityHost(240, 20, new int[]{1, 1, 1, 1}));
+
+            assertEquals(-1, hostCapacityManager.findCapacityClass(250));
+            assertArrayEquals(new int[]{300, 300, 300, 300}, hostCapacityManager.getClassCapacity(hostCapacityManager.findCapacityClass(150)));
+            assertTrue(hostCapacityManager.isSameCapacity(150, 100, new int[]{300, 300, 300, 300}));
+            assertFalse(hostCapacityManager.isSameCapacity(150, 101, new int[]{300, 300, 300, 300}));
+            assertFalse(hostCapacityManager.isSameCapacity(90, 20, new int[]{300, 300, 300, 300}));
+            assertTrue(hostCapacityManager.isSameCapacity(0, 100, new int[]{100, 100, 100, 100}));
+        }
+    }
 }
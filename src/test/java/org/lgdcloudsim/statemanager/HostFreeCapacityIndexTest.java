@@ -0,0 +1,67 @@
+package org.lgdcloudsim.statemanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HostFreeCapacityIndexTest {
+    private int linearFindFirst(HostStateStore hostStates, int fromHostId, int toHostId, int cpu, int ram, int storage, int bw) {
+        for (int hostId = fromHostId; hostId <= toHostId; hostId++) {
+            if (hostStates.get(hostId, 0) >= cpu && hostStates.get(hostId, 1) >= ram
+                    && hostStates.get(hostId, 2) >= storage && hostStates.get(hostId, 3) >= bw) {
+                return hostId;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void testFindFirstSameAsLinearProbe() {
+        int hostNum = 1000;
+        Random random = new Random(1);
+        HostStateStore hostStates = HostStateStore.onHeap(hostNum);
+        for (int hostId = 0; hostId < hostNum; hostId++) {
+            hostStates.copyFrom(hostId, new int[]{random.nextInt(10), random.nextInt(10), random.nextInt(10), random.nextInt(10)}, 0);
+        }
+        HostFreeCapacityIndex index = new HostFreeCapacityIndex(hostStates);
+
+        for (int round = 0; round < 2000; round++) {
+            int hostId = random.nextInt(hostNum);
+            int resourceIndex = random.nextInt(4);
+            hostStates.add(hostId, resourceIndex, random.nextInt(10) - hostStates.get(hostId, resourceIndex));
+            index.update(hostId);
+
+            int fromHostId = random.nextInt(hostNum);
+            int toHostId = fromHostId + random.nextInt(hostNum - fromHostId);
+            int cpu = random.nextInt(11);
+            int ram = random.nextInt(11);
+            int storage = random.nextInt(5);
+            int bw = random.nextInt(5);
+            assertEquals(linearFindFirst(hostStates, fromHostId, toHostId, cpu, ram, storage, bw),
+                    index.findFirst(fromHostId, toHostId, cpu, ram, storage, bw));
+        }
+        assertEquals(-1, index.findFirst(10, 9, 0, 0, 0, 0));
+    }
+
+    @Test
+    void testInvalidateAndCopy() {
+        HostStateStore hostStates = HostStateStore.onHeap(20);
+        HostFreeCapacityIndex index = new HostFreeCapacityIndex(hostStates);
+        assertEquals(-1, index.findFirst(0, 19, 1, 1, 1, 1));
+
+        hostStates.copyFrom(17, new int[]{5, 5, 5, 5}, 0);
+        index.invalidate();
+        assertEquals(17, index.findFirst(0, 19, 5, 5, 5, 5));
+
+        HostStateStore copiedHostStates = hostStates.copy();
+        HostFreeCapacityIndex copiedIndex = index.copy(copiedHostStates);
+        copiedHostStates.add(17, 0, -5);
+        copiedIndex.update(17);
+        assertEquals(-1, copiedIndex.findFirst(0, 19, 5, 5, 5, 5));
+        assertEquals(17, index.findFirst(0, 19, 5, 5, 5, 5));
+        assertThrows(IllegalArgumentException.class, () -> index.copy(HostStateStore.onHeap(1)));
+    }
+}
@@ -0,0 +1,125 @@
+package org.lgdcloudsim.statemanager;
+
+import org.junit.jupiter.api.Test;
+import org.lgdcloudsim.request.InstanceSimple;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostStateStoreTest {
+    @Test
+    void testHostStateStore() {
+        int hostNum = HostStateStore.SEGMENT_HOST_NUM + 3;
+        for (HostStateStore store : new HostStateStore[]{HostStateStore.onHeap(hostNum), HostStateStore.offHeap(hostNum),
+                HostStateStore.packed(hostNum), HostStateStore.sparse(hostNum, new HostCapacityManager())}) {
+            assertEquals((long) hostNum * HostState.STATE_NUM, store.getStateNum());
+            int lastHostId = hostNum - 1;
+            store.copyFrom(lastHostId, new int[]{0, 10, 20, 30, 40}, 1);
+            store.copyFrom(HostStateStore.SEGMENT_HOST_NUM - 1, new int[]{1, 2, 3, 4}, 0);
+            store.allocate(lastHostId, new InstanceSimple(0, 1, 2, 3, 4));
+            assertEquals(new HostState(9, 18, 27, 36), store.getHostState(lastHostId));
+            assertEquals(new HostState(1, 2, 3, 4), store.getHostState(HostStateStore.SEGMENT_HOST_NUM - 1));
+            assertEquals(new HostState(0, 0, 0, 0), store.getHostState(HostStateStore.SEGMENT_HOST_NUM));
+            assertTrue(store.isSuitable(lastHostId, 9, 18, 27, 36));
+            assertFalse(store.isSuitable(lastHostId, 9, 18, 27, 37));
+
+            store.release(lastHostId, new InstanceSimple(0, 1, 2, 3, 4));
+            int[] hostState = new int[HostState.STATE_NUM + 1];
+            store.copyTo(lastHostId, hostState, 1);
+            assertArrayEquals(new int[]{0, 10, 20, 30, 40}, hostState);
+
+            HostStateStore onHeapCopy = HostStateStore.onHeap(hostNum);
+            onHeapCopy.copyAllFrom(store);
+            HostStateStore offHeapCopy = HostStateStore.offHeap(hostNum);
+            offHeapCopy.copyAllFrom(store);
+            HostStateStore packedCopy = HostStateStore.packed(hostNum);
+            packedCopy.copyAllFrom(store);
+            HostStateStore copy = store.copy();
+            for (HostStateStore copied : new HostStateStore[]{onHeapCopy, offHeapCopy, packedCopy, copy}) {
+                assertEquals(new HostState(10, 20, 30, 40), copied.getHostState(lastHostId));
+                assertEquals(new HostState(1, 2, 3, 4), copied.getHostState(HostStateStore.SEGMENT_HOST_NUM - 1));
+            }
+            copy.add(lastHostId, 0, -10);
+            assertEquals(10, store.get(lastHostId, 0));
+            store.copyHostFrom(copy, lastHostId);
+            assertEquals(0, store.get(lastHostId, 0));
+            assertThrows(IllegalArgumentException.class, () -> store.copyAllFrom(HostStateStore.onHeap(hostNum - 1)));
+        }
+    }
+
+    @Test
+    void testPackedHostStateStore() {
+        HostStateStore packed = HostStateStore.packed(3);
+        HostStateStore heap = HostStateStore.onHeap(3);
+        Random random = new Random(1);
+        for (int round = 0; round < 10000; round++) {
+            int[] state = {random.nextInt(8), random.nextInt(8), random.nextInt(8), random.nextInt(8)};
+            if (round % 10 == 0) {
+                state[random.nextInt(4)] = HostStateStore.MAX_PACKED_VALUE;
+            }
+            packed.copyFrom(1, state, 0);
+            heap.copyFrom(1, state, 0);
+            int[] required = {random.nextInt(9), random.nextInt(9), random.nextInt(9), random.nextInt(9)};
+            if (round % 7 == 0) {
+                required[random.nextInt(4)] = HostStateStore.MAX_PACKED_VALUE + random.nextInt(2);
+            }
+            assertEquals(heap.isSuitable(1, required[0], required[1], required[2], required[3]),
+                    packed.isSuitable(1, required[0], required[1], required[2], required[3]));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> packed.copyFrom(0, new int[]{1, 1, HostStateStore.MAX_PACKED_VALUE + 1, 1}, 0));
+        assertThrows(IllegalArgumentException.class, () -> packed.copyFrom(0, new int[]{1, -1, 1, 1}, 0));
+        packed.copyFrom(2, new int[]{1, 2, 3, 4}, 0);
+        assertThrows(IllegalStateException.class, () -> packed.allocate(2, new InstanceSimple(0, 2, 2, 2, 2)));
+        assertThrows(IllegalStateException.class, () -> packed.add(2, 3, HostStateStore.MAX_PACKED_VALUE));
+        packed.add(2, 3, -4);
+        assertEquals(new HostState(1, 2, 3, 0), packed.getHostState(2));
+        assertThrows(IllegalArgumentException.class, () -> HostStateStore.create("dense", 1, new HostCapacityManager()));
+    }
+
+    @Test
+    void testSparseHostStateStore() {
+        int hostNum = 10000;
+        HostCapacityManager hostCapacityManager = new HostCapacityManager();
+        hostCapacityManager.addSameCapacityHost(0, 6000, new int[]{10, 10, 10, 10});
+        hostCapacityManager.addSameCapacityHost(6000, 3000, new int[]{20, 20, 20, 20});
+        HostStateStore.SparseHostStateStore sparse = (HostStateStore.SparseHostStateStore) HostStateStore.sparse(hostNum, hostCapacityManager);
+        HostStateStore heap = HostStateStore.onHeap(hostNum);
+        heap.fill(0, 6000, new int[]{10, 10, 10, 10});
+        heap.fill(6000, 3000, new int[]{20, 20, 20, 20});
+        sparse.fill(0, 6000, new int[]{10, 10, 10, 10});
+        sparse.fill(6000, 3000, new int[]{20, 20, 20, 20});
+        assertEquals(0, sparse.getChangedHostNum());
+        assertEquals(new HostState(20, 20, 20, 20), sparse.getHostState(8999));
+        assertEquals(new HostState(0, 0, 0, 0), sparse.getHostState(9999));
+
+        Random random = new Random(1);
+        for (int round = 0; round < 20000; round++) {
+            int hostId = random.nextInt(9000);
+            InstanceSimple instance = new InstanceSimple(round, random.nextInt(3), random.nextInt(3), random.nextInt(3), random.nextInt(3));
+            if (random.nextBoolean()) {
+                heap.allocate(hostId, instance);
+                sparse.allocate(hostId, instance);
+            } else {
+                heap.release(hostId, instance);
+                sparse.release(hostId, instance);
+            }
+        }
+        assertTrue(sparse.getChangedHostNum() > 0 && sparse.getChangedHostNum() < hostNum);
+        HostStateStore copied = sparse.copy();
+        for (int hostId = 0; hostId < hostNum; hostId++) {
+            assertEquals(heap.getHostState(hostId), sparse.getHostState(hostId));
+            assertEquals(heap.getHostState(hostId), copied.getHostState(hostId));
+            assertEquals(heap.isSuitable(hostId, 10, 10, 10, 10), sparse.isSuitable(hostId, 10, 10, 10, 10));
+        }
+
+        int changedHostNum = sparse.getChangedHostNum();
+        sparse.fill(6000, 3000, new int[]{20, 20, 20, 20});
+        assertEquals(changedHostNum, sparse.getChangedHostNum());
+        assertEquals(new HostState(20, 20, 20, 20), sparse.getHostState(6000 + random.nextInt(3000)));
+        sparse.fill(9000, 1000, new int[]{1, 1, 1, 1});
+        assertEquals(new HostState(1, 1, 1, 1), sparse.getHostState(9999));
+        assertEquals(changedHostNum + 1000, sparse.getChangedHostNum());
+    }
+}
@@ -0,0 +1,145 @@
+package org.lgdcloudsim.statemanager;
+
+import org.junit.jupiter.api.Test;
+import org.lgdcloudsim.core.CloudSim;
+import org.lgdcloudsim.core.Simulation;
+import org.lgdcloudsim.datacenter.DatacenterSimple;
+import org.lgdcloudsim.intrascheduler.IntraScheduler;
+import org.lgdcloudsim.intrascheduler.IntraSchedulerSimple;
+import org.lgdcloudsim.request.Instance;
+import org.lgdcloudsim.request.InstanceSimple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalPredictionManagerTest {
+    @Test
+    void testSameAsListPrediction() {
+        int recordNum = 4;
+        Random random = new Random(1);
+        for (PredictionManager predictionManager : new PredictionManager[]{new PredictionManagerMean(), new PredictionManagerLinearTrend()}) {
+            predictionManager.initHostStateHistory(3, 1, recordNum);
+            List<HostStateHistory> hostStateHistories = new ArrayList<>();
+            for (int synCount = 0; synCount < 20; synCount++) {
+                int[] hostState = {random.nextInt(100), random.nextInt(100), random.nextInt(100), random.nextInt(100)};
+                predictionManager.recordHostState(1, hostState, synCount);
+                hostStateHistories.add(new HostStateHistory(hostState, synCount));
+                if (hostStateHistories.size() > recordNum) {
+                    hostStateHistories.remove(0);
+                }
+                assertArrayEquals(predictionManager.predictHostState(hostStateHistories), predictionManager.predictHostState(1, 0));
+            }
+            assertNull(predictionManager.predictHostState(0, 0));
+            assertNull(predictionManager.predictHostState(1, 20));
+        }
+    }
+
+    @Test
+    void testPartitionRings() {
+        PredictionManager mean = new PredictionManagerMean();
+        mean.initHostStateHistory(1, 2, 2);
+        for (int synCount = 0; synCount < 6; synCount++) {
+            mean.recordHostState(0, new int[]{synCount * 10, 0, 0, 0}, synCount);
+        }
+        mean.recordHostState(0, new int[]{100, 0, 0, 0}, 5);
+        assertArrayEquals(new int[]{30, 0, 0, 0}, mean.predictHostState(0, 2));
+        assertArrayEquals(new int[]{40, 0, 0, 0}, mean.predictHostState(0, 3));
+        assertArrayEquals(new int[]{40, 0, 0, 0}, mean.predictHostState(0, 4));
+        assertNull(mean.predictHostState(0, 6));
+    }
+
+    @Test
+    void testSameAsSimpleInStatesManager() {
+        for (String synStateStoreType : new String[]{"epoch", "changeLog"}) {
+            checkSameAsSimpleInStatesManager(synStateStoreType);
+        }
+    }
+
+    private void checkSameAsSimpleInStatesManager(String synStateStoreType) {
+        int hostNum = 30;
+        int partitionNum = 3;
+        Map<Integer, int[]> ranges = new HashMap<>();
+        for (int i = 0; i < partitionNum; i++) {
+            ranges.put(i, new int[]{i * hostNum / partitionNum, (i + 1) * hostNum / partitionNum - 1});
+        }
+        Simulation simulation = new CloudSim();
+        StatesManager[] statesManagers = new StatesManager[2];
+        PredictionManager[] predictionManagers = {new PredictionManagerSimple(), new PredictionManagerMean()};
+        for (int i = 0; i < statesManagers.length; i++) {
+            statesManagers[i] = new StatesManagerSimple(hostNum, new PartitionRangesManager(ranges), 100, 0, 128, 256, "heap", synStateStoreType);
+            statesManagers[i].setDatacenter(new DatacenterSimple(simulation));
+            statesManagers[i].initHostStates(100, 100, 100, 100, 0, hostNum);
+            statesManagers[i].setPredictable(true);
+            statesManagers[i].setPredictRecordNum(3);
+            statesManagers[i].setPredictionManager(predictionManagers[i]);
+        }
+        List<IntraScheduler> intraSchedulers = new ArrayList<>();
+        for (int i = 0; i < partitionNum; i++) {
+            intraSchedulers.add(new IntraSchedulerSimple(i, i, partitionNum));
+        }
+
+        Random random = new Random(1);
+        List<Instance> instances = new ArrayList<>();
+        int[] expected = new int[HostState.STATE_NUM];
+        int[] actual = new int[HostState.STATE_NUM];
+        for (int round = 0; round < 3000; round++) {
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                Instance instance = new InstanceSimple(round, 1 + random.nextInt(20), 1 + random.nextInt(20), 1, 1);
+                instance.setHost(random.nextInt(hostNum));
+                if (statesManagers[0].allocate(instance.getHost(), instance)) {
+                    assertTrue(statesManagers[1].allocate(instance.getHost(), instance));
+                    instances.add(instance);
+                }
+            } else if (operation < 9 && !instances.isEmpty()) {
+                Instance instance = instances.remove(random.nextInt(instances.size()));
+                for (StatesManager statesManager : statesManagers) {
+                    statesManager.release(instance.getHost(), instance);
+                }
+            } else {
+                for (StatesManager statesManager : statesManagers) {
+                    statesManager.synAllStateBetweenCenterAndIntraScheduler();
+                }
+            }
+            if (round % 10 == 0) {
+                for (IntraScheduler intraScheduler : intraSchedulers) {
+                    SynState simpleSynState = statesManagers[0].getSynStateForIntraScheduler(intraScheduler);
+                    SynState meanSynState = statesManagers[1].getSynStateForIntraScheduler(intraScheduler);
+                    for (int hostId = 0; hostId < hostNum; hostId++) {
+                        simpleSynState.fillHostState(hostId, expected);
+                        meanSynState.fillHostState(hostId, actual);
+                        assertArrayEquals(expected, actual);
+                    }
+                }
+            }
+        }
+        assertTrue(statesManagers[0].getPartitionSynCount() > 3 * partitionNum);
+    }
+
+    @Test
+    void testPredictions() {
+        PredictionManager mean = new PredictionManagerMean();
+        PredictionManager ewma = new PredictionManagerEwma(0.5);
+        PredictionManager linearTrend = new PredictionManagerLinearTrend();
+        for (PredictionManager predictionManager : new PredictionManager[]{mean, ewma, linearTrend}) {
+            assertTrue(predictionManager.isIncremental());
+            predictionManager.initHostStateHistory(1, 1, 3);
+            for (int i = 1; i <= 4; i++) {
+                predictionManager.recordHostState(0, new int[]{i * 10, 50 - i * 10, 8, 0}, i);
+            }
+        }
+        assertArrayEquals(new int[]{30, 20, 8, 0}, mean.predictHostState(0, 0));
+        assertArrayEquals(new int[]{33, 18, 8, 0}, ewma.predictHostState(0, 0));
+        assertArrayEquals(new int[]{50, 0, 8, 0}, linearTrend.predictHostState(0, 0));
+        assertArrayEquals(new int[]{35, 15, 8, 0}, mean.predictHostState(0, 3));
+        assertArrayEquals(new int[]{35, 15, 8, 0}, ewma.predictHostState(0, 3));
+        assertArrayEquals(new int[]{40, 10, 8, 0}, linearTrend.predictHostState(0, 4));
+        assertFalse(new PredictionManagerSimple().isIncremental());
+        assertThrows(IllegalArgumentException.class, () -> new PredictionManagerEwma(0));
+    }
+}
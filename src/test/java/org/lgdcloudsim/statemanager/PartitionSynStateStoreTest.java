@@ -0,0 +1,71 @@
+package org.lgdcloudsim.statemanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionSynStateStoreTest {
+    private PartitionRangesManager newPartitionRangesManager() {
+        TreeMap<Integer, int[]> ranges = new TreeMap<>();
+        ranges.put(0, new int[]{0, 99});
+        ranges.put(1, new int[]{100, 199});
+        return new PartitionRangesManager(ranges);
+    }
+
+    @Test
+    void testSaveAndCopy() {
+        PartitionSynStateStore store = new PartitionSynStateStore(newPartitionRangesManager(), 2);
+        int[] hostStates = {1, 2, 3, 4, 5, 6, 7, 8};
+        assertTrue(store.saveIfAbsent(0, 5, hostStates, 0));
+        assertFalse(store.saveIfAbsent(0, 5, hostStates, 4));
+        assertEquals(1, store.getSavedNum(0, 0));
+        assertEquals(0, store.getSavedNum(1, 0));
+
+        hostStates[0] = 100;
+        int[] hostState = new int[HostState.STATE_NUM];
+        assertTrue(store.copyState(0, 0, 5, hostState));
+        assertArrayEquals(new int[]{1, 2, 3, 4}, hostState);
+        assertFalse(store.copyState(0, 0, 6, hostState));
+        assertFalse(store.copyState(0, 1, 5, hostState));
+
+        for (int hostId = 100; hostId < 200; hostId++) {
+            store.saveIfAbsent(1, hostId, new int[]{hostId, 0, 0, 0}, 0);
+        }
+        assertEquals(100, store.getSavedNum(1, 0));
+        assertTrue(store.copyState(1, 0, 150, hostState));
+        assertEquals(150, hostState[0]);
+    }
+
+    @Test
+    void testExpireAndReuse() {
+        PartitionSynStateStore store = new PartitionSynStateStore(newPartitionRangesManager(), 2);
+        int[] hostState = new int[HostState.STATE_NUM];
+        store.saveIfAbsent(0, 1, new int[]{10, 10, 10, 10}, 0);
+        store.startEpoch(1, 2);
+        store.saveIfAbsent(0, 2, new int[]{20, 20, 20, 20}, 0);
+        assertTrue(store.copyState(0, 0, 1, hostState));
+        assertTrue(store.copyState(0, 1, 2, hostState));
+
+        store.startEpoch(2, 2);
+        assertFalse(store.copyState(0, 0, 1, hostState));
+        assertFalse(store.copyState(0, 2, 1, hostState));
+        assertEquals(0, store.getSavedNum(0, 2));
+        store.saveIfAbsent(0, 1, new int[]{30, 30, 30, 30}, 0);
+        assertTrue(store.copyState(0, 2, 1, hostState));
+        assertEquals(30, hostState[0]);
+        assertTrue(store.copyState(0, 1, 2, hostState));
+        assertEquals(20, hostState[0]);
+
+        store.startEpoch(3, 4);
+        store.startEpoch(4, 4);
+        assertTrue(store.copyState(0, 2, 1, hostState));
+        assertTrue(store.copyState(0, 1, 2, hostState));
+        assertThrows(IllegalArgumentException.class, () -> store.startEpoch(4, 4));
+
+        store.clear();
+        assertFalse(store.copyState(0, 0, 1, hostState));
+        assertEquals(0, store.getSavedNum(0, 0));
+    }
+}
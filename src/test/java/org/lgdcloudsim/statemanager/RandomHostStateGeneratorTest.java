@@ -2,6 +2,10 @@ package org.lgdcloudsim.statemanager;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class RandomHostStateGeneratorTest {
@@ -26,4 +30,23 @@ public class RandomHostStateGeneratorTest {
         }
 
     }
+
+    @Test
+    void testSplit() {
+        RandomHostStateGenerator randomHostStateGenerator = new RandomHostStateGenerator(1, 10, 20, 30, 40, 50, 60, 70, 80);
+        HostStateGenerator chunk = randomHostStateGenerator.split(3);
+        HostStateGenerator sameChunk = new RandomHostStateGenerator(1, 10, 20, 30, 40, 50, 60, 70, 80).split(3);
+        HostStateGenerator otherChunk = randomHostStateGenerator.split(4);
+        boolean isDifferent = false;
+        int[] randomState = new int[HostState.STATE_NUM];
+        for (int i = 0; i < 20; i++) {
+            chunk.generateHostState(randomState);
+            assertTrue(randomState[0] >= 10 && randomState[0] <= 20);
+            assertTrue(randomState[3] >= 70 && randomState[3] <= 80);
+            assertArrayEquals(randomState, sameChunk.generateHostState());
+            isDifferent |= !Arrays.equals(randomState, otherChunk.generateHostState());
+        }
+        assertTrue(isDifferent);
+        assertFalse(chunk == randomHostStateGenerator.split(3));
+    }
 }
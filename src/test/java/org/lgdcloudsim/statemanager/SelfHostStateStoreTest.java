@@ -0,0 +1,43 @@
+package org.lgdcloudsim.statemanager;
+
+import org.junit.jupiter.api.Test;
+import org.lgdcloudsim.request.Instance;
+import org.lgdcloudsim.request.InstanceSimple;
+
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelfHostStateStoreTest {
+    @Test
+    void testSelfHostStateStore() {
+        TreeMap<Integer, int[]> ranges = new TreeMap<>();
+        ranges.put(0, new int[]{0, 9});
+        ranges.put(1, new int[]{10, 19});
+        SelfHostStateStore store = new SelfHostStateStore(new PartitionRangesManager(ranges));
+        Instance instance = new InstanceSimple(0, 1, 2, 3, 4);
+        int[] hostState = new int[HostState.STATE_NUM];
+
+        assertFalse(store.contains(1, 15));
+        assertThrows(IllegalStateException.class, () -> store.allocate(1, 15, instance));
+        store.put(1, 15, new int[]{0, 0, 0, 0, 10, 10, 10, 10}, 4);
+        store.allocate(1, 15, instance);
+        assertTrue(store.copyState(1, 15, hostState));
+        assertArrayEquals(new int[]{9, 8, 7, 6}, hostState);
+        store.release(1, 15, instance);
+        assertTrue(store.copyState(1, 15, hostState));
+        assertArrayEquals(new int[]{10, 10, 10, 10}, hostState);
+
+        store.put(0, 3, new int[]{5, 5, 5, 5}, 0);
+        store.clearPartition(1);
+        assertFalse(store.contains(1, 15));
+        assertTrue(store.contains(0, 3));
+        store.put(1, 15, new int[]{1, 1, 1, 1}, 0);
+        assertTrue(store.copyState(1, 15, hostState));
+        assertArrayEquals(new int[]{1, 1, 1, 1}, hostState);
+
+        store.clear();
+        assertFalse(store.contains(0, 3));
+        assertFalse(store.copyState(1, 15, hostState));
+    }
+}
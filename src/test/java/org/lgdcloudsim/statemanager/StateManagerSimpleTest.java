@@ -4,14 +4,19 @@ import org.lgdcloudsim.core.CloudSim;
 import org.lgdcloudsim.core.Simulation;
 import org.lgdcloudsim.datacenter.Datacenter;
 import org.lgdcloudsim.datacenter.DatacenterSimple;
+import org.lgdcloudsim.intrascheduler.IntraSchedulerSimple;
 import org.lgdcloudsim.request.Instance;
 import org.lgdcloudsim.request.InstanceSimple;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class StateManagerSimpleTest {
     @Test
@@ -40,4 +45,143 @@ public class StateManagerSimpleTest {
         HostState exceptedHostState2 = new HostState(10, 10, 10, 10);
         assertEquals(exceptedHostState2, nowHostState2);
     }
+
+    @Test
+    void testSynStateQuery() {
+        int hostNum = 20;
+        Map<Integer, int[]> ranges = new HashMap<>();
+        ranges.put(0, new int[]{0, 9});
+        ranges.put(1, new int[]{10, hostNum - 1});
+        Simulation simulation = new CloudSim();
+        Datacenter datacenter = new DatacenterSimple(simulation);
+        StatesManager statesManager = new StatesManagerSimple(hostNum, new PartitionRangesManager(ranges), 100);
+        statesManager.setDatacenter(datacenter);
+        statesManager.initHostStates(10, 10, 10, 10, 0, 20);
+        SynState synState = statesManager.getSynStateForIntraScheduler(new IntraSchedulerSimple(0, 0, 2));
+
+        statesManager.allocate(12, new InstanceSimple(0, 4, 4, 4, 4));
+        int[] hostState = new int[HostState.STATE_NUM];
+        synState.fillHostState(12, hostState);
+        assertArrayEquals(new int[]{10, 10, 10, 10}, hostState);
+        assertTrue(synState.isSuitable(12, 10, 10, 10, 10));
+        assertFalse(synState.isSuitable(12, 11, 1, 1, 1));
+        assertEquals(12, synState.findFirstSuitableHost(12, hostNum - 1, new InstanceSimple(2, 10, 10, 10, 10)));
+
+        synState.allocateTmpResource(12, new InstanceSimple(1, 1, 2, 3, 4));
+        synState.fillHostState(12, hostState);
+        assertArrayEquals(new int[]{9, 8, 7, 6}, hostState);
+        assertEquals(new HostState(9, 8, 7, 6), synState.getHostState(12));
+        assertFalse(synState.isSuitable(12, 10, 1, 1, 1));
+    }
+
+    @Test
+    void testDetailedDeltaState() {
+        int hostNum = 100;
+        Map<Integer, int[]> ranges = new HashMap<>();
+        ranges.put(0, new int[]{0, hostNum - 1});
+        Simulation simulation = new CloudSim();
+        Datacenter datacenter = new DatacenterSimple(simulation);
+        StatesManager statesManager = new StatesManagerSimple(hostNum, new PartitionRangesManager(ranges), 0);
+        statesManager.setDatacenter(datacenter);
+        statesManager.initHostStates(10, 10, 10, 10, 0, 20);
+
+        DetailedDcStateSimple deltaState = (DetailedDcStateSimple) statesManager.getStateByType("detailedDelta", null);
+        statesManager.allocate(3, new InstanceSimple(0, 2, 4, 6, 8));
+        statesManager.allocate(17, new InstanceSimple(1, 1, 1, 1, 1));
+        deltaState.allocate(new InstanceSimple(2, 5, 5, 5, 5), 10);
+        assertTrue(deltaState == statesManager.getStateByType("detailedDelta", deltaState));
+        assertDetailedStateEquals((DetailedDcStateSimple) statesManager.getStateByType("detailed"), deltaState);
+        assertEquals(new HostState(10, 10, 10, 10), deltaState.getHostState(10));
+        assertEquals(10, deltaState.findFirstSuitableHost(10, hostNum - 1, new InstanceSimple(3, 10, 10, 10, 10)));
+
+        statesManager.initHostStates(5, 5, 5, 5, 20, hostNum - 20);
+        assertTrue(deltaState == statesManager.getStateByType("detailedDelta", deltaState));
+        assertDetailedStateEquals((DetailedDcStateSimple) statesManager.getStateByType("detailed"), deltaState);
+        assertEquals(20, deltaState.findFirstSuitableHost(20, hostNum - 1, new InstanceSimple(4, 5, 5, 5, 5)));
+        assertEquals(-1, deltaState.findFirstSuitableHost(20, hostNum - 1, new InstanceSimple(5, 6, 6, 6, 6)));
+
+        DetailedDcStateSimple otherState = (DetailedDcStateSimple) statesManager.getStateByType("detailed");
+        assertFalse(otherState == statesManager.getStateByType("detailedDelta", otherState));
+    }
+
+    @Test
+    void testHeartbeatTimerWheel() {
+        int hostNum = 20;
+        Map<Integer, int[]> ranges = new HashMap<>();
+        ranges.put(0, new int[]{0, hostNum - 1});
+        Simulation simulation = new CloudSim();
+        Datacenter datacenter = new DatacenterSimple(simulation);
+        StatesManager statesManager = new StatesManagerSimple(hostNum, new PartitionRangesManager(ranges), 0, 100, 128, 256);
+        statesManager.setDatacenter(datacenter);
+        statesManager.initHostStates(10, 10, 10, 10, 0, 20);
+        Instance instance = new InstanceSimple(0, 2, 2, 2, 2);
+        statesManager.allocate(3, instance);
+        statesManager.release(3, instance);
+        assertEquals(new HostState(8, 8, 8, 8), statesManager.getCenterHostState(3));
+
+        int heartbeatSlot = statesManager.addHeartbeatHost(3, 0);
+        assertTrue(heartbeatSlot >= 0 && heartbeatSlot < 200);
+        assertEquals(-1, statesManager.addHeartbeatHost(3, 0));
+        statesManager.synByHeartbeat(heartbeatSlot);
+        assertEquals(new HostState(10, 10, 10, 10), statesManager.getCenterHostState(3));
+
+        double heartbeatTime = statesManager.getNextHeartbeatDelay(3, 0);
+        assertEquals(heartbeatSlot, statesManager.addHeartbeatHost(3, heartbeatTime - 1));
+        int nextHeartbeatSlot = statesManager.addHeartbeatHost(4, heartbeatTime);
+        assertEquals(-1, statesManager.addHeartbeatHost(3, heartbeatTime));
+        statesManager.synByHeartbeat(heartbeatSlot);
+        int otherHeartbeatSlot = statesManager.addHeartbeatHost(3, heartbeatTime);
+        assertTrue(otherHeartbeatSlot >= 0 && otherHeartbeatSlot != heartbeatSlot && otherHeartbeatSlot % 100 == heartbeatSlot % 100);
+        assertTrue(nextHeartbeatSlot >= 0);
+
+        Instance otherInstance = new InstanceSimple(1, 1, 1, 1, 1);
+        statesManager.allocate(4, otherInstance);
+        statesManager.synByHeartbeat(List.of(4));
+        assertEquals(new HostState(9, 9, 9, 9), statesManager.getCenterHostState(4));
+        statesManager.release(4, otherInstance);
+        statesManager.synByHeartbeat(nextHeartbeatSlot);
+        assertEquals(new HostState(10, 10, 10, 10), statesManager.getCenterHostState(4));
+    }
+
+    @Test
+    void testParallelInitHostStates() {
+        int hostNum = StatesManagerSimple.INIT_CHUNK_HOST_NUM * 2 + 5;
+        Map<Integer, int[]> ranges = new HashMap<>();
+        ranges.put(0, new int[]{0, hostNum - 1});
+        StatesManager statesManager = new StatesManagerSimple(hostNum, new PartitionRangesManager(ranges), 0, 100, 128, 256);
+        RandomHostStateGenerator hostStateGenerator = new RandomHostStateGenerator(1);
+        statesManager.initHostStates(hostStateGenerator);
+
+        long cpuSum = 0;
+        for (int chunkIndex = 0; chunkIndex < 3; chunkIndex++) {
+            HostStateGenerator chunkGenerator = hostStateGenerator.split(chunkIndex);
+            int endId = Math.min(hostNum, (chunkIndex + 1) * StatesManagerSimple.INIT_CHUNK_HOST_NUM);
+            for (int hostId = chunkIndex * StatesManagerSimple.INIT_CHUNK_HOST_NUM; hostId < endId; hostId++) {
+                HostState hostState = new HostState(chunkGenerator.generateHostState());
+                assertEquals(hostState, statesManager.getActualHostState(hostId));
+                assertEquals(hostState, statesManager.getCenterHostState(hostId));
+                cpuSum += hostState.getCpu();
+            }
+        }
+        assertEquals(cpuSum, statesManager.getSimpleState().getCpuAvailableSum());
+
+        StatesManager sparseStatesManager = new StatesManagerSimple(20, new PartitionRangesManager(Map.of(0, new int[]{0, 19})), 0, 0, 128, 256, "sparse");
+        Object deltaState = sparseStatesManager.getStateByType("detailedDelta", null);
+        sparseStatesManager.initHostStates(new IsomorphicHostStateGenerator(1, 2, 3, 4));
+        assertEquals(new HostState(1, 2, 3, 4), sparseStatesManager.getActualHostState(19));
+        assertEquals(20, sparseStatesManager.getSimpleState().getCpuAvailableSum());
+        DetailedDcStateSimple syncedDeltaState = (DetailedDcStateSimple) sparseStatesManager.getStateByType("detailedDelta", deltaState);
+        assertDetailedStateEquals((DetailedDcStateSimple) sparseStatesManager.getStateByType("detailed"), syncedDeltaState);
+        assertEquals(0, syncedDeltaState.findFirstSuitableHost(0, 19, new InstanceSimple(0, 1, 2, 3, 4)));
+    }
+
+    private void assertDetailedStateEquals(DetailedDcStateSimple expected, DetailedDcStateSimple actual) {
+        for (int hostId = 0; hostId < expected.getHostNum(); hostId++) {
+            assertEquals(expected.getHostState(hostId), actual.getHostState(hostId));
+        }
+        assertEquals(expected.getCpuAvailableSum(), actual.getCpuAvailableSum());
+        assertEquals(expected.getRamAvailableSum(), actual.getRamAvailableSum());
+        assertEquals(expected.getStorageAvailableSum(), actual.getStorageAvailableSum());
+        assertEquals(expected.getBwAvailableSum(), actual.getBwAvailableSum());
+    }
 }